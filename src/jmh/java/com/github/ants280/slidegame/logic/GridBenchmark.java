@@ -0,0 +1,162 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times the Grid operations of a move on grids of each length.  Benchmarks
+ * that change the grid put its tiles back first, as part of the call: JMH
+ * cannot time setup at Level.Invocation around calls this short.  Subtract
+ * the time of the matching restore benchmark from theirs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark
+{
+	/**
+	 * A grid half full of small tiles, so every direction slides and
+	 * combines some of them.
+	 */
+	@State(Scope.Thread)
+	public static class GridState
+	{
+		@Param({"4", "5", "6", "7", "8", "9", "10"})
+		int length;
+		@Param({"LEFT", "RIGHT", "UP", "DOWN"})
+		MoveDirection moveDirection;
+		@Param({"0.5"})
+		double fill;
+		Grid grid;
+		Tile[][] tiles;
+
+		@Setup(Level.Trial)
+		public void createGrid()
+		{
+			grid = new Grid(length, 2048, RandomSource.fast(length));
+			tiles = fillGrid(grid, fill, RandomSource.fast(~length));
+		}
+	}
+
+	/**
+	 * A grid filled to each level, for adding tiles to.
+	 */
+	@State(Scope.Thread)
+	public static class FilledGridState
+	{
+		@Param({"4", "5", "6", "7", "8", "9", "10"})
+		int length;
+		@Param({"0", "0.25", "0.5", "0.75", "0.9"})
+		double fill;
+		Grid grid;
+		Tile[][] tiles;
+
+		@Setup(Level.Trial)
+		public void createGrid()
+		{
+			grid = new Grid(length, 2048, RandomSource.fast(length));
+			tiles = fillGrid(grid, fill, RandomSource.fast(~length));
+		}
+	}
+
+	/**
+	 * The baseline of slideTiles.
+	 */
+	@Benchmark
+	public Grid restoreGrid(GridState state)
+	{
+		restoreGrid(state.grid, state.tiles);
+
+		return state.grid;
+	}
+
+	@Benchmark
+	public int slideTiles(GridState state)
+	{
+		restoreGrid(state.grid, state.tiles);
+
+		return state.grid.slideTiles(state.moveDirection);
+	}
+
+	@Benchmark
+	public boolean canSlideTiles(GridState state)
+	{
+		return state.grid.canSlideTiles(state.moveDirection);
+	}
+
+	@Benchmark
+	public boolean canSlideInAnyDirection(GridState state)
+	{
+		return state.grid.canSlideInAnyDirection();
+	}
+
+	/**
+	 * The baseline of addRandomTile.
+	 */
+	@Benchmark
+	public Grid restoreFilledGrid(FilledGridState state)
+	{
+		restoreGrid(state.grid, state.tiles);
+
+		return state.grid;
+	}
+
+	@Benchmark
+	public Grid addRandomTile(FilledGridState state)
+	{
+		restoreGrid(state.grid, state.tiles);
+		state.grid.addRandomTile();
+
+		return state.grid;
+	}
+
+	/**
+	 * Fill cells of the grid at random with 2s, 4s and 8s.
+	 *
+	 * @return The tiles of the grid, to put back with restoreGrid.
+	 */
+	static Tile[][] fillGrid(Grid grid, double fill, RandomSource randomSource)
+	{
+		int length = grid.getLength();
+		Tile[][] tiles = new Tile[length][length];
+
+		for (int r = 0; r < length; r++)
+		{
+			for (int c = 0; c < length; c++)
+			{
+				if (randomSource.nextInt(1000) < fill * 1000)
+				{
+					tiles[r][c] = Tile.fromExponent(1 + randomSource.nextInt(3));
+				}
+			}
+		}
+
+		restoreGrid(grid, tiles);
+
+		return tiles;
+	}
+
+	static void restoreGrid(Grid grid, Tile[][] tiles)
+	{
+		for (int r = 0; r < tiles.length; r++)
+		{
+			for (int c = 0; c < tiles.length; c++)
+			{
+				grid.setTile(c, r, tiles[r][c]);
+			}
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package com.github.ants280.slidegame.logic;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, so each result comes with the
+ * bytes allocated per operation and the collections it caused.  Takes the
+ * usual JMH options, such as a benchmark regex or -p length=4,8.
+ *
+ * Usage: mvn -P jmh package -DskipTests
+ * java -jar target/benchmarks.jar [JMH options]
+ */
+public final class LogicBenchmarks
+{
+	private LogicBenchmarks()
+	{
+	}
+
+	public static void main(String[] args)
+			throws CommandLineOptionException, RunnerException
+	{
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+}
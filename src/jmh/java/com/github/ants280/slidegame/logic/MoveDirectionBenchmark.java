@@ -0,0 +1,60 @@
+package com.github.ants280.slidegame.logic;
+
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JLabel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Times turning input events into moves.  Runs headless: the events come
+ * from a label that is never shown.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class MoveDirectionBenchmark
+{
+	private KeyEvent keyEvent;
+	private MouseEvent startMouseEvent;
+	private MouseEvent endMouseEvent;
+
+	@Setup
+	public void createEvents()
+	{
+		JLabel source = new JLabel();
+		keyEvent = new KeyEvent(
+				source, KeyEvent.KEY_RELEASED, 0L, 0,
+				KeyEvent.VK_LEFT, KeyEvent.CHAR_UNDEFINED);
+		startMouseEvent = new MouseEvent(
+				source, MouseEvent.MOUSE_PRESSED, 0L, 0,
+				40, 17, 1, false, MouseEvent.BUTTON1);
+		endMouseEvent = new MouseEvent(
+				source, MouseEvent.MOUSE_RELEASED, 0L, 0,
+				51, 7, 1, false, MouseEvent.BUTTON1);
+	}
+
+	@Benchmark
+	public MoveDirection fromKeyEvent()
+	{
+		return MoveDirection.fromKeyEvent(keyEvent);
+	}
+
+	@Benchmark
+	public MoveDirection fromMouseEvents()
+	{
+		return MoveDirection.fromMouseEvents(startMouseEvent, endMouseEvent);
+	}
+}
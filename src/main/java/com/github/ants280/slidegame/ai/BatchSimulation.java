@@ -0,0 +1,326 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.GameSession;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Plays many complete games on all cores and reports how they went.  Each
+ * game is seeded from the master seed and its index, so a batch gives the
+ * same statistics no matter how many threads play it.
+ *
+ * Usage: BatchSimulation [games=N] [lengths=4,5] [goals=2048,4096]
+ * [policy=random|fixed|greedy|expectimax] [depth=D]
+ * [evaluator=empty|heuristic] [weights=weights.bin] [seed=S] [threads=T]
+ *
+ * The expectimax policy counts empty cells, uses a RowHeuristicEvaluator, or
+ * uses an NTupleNetwork read from a WeightFile if weights are given.  All
+ * threads share its weights.
+ */
+public final class BatchSimulation
+{
+	private static final int TASKS_PER_THREAD = 4;
+	private static final double[] SCORE_QUANTILES = {0.1d, 0.5d, 0.9d, 1d};
+	private static final String[] SCORE_QUANTILE_NAMES
+			= {"p10", "p50", "p90", "max"};
+	private static final MoveDirection[] CORNER_ORDER =
+	{
+		MoveDirection.LEFT,
+		MoveDirection.DOWN,
+		MoveDirection.RIGHT,
+		MoveDirection.UP
+	};
+	private final int gameCount;
+	private final int threadCount;
+	private final long masterSeed;
+	private final Function<RandomSource, MovePolicy> policyFactory;
+
+	/**
+	 * @param gameCount The number of games to play for each run.
+	 * @param threadCount The number of threads to play the games on.
+	 * @param masterSeed The seed all games are derived from.
+	 * @param policyFactory Creates the MovePolicy for a game, given a source
+	 * of random numbers for it to use.
+	 */
+	public BatchSimulation(
+			int gameCount,
+			int threadCount,
+			long masterSeed,
+			Function<RandomSource, MovePolicy> policyFactory)
+	{
+		if (gameCount < 1 || threadCount < 1)
+		{
+			throw new IllegalArgumentException(String.format(
+					"Game and thread counts must be positive.  "
+					+ "Found: %d, %d",
+					gameCount, threadCount));
+		}
+
+		this.gameCount = gameCount;
+		this.threadCount = threadCount;
+		this.masterSeed = masterSeed;
+		this.policyFactory = policyFactory;
+	}
+
+	/**
+	 * Play all the games on grids of the specified size.
+	 *
+	 * @param length The length of the grids.
+	 * @param goalTileValue The value of the goal tile of the grids.
+	 * @return The combined outcomes of the games.
+	 * @throws InterruptedException If interrupted while waiting for games.
+	 */
+	public BatchStatistics run(int length, int goalTileValue)
+			throws InterruptedException
+	{
+		int taskCount = Math.min(gameCount, threadCount * TASKS_PER_THREAD);
+		List<Callable<BatchStatistics>> tasks = new ArrayList<>(taskCount);
+
+		for (int i = 0; i < taskCount; i++)
+		{
+			int firstGame = (int) ((long) gameCount * i / taskCount);
+			int endGame = (int) ((long) gameCount * (i + 1) / taskCount);
+			tasks.add(() -> this.playGames(
+					length, goalTileValue, firstGame, endGame));
+		}
+
+		ExecutorService executorService
+				= Executors.newFixedThreadPool(threadCount);
+		try
+		{
+			BatchStatistics batchStatistics = new BatchStatistics();
+
+			for (Future<BatchStatistics> future
+					: executorService.invokeAll(tasks))
+			{
+				batchStatistics.addAll(future.get());
+			}
+
+			return batchStatistics;
+		}
+		catch (ExecutionException ex)
+		{
+			throw new IllegalStateException("Could not play games", ex);
+		}
+		finally
+		{
+			executorService.shutdownNow();
+			executorService.awaitTermination(1L, TimeUnit.MINUTES);
+		}
+	}
+
+	private BatchStatistics playGames(
+			int length,
+			int goalTileValue,
+			int firstGame,
+			int endGame)
+	{
+		BatchStatistics batchStatistics = new BatchStatistics();
+
+		for (int game = firstGame; game < endGame; game++)
+		{
+			RandomSource randomSource = RandomSource.fast(
+					RandomSource.deriveSeed(masterSeed, game));
+			Grid grid = new Grid(length, goalTileValue, randomSource.split());
+			GameSession gameSession = new GameSession(grid);
+			MovePolicy movePolicy = policyFactory.apply(randomSource);
+			int slideableDirections = grid.getSlideableDirections();
+			int moveCount = 0;
+
+			while (!gameSession.isGameOver() && slideableDirections != 0)
+			{
+				long moveResult = gameSession.makeMove(
+						movePolicy.chooseMove(grid, slideableDirections));
+				slideableDirections
+						= MoveResult.getSlideableDirections(moveResult);
+				moveCount++;
+			}
+
+			batchStatistics.addGame(
+					gameSession.getScore(),
+					moveCount,
+					getMaxTileValue(grid),
+					gameSession.isGameWon());
+		}
+
+		return batchStatistics;
+	}
+
+	private static int getMaxTileValue(Grid grid)
+	{
+		int maxTileValue = 0;
+
+		for (int r = 0; r < grid.getLength(); r++)
+		{
+			for (int c = 0; c < grid.getLength(); c++)
+			{
+				if (grid.getTile(c, r) != null)
+				{
+					maxTileValue = Math.max(
+							maxTileValue,
+							grid.getTile(c, r).getValue());
+				}
+			}
+		}
+
+		return maxTileValue;
+	}
+
+	public static void main(String[] args)
+			throws InterruptedException, IOException
+	{
+		Map<String, String> options = parseOptions(args);
+		int gameCount
+				= Integer.parseInt(options.getOrDefault("games", "10000"));
+		int[] lengths = parseInts(options.getOrDefault("lengths", "4"));
+		int[] goals = parseInts(options.getOrDefault("goals", "2048"));
+		String policyName = options.getOrDefault("policy", "greedy");
+		int depth = Integer.parseInt(options.getOrDefault("depth", "2"));
+		long masterSeed = options.containsKey("seed")
+				? Long.parseLong(options.get("seed"))
+				: System.nanoTime();
+		int threadCount = options.containsKey("threads")
+				? Integer.parseInt(options.get("threads"))
+				: Runtime.getRuntime().availableProcessors();
+
+		Evaluator evaluator = options.containsKey("weights")
+				? WeightFile.read(Paths.get(options.get("weights")))
+				: getEvaluator(options.getOrDefault("evaluator", "empty"));
+
+		Function<RandomSource, MovePolicy> policyFactory
+				= getPolicyFactory(policyName, depth, evaluator);
+
+		BatchSimulation batchSimulation = new BatchSimulation(
+				gameCount, threadCount, masterSeed, policyFactory);
+
+		for (int length : lengths)
+		{
+			for (int goalTileValue : goals)
+			{
+				long startNanos = System.nanoTime();
+				BatchStatistics batchStatistics
+						= batchSimulation.run(length, goalTileValue);
+				double seconds = (System.nanoTime() - startNanos) / 1e9d;
+
+				System.out.printf(
+						"length=%d goal=%d policy=%s seed=%d threads=%d%n",
+						length, goalTileValue, policyName, masterSeed,
+						threadCount);
+				printStatistics(batchStatistics, seconds);
+			}
+		}
+	}
+
+	private static void printStatistics(
+			BatchStatistics batchStatistics,
+			double seconds)
+	{
+		System.out.printf(
+				"  %d games in %.3f s: %.0f games/s, %.0f moves/s%n",
+				batchStatistics.getGameCount(),
+				seconds,
+				batchStatistics.getGameCount() / seconds,
+				batchStatistics.getMoveCount() / seconds);
+		System.out.printf(
+				"  win rate: %.2f%%%n",
+				100d * batchStatistics.getWinRate());
+
+		StringBuilder scores = new StringBuilder("  score:");
+		for (int i = 0; i < SCORE_QUANTILES.length; i++)
+		{
+			scores.append(' ')
+					.append(SCORE_QUANTILE_NAMES[i])
+					.append('=')
+					.append(batchStatistics.getScoreQuantile(
+							SCORE_QUANTILES[i]));
+		}
+		System.out.println(scores);
+
+		System.out.println(
+				"  max tile: " + batchStatistics.getMaxTileDistribution());
+	}
+
+	private static Map<String, String> parseOptions(String[] args)
+	{
+		Map<String, String> options = new HashMap<>();
+
+		for (String arg : args)
+		{
+			int separatorIndex = arg.indexOf('=');
+
+			if (separatorIndex <= 0)
+			{
+				throw new IllegalArgumentException(
+						"Expected name=value.  Found: " + arg);
+			}
+
+			options.put(
+					arg.substring(0, separatorIndex),
+					arg.substring(separatorIndex + 1));
+		}
+
+		return options;
+	}
+
+	private static int[] parseInts(String values)
+	{
+		return Arrays.stream(values.split(","))
+				.map(String::trim)
+				.mapToInt(Integer::parseInt)
+				.toArray();
+	}
+
+	private static Evaluator getEvaluator(String evaluatorName)
+	{
+		switch (evaluatorName)
+		{
+			case "empty":
+				return Evaluators.emptyCells();
+			case "heuristic":
+				return Evaluators.rowHeuristic();
+			default:
+				throw new IllegalArgumentException(
+						"Unknown evaluator: " + evaluatorName
+						+ ".  Expected empty or heuristic");
+		}
+	}
+
+	private static Function<RandomSource, MovePolicy> getPolicyFactory(
+			String policyName,
+			int depth,
+			Evaluator evaluator)
+	{
+		switch (policyName)
+		{
+			case "random":
+				return MovePolicies::random;
+			case "fixed":
+				return randomSource -> MovePolicies.fixedOrder(CORNER_ORDER);
+			case "greedy":
+				return randomSource -> MovePolicies.greedy(CORNER_ORDER);
+			case "expectimax":
+				return randomSource -> MovePolicies.expectimax(
+						new ExpectimaxSearch(depth, evaluator));
+			default:
+				throw new IllegalArgumentException(
+						"Unknown policy: " + policyName
+						+ ".  Expected random, fixed, greedy or expectimax");
+		}
+	}
+}
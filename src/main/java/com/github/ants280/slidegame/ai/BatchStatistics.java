@@ -0,0 +1,157 @@
+package com.github.ants280.slidegame.ai;
+
+import java.util.Arrays;
+
+/**
+ * The outcomes of a batch of games.  Not thread-safe: each thread should
+ * collect its own statistics, to be combined with addAll() at the end.
+ */
+public final class BatchStatistics
+{
+	private static final int MAX_EXPONENT = Integer.SIZE - 2;
+	private final int[] maxTileCounts;
+	private int[] scores;
+	private int gameCount;
+	private long moveCount;
+	private int winCount;
+	private boolean scoresSorted;
+
+	public BatchStatistics()
+	{
+		this.maxTileCounts = new int[MAX_EXPONENT + 1];
+		this.scores = new int[16];
+		this.gameCount = 0;
+		this.moveCount = 0L;
+		this.winCount = 0;
+		this.scoresSorted = true;
+	}
+
+	/**
+	 * Record the outcome of one game.
+	 *
+	 * @param score The final score.
+	 * @param moves The number of moves made.
+	 * @param maxTileValue The value of the largest tile on the grid.
+	 * @param won Whether or not the goal tile was created.
+	 */
+	public void addGame(int score, int moves, int maxTileValue, boolean won)
+	{
+		if (gameCount == scores.length)
+		{
+			scores = Arrays.copyOf(scores, scores.length * 2);
+		}
+
+		scores[gameCount] = score;
+		gameCount++;
+		moveCount += moves;
+		maxTileCounts[Integer.numberOfTrailingZeros(maxTileValue)]++;
+		if (won)
+		{
+			winCount++;
+		}
+		scoresSorted = false;
+	}
+
+	public void addAll(BatchStatistics other)
+	{
+		if (gameCount + other.gameCount > scores.length)
+		{
+			scores = Arrays.copyOf(scores, gameCount + other.gameCount);
+		}
+
+		System.arraycopy(other.scores, 0, scores, gameCount, other.gameCount);
+		gameCount += other.gameCount;
+		moveCount += other.moveCount;
+		winCount += other.winCount;
+		for (int i = 0; i < maxTileCounts.length; i++)
+		{
+			maxTileCounts[i] += other.maxTileCounts[i];
+		}
+		scoresSorted = false;
+	}
+
+	public int getGameCount()
+	{
+		return gameCount;
+	}
+
+	public long getMoveCount()
+	{
+		return moveCount;
+	}
+
+	public int getWinCount()
+	{
+		return winCount;
+	}
+
+	public double getWinRate()
+	{
+		return gameCount == 0 ? 0d : (double) winCount / gameCount;
+	}
+
+	/**
+	 * @param maxTileValue The value of a tile.
+	 * @return The number of games that ended with it as the largest tile.
+	 */
+	public int getMaxTileCount(int maxTileValue)
+	{
+		return maxTileCounts[Integer.numberOfTrailingZeros(maxTileValue)];
+	}
+
+	/**
+	 * @param quantile From 0 to 1.  For example, 0.5 for the median.
+	 * @return The smallest score that is at least as large as the quantile
+	 * of the scores, or 0 if no games were played.
+	 */
+	public int getScoreQuantile(double quantile)
+	{
+		if (quantile < 0d || quantile > 1d)
+		{
+			throw new IllegalArgumentException(
+					"Quantile out of range: " + quantile);
+		}
+
+		if (gameCount == 0)
+		{
+			return 0;
+		}
+
+		if (!scoresSorted)
+		{
+			Arrays.sort(scores, 0, gameCount);
+			scoresSorted = true;
+		}
+
+		int rank = (int) Math.ceil(quantile * gameCount);
+
+		return scores[Math.max(rank - 1, 0)];
+	}
+
+	/**
+	 * @return The largest tile values and the share of games that ended with
+	 * them, for example "1024=12.5% 2048=87.5%".
+	 */
+	public String getMaxTileDistribution()
+	{
+		StringBuilder sb = new StringBuilder();
+
+		for (int exponent = 0; exponent < maxTileCounts.length; exponent++)
+		{
+			if (maxTileCounts[exponent] != 0)
+			{
+				if (sb.length() != 0)
+				{
+					sb.append(' ');
+				}
+
+				sb.append(String.format(
+						"%d=%.1f%%",
+						1 << exponent,
+						100d * maxTileCounts[exponent] / gameCount));
+			}
+		}
+
+		return sb.toString();
+	}
+}
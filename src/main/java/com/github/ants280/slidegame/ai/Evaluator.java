@@ -0,0 +1,15 @@
+package com.github.ants280.slidegame.ai;
+
+/**
+ * Estimates how good a position is for the player.
+ */
+@FunctionalInterface
+public interface Evaluator
+{
+	/**
+	 * @param bits A 4x4 board, packed as by BitBoard.
+	 * @return The value of the board.  Higher is better, and a lost board is
+	 * worth 0, so values should not be negative.
+	 */
+	double evaluate(long bits);
+}
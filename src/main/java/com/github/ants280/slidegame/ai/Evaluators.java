@@ -0,0 +1,29 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+
+public final class Evaluators
+{
+	private Evaluators()
+	{
+	}
+
+	/**
+	 * @return An evaluator that values boards by their number of empty cells,
+	 * plus one so that a board that is full but not lost beats a lost one.
+	 */
+	public static Evaluator emptyCells()
+	{
+		return bits -> BitBoard.countEmpty(bits) + 1d;
+	}
+
+	/**
+	 * @return A RowHeuristicEvaluator with the default weights.
+	 */
+	public static Evaluator rowHeuristic()
+	{
+		return new RowHeuristicEvaluator(
+				RowHeuristicEvaluator.getDefaultWeights(),
+				RowHeuristicEvaluator.DEFAULT_BASE_VALUE);
+	}
+}
@@ -0,0 +1,289 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+
+/**
+ * Finds the move with the highest expected value by looking ahead a fixed
+ * number of moves.  Player nodes take the best of the four moves and chance
+ * nodes average over every tile the grid could add, with the odds Grid uses.
+ *
+ * Searches run on a packed copy of a 4x4 board, so nothing is allocated
+ * below the root.  A search is not thread-safe, but searches on many threads
+ * can share a TranspositionTable to skip boards that were already searched.
+ */
+public class ExpectimaxSearch
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+	static final double FOUR_PROBABILITY = 1d / Grid.FOUR_ODDS;
+	static final double TWO_PROBABILITY = 1d - FOUR_PROBABILITY;
+	static final double LOST_VALUE = 0d;
+	// Nodes between checks of the clock, less one:
+	private static final long CANCEL_CHECK_MASK = (1L << 10) - 1L;
+	private final int depth;
+	private final Evaluator evaluator;
+	private final TranspositionTable transpositionTable;
+	private long nodeCount;
+	// Null while the search cannot be cancelled:
+	private SearchDeadline searchDeadline;
+
+	/**
+	 * @param depth The number of moves to look ahead, including the first.
+	 * @param evaluator Values the positions at the end of the search.
+	 */
+	public ExpectimaxSearch(int depth, Evaluator evaluator)
+	{
+		this(depth, evaluator, null);
+	}
+
+	/**
+	 * @param depth The number of moves to look ahead, including the first.
+	 * @param evaluator Values the positions at the end of the search.
+	 * @param transpositionTable Caches the values of slid boards, or null.
+	 * The table must only be shared by searches with the same evaluator.
+	 */
+	public ExpectimaxSearch(
+			int depth,
+			Evaluator evaluator,
+			TranspositionTable transpositionTable)
+	{
+		if (depth < 1)
+		{
+			throw new IllegalArgumentException(
+					"Depth must be positive.  Found: " + depth);
+		}
+
+		this.depth = depth;
+		this.evaluator = evaluator;
+		this.transpositionTable = transpositionTable;
+	}
+
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	Evaluator getEvaluator()
+	{
+		return evaluator;
+	}
+
+	TranspositionTable getTranspositionTable()
+	{
+		return transpositionTable;
+	}
+
+	/**
+	 * @return The number of nodes visited since the last search began.
+	 */
+	long getNodeCount()
+	{
+		return nodeCount;
+	}
+
+	/**
+	 * @param grid A 4x4 grid with no tile above 2^15.  It is not changed.
+	 * @return The expected value of each move.
+	 */
+	public SearchResult search(Grid grid)
+	{
+		return this.search(toBits(grid));
+	}
+
+	/**
+	 * @param bits A 4x4 board, packed as by BitBoard.
+	 * @return The expected value of each move.
+	 */
+	public SearchResult search(long bits)
+	{
+		searchDeadline = null;
+
+		return this.searchMoves(bits);
+	}
+
+	/**
+	 * Search, giving up if the calling thread is interrupted or the
+	 * deadline passes.  Nothing the search had not finished is cached.
+	 *
+	 * @param bits A 4x4 board, packed as by BitBoard.
+	 * @param deadlineNanos When to give up, as by System.nanoTime().
+	 * @return The expected value of each move, or null if the search gave
+	 * up.  The interrupted status of the thread is left set.
+	 */
+	public SearchResult search(long bits, long deadlineNanos)
+	{
+		searchDeadline = new SearchDeadline(deadlineNanos);
+
+		try
+		{
+			return this.searchMoves(bits);
+		}
+		catch (SearchDeadline.SearchCancelledException ex)
+		{
+			return null;
+		}
+		finally
+		{
+			searchDeadline = null;
+		}
+	}
+
+	private SearchResult searchMoves(long bits)
+	{
+		nodeCount = 1L;
+		double[] values = new double[MOVE_DIRECTIONS.length];
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			long slidBits = BitBoard.slide(bits, moveDirection);
+
+			values[moveDirection.ordinal()] = slidBits == bits
+					? Double.NaN
+					: this.getChanceValue(slidBits, depth - 1);
+		}
+
+		return new SearchResult(values, nodeCount);
+	}
+
+	/**
+	 * getChanceValue for part of a search that can be cancelled.
+	 *
+	 * @throws SearchDeadline.SearchCancelledException If the deadline
+	 * expires first.
+	 */
+	double getChanceValue(
+			long bits,
+			int remainingDepth,
+			SearchDeadline searchDeadline)
+	{
+		this.searchDeadline = searchDeadline;
+
+		try
+		{
+			return this.getChanceValue(bits, remainingDepth);
+		}
+		finally
+		{
+			this.searchDeadline = null;
+		}
+	}
+
+	/**
+	 * @return The value of a board that has just been slid, averaged over
+	 * the tiles that could be added to it.
+	 */
+	double getChanceValue(long bits, int remainingDepth)
+	{
+		nodeCount++;
+		this.checkCancelled();
+
+		if (transpositionTable != null)
+		{
+			double value = transpositionTable.get(bits, remainingDepth);
+
+			if (!Double.isNaN(value))
+			{
+				return value;
+			}
+		}
+
+		// A board that has just slid always has an empty cell:
+		long emptyMask = BitBoard.getEmptyMask(bits);
+		double sum = 0d;
+
+		for (long mask = emptyMask; mask != 0L; mask &= mask - 1L)
+		{
+			int shift = Long.numberOfTrailingZeros(mask);
+			sum += TWO_PROBABILITY
+					* this.getMaxValue(bits | (1L << shift), remainingDepth)
+					+ FOUR_PROBABILITY
+					* this.getMaxValue(bits | (2L << shift), remainingDepth);
+		}
+
+		double value = sum / Long.bitCount(emptyMask);
+
+		if (transpositionTable != null)
+		{
+			transpositionTable.put(bits, remainingDepth, value);
+		}
+
+		return value;
+	}
+
+	/**
+	 * @return The value of the best move from a board, or of the board
+	 * itself at the end of the search.
+	 */
+	private double getMaxValue(long bits, int remainingDepth)
+	{
+		nodeCount++;
+		this.checkCancelled();
+
+		if (remainingDepth == 0)
+		{
+			return evaluator.evaluate(bits);
+		}
+
+		double maxValue = LOST_VALUE;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			long slidBits = BitBoard.slide(bits, moveDirection);
+
+			if (slidBits != bits)
+			{
+				maxValue = Math.max(
+						maxValue,
+						this.getChanceValue(slidBits, remainingDepth - 1));
+			}
+		}
+
+		return maxValue;
+	}
+
+	/**
+	 * Unwind a cancellable search every so often, if it is interrupted or
+	 * out of time.
+	 */
+	private void checkCancelled()
+	{
+		if (searchDeadline != null && (nodeCount & CANCEL_CHECK_MASK) == 0L)
+		{
+			searchDeadline.check();
+		}
+	}
+
+	/**
+	 * @return The tiles of the grid packed as by BitBoard.
+	 */
+	static long toBits(Grid grid)
+	{
+		Board board = grid.copyBoard();
+
+		if (board instanceof BitBoard)
+		{
+			return ((BitBoard) board).getBits();
+		}
+
+		if (board.getLength() != BitBoard.LENGTH)
+		{
+			throw new IllegalArgumentException(
+					"Only grids of length 4 can be searched.  Found: "
+					+ board.getLength());
+		}
+
+		BitBoard bitBoard = new BitBoard();
+		for (int r = 0; r < BitBoard.LENGTH; r++)
+		{
+			for (int c = 0; c < BitBoard.LENGTH; c++)
+			{
+				bitBoard.setExponent(c, r, board.getExponent(c, r));
+			}
+		}
+
+		return bitBoard.getBits();
+	}
+}
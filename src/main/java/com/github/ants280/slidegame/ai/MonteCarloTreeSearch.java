@@ -0,0 +1,353 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.util.Arrays;
+
+/**
+ * An anytime search that grows a tree of 4x4 boards for as long as it is
+ * allowed to.  Moves are picked with UCT, tiles added by the game are
+ * sampled with the odds Grid uses, and new boards are valued by playing a
+ * random game to the end.
+ *
+ * The tree lives in a NodePool of fixed size.  When a search starts from a
+ * board that the previous search reached through a move and an added tile,
+ * the subtree below it is kept.  A search is not thread-safe.
+ */
+public final class MonteCarloTreeSearch
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+	private NodePool nodePool;
+	private NodePool sparePool;
+	private final int[] queue;
+	private final double exploration;
+	private final RandomSource randomSource;
+	private final BitBoard scratchBoard;
+	private int[] path;
+	private int root;
+	private double maxValue;
+
+	/**
+	 * @param maxNodes The most nodes the tree can hold.  Memory for twice as
+	 * many is allocated, to copy the kept subtree into.
+	 * @param exploration How strongly rarely tried moves are preferred.
+	 * Values are scaled from 0 to 1, so Math.sqrt(2) is the usual choice.
+	 * @param randomSource Samples added tiles and random games.  Used only by
+	 * this search.
+	 */
+	public MonteCarloTreeSearch(
+			int maxNodes,
+			double exploration,
+			RandomSource randomSource)
+	{
+		if (maxNodes < 1 + 2 * MOVE_DIRECTIONS.length)
+		{
+			throw new IllegalArgumentException(
+					"Too few nodes for a search: " + maxNodes);
+		}
+
+		this.nodePool = new NodePool(maxNodes);
+		this.sparePool = new NodePool(maxNodes);
+		this.queue = new int[maxNodes];
+		this.exploration = exploration;
+		this.randomSource = randomSource;
+		this.scratchBoard = new BitBoard();
+		this.path = new int[64];
+		this.root = NodePool.NONE;
+		this.maxValue = 0d;
+	}
+
+	/**
+	 * @param grid A 4x4 grid with no tile above 2^15.  It is not changed.
+	 * @param budgetNanos How long to search for.
+	 * @return The average score after each move.  The node count is the
+	 * number of games played.
+	 */
+	public SearchResult search(Grid grid, long budgetNanos)
+	{
+		return this.search(ExpectimaxSearch.toBits(grid), budgetNanos);
+	}
+
+	/**
+	 * Search until the budget runs out, then report the best moves found.
+	 * At least one game is always played.
+	 *
+	 * @param bits A 4x4 board, packed as by BitBoard.
+	 * @param budgetNanos How long to search for.
+	 * @return The average score after each move.  The node count is the
+	 * number of games played.
+	 */
+	public SearchResult search(long bits, long budgetNanos)
+	{
+		long deadline = System.nanoTime() + budgetNanos;
+		this.setRoot(bits);
+		long gameCount = 0L;
+
+		do
+		{
+			this.playGame();
+			gameCount++;
+		}
+		while (System.nanoTime() < deadline);
+
+		return new SearchResult(this.getValues(), gameCount);
+	}
+
+	/**
+	 * @return The number of nodes in the tree.
+	 */
+	public int getNodeCount()
+	{
+		return nodePool.size();
+	}
+
+	/**
+	 * @return The largest value seen, which scales values for UCT.
+	 */
+	double getMaxValue()
+	{
+		return maxValue;
+	}
+
+	/**
+	 * Start from the decision node with the board two levels below the old
+	 * root, if there is one, or from a new tree.
+	 */
+	private void setRoot(long bits)
+	{
+		if (root != NodePool.NONE && nodePool.getBoard(root) == bits)
+		{
+			return;
+		}
+
+		int newRoot = NodePool.NONE;
+		if (root != NodePool.NONE)
+		{
+			for (int chanceNode = nodePool.getFirstChild(root);
+					chanceNode != NodePool.NONE && newRoot == NodePool.NONE;
+					chanceNode = nodePool.getNextSibling(chanceNode))
+			{
+				newRoot = nodePool.findChild(chanceNode, bits);
+			}
+		}
+
+		if (newRoot == NodePool.NONE)
+		{
+			nodePool.clear();
+			root = nodePool.add(bits, NodePool.DECISION, 0);
+			maxValue = 0d;
+		}
+		else
+		{
+			root = sparePool.copySubtree(nodePool, newRoot, queue);
+			NodePool oldPool = nodePool;
+			nodePool = sparePool;
+			sparePool = oldPool;
+			// The old value included the scores of moves above the new root:
+			maxValue = 0d;
+			for (double value : this.getValues())
+			{
+				if (!Double.isNaN(value))
+				{
+					maxValue = Math.max(maxValue, value);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Walk down the tree to a new board, play a random game from it, and add
+	 * the score to every node on the way.
+	 */
+	private void playGame()
+	{
+		int pathLength = 0;
+		int node = root;
+		long leafBits = nodePool.getBoard(root);
+		path[pathLength++] = root;
+
+		while (true)
+		{
+			if (nodePool.getFirstChild(node) == NodePool.NONE
+					&& (nodePool.getVisitCount(node) == 0
+					|| !this.expand(node)))
+			{
+				// A new, lost or unexpandable board:
+				break;
+			}
+
+			int chanceNode = this.selectMove(node);
+			long slidBits = nodePool.getBoard(chanceNode);
+			long spawnedBits = this.addRandomTile(slidBits);
+			int child = nodePool.findChild(chanceNode, spawnedBits);
+
+			if (child == NodePool.NONE)
+			{
+				child = nodePool.add(spawnedBits, NodePool.DECISION, 0);
+
+				if (child != NodePool.NONE)
+				{
+					nodePool.addChild(chanceNode, child);
+				}
+			}
+
+			path = this.ensureCapacity(path, pathLength + 2);
+			path[pathLength++] = chanceNode;
+			leafBits = spawnedBits;
+
+			if (child == NodePool.NONE)
+			{
+				break;
+			}
+
+			path[pathLength++] = child;
+			node = child;
+
+			if (nodePool.getVisitCount(child) == 0)
+			{
+				break;
+			}
+		}
+
+		double value = this.playRandomGame(leafBits);
+
+		for (int i = pathLength - 1; i >= 0; i--)
+		{
+			int pathNode = path[i];
+			value += nodePool.getMoveScore(pathNode);
+			nodePool.addVisit(pathNode, value);
+		}
+
+		maxValue = Math.max(maxValue, value);
+	}
+
+	/**
+	 * Add a chance node for each move from a decision node.
+	 *
+	 * @return Whether or not any were added.
+	 */
+	private boolean expand(int node)
+	{
+		long bits = nodePool.getBoard(node);
+		boolean expanded = false;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			scratchBoard.setBits(bits);
+			int score = scratchBoard.slide(moveDirection);
+
+			if (score != BitBoard.NOT_MOVED)
+			{
+				int chanceNode = nodePool.add(
+						scratchBoard.getBits(),
+						(byte) moveDirection.ordinal(),
+						score);
+
+				if (chanceNode == NodePool.NONE)
+				{
+					return expanded;
+				}
+
+				nodePool.addChild(node, chanceNode);
+				expanded = true;
+			}
+		}
+
+		return expanded;
+	}
+
+	/**
+	 * @return The chance node below a decision node with the highest upper
+	 * confidence bound.  Untried moves come first.
+	 */
+	private int selectMove(int node)
+	{
+		double logVisitCount = Math.log(nodePool.getVisitCount(node));
+		double scale = maxValue > 0d ? maxValue : 1d;
+		int bestChild = NodePool.NONE;
+		double bestBound = Double.NEGATIVE_INFINITY;
+
+		for (int child = nodePool.getFirstChild(node);
+				child != NodePool.NONE;
+				child = nodePool.getNextSibling(child))
+		{
+			int visitCount = nodePool.getVisitCount(child);
+
+			if (visitCount == 0)
+			{
+				return child;
+			}
+
+			double bound = nodePool.getValueSum(child) / visitCount / scale
+					+ exploration * Math.sqrt(logVisitCount / visitCount);
+
+			if (bound > bestBound)
+			{
+				bestChild = child;
+				bestBound = bound;
+			}
+		}
+
+		return bestChild;
+	}
+
+	/**
+	 * @return The points scored in a game with random moves.
+	 */
+	private double playRandomGame(long bits)
+	{
+		scratchBoard.setBits(bits);
+		double score = 0d;
+
+		for (int slideableDirections = scratchBoard.getSlideableDirections();
+				slideableDirections != 0;
+				slideableDirections = scratchBoard.getSlideableDirections())
+		{
+			score += scratchBoard.slide(MovePolicies.chooseRandomly(
+					slideableDirections,
+					randomSource));
+			Grid.addRandomTile(scratchBoard, randomSource);
+		}
+
+		return score;
+	}
+
+	private long addRandomTile(long bits)
+	{
+		scratchBoard.setBits(bits);
+		Grid.addRandomTile(scratchBoard, randomSource);
+
+		return scratchBoard.getBits();
+	}
+
+	private double[] getValues()
+	{
+		double[] values = new double[MOVE_DIRECTIONS.length];
+		Arrays.fill(values, Double.NaN);
+
+		for (int child = nodePool.getFirstChild(root);
+				child != NodePool.NONE;
+				child = nodePool.getNextSibling(child))
+		{
+			int visitCount = nodePool.getVisitCount(child);
+
+			if (visitCount != 0)
+			{
+				values[nodePool.getMoveOrdinal(child)]
+						= nodePool.getValueSum(child) / visitCount;
+			}
+		}
+
+		return values;
+	}
+
+	private int[] ensureCapacity(int[] array, int capacity)
+	{
+		return array.length >= capacity
+				? array
+				: Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+	}
+}
@@ -0,0 +1,162 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+
+public final class MovePolicies
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+
+	private MovePolicies()
+	{
+	}
+
+	/**
+	 * @param randomSource The source used to pick moves.
+	 * @return A policy that picks any slideable direction with equal odds.
+	 */
+	public static MovePolicy random(RandomSource randomSource)
+	{
+		return (grid, slideableDirections)
+				-> chooseRandomly(slideableDirections, randomSource);
+	}
+
+	/**
+	 * @param moveDirections The directions to try, most preferred first.
+	 * Directions that are not listed are tried last.
+	 * @return A policy that picks the first slideable direction.
+	 */
+	public static MovePolicy fixedOrder(MoveDirection... moveDirections)
+	{
+		MoveDirection[] order = getOrder(moveDirections);
+
+		return (grid, slideableDirections) ->
+		{
+			for (MoveDirection moveDirection : order)
+			{
+				if (isSlideable(slideableDirections, moveDirection))
+				{
+					return moveDirection;
+				}
+			}
+
+			throw new IllegalArgumentException(
+					"No slideable directions: " + slideableDirections);
+		};
+	}
+
+	/**
+	 * @param moveDirections The directions to prefer when scores are tied,
+	 * most preferred first.
+	 * @return A policy that picks the direction that combines tiles with the
+	 * highest value.
+	 */
+	public static MovePolicy greedy(MoveDirection... moveDirections)
+	{
+		MoveDirection[] order = getOrder(moveDirections);
+
+		return (grid, slideableDirections) ->
+		{
+			MoveDirection bestMoveDirection = null;
+			int bestScore = -1;
+
+			for (MoveDirection moveDirection : order)
+			{
+				if (isSlideable(slideableDirections, moveDirection))
+				{
+					int score = grid.getMergeScore(moveDirection);
+
+					if (score > bestScore)
+					{
+						bestMoveDirection = moveDirection;
+						bestScore = score;
+					}
+				}
+			}
+
+			if (bestMoveDirection == null)
+			{
+				throw new IllegalArgumentException(
+						"No slideable directions: " + slideableDirections);
+			}
+
+			return bestMoveDirection;
+		};
+	}
+
+	/**
+	 * @param expectimaxSearch The search used to pick moves.  It must not be
+	 * shared with other threads.
+	 * @return A policy that picks the move with the highest expected value.
+	 * Only works on grids of length 4.
+	 */
+	public static MovePolicy expectimax(ExpectimaxSearch expectimaxSearch)
+	{
+		return (grid, slideableDirections)
+				-> expectimaxSearch.search(grid).getBestMoveDirection();
+	}
+
+	/**
+	 * @return One of the slideable directions, each with equal odds.
+	 */
+	static MoveDirection chooseRandomly(
+			int slideableDirections,
+			RandomSource randomSource)
+	{
+		int remainingDirections = slideableDirections;
+		int skipCount = randomSource.nextInt(
+				Integer.bitCount(slideableDirections));
+
+		for (int i = 0; i < skipCount; i++)
+		{
+			remainingDirections &= remainingDirections - 1;
+		}
+
+		return MOVE_DIRECTIONS[
+				Integer.numberOfTrailingZeros(remainingDirections)];
+	}
+
+	private static boolean isSlideable(
+			int slideableDirections,
+			MoveDirection moveDirection)
+	{
+		return (slideableDirections & (1 << moveDirection.ordinal())) != 0;
+	}
+
+	private static MoveDirection[] getOrder(MoveDirection[] moveDirections)
+	{
+		MoveDirection[] order = new MoveDirection[MOVE_DIRECTIONS.length];
+		int size = 0;
+
+		for (MoveDirection moveDirection : moveDirections)
+		{
+			size = addIfAbsent(order, size, moveDirection);
+		}
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			size = addIfAbsent(order, size, moveDirection);
+		}
+
+		return order;
+	}
+
+	private static int addIfAbsent(
+			MoveDirection[] order,
+			int size,
+			MoveDirection moveDirection)
+	{
+		for (int i = 0; i < size; i++)
+		{
+			if (order[i] == moveDirection)
+			{
+				return size;
+			}
+		}
+
+		order[size] = moveDirection;
+
+		return size + 1;
+	}
+}
@@ -0,0 +1,20 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+
+/**
+ * Chooses the next move of a game.  Policies may keep state between moves,
+ * so each game should use its own.
+ */
+@FunctionalInterface
+public interface MovePolicy
+{
+	/**
+	 * @param grid The grid to move on.  It must not be changed.
+	 * @param slideableDirections The bit mask of MoveDirections the grid can
+	 * slide in, as returned by Grid.getSlideableDirections().  Never 0.
+	 * @return One of the slideable directions.
+	 */
+	MoveDirection chooseMove(Grid grid, int slideableDirections);
+}
@@ -0,0 +1,268 @@
+package com.github.ants280.slidegame.ai;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * An Evaluator that learns.  The value of a board is the sum of the weights
+ * of some patterns of cells (n-tuples), looked up by the exponents in the
+ * cells.  Each pattern is also read in its seven rotations and reflections,
+ * which share its weights.
+ *
+ * Weights are floats, 16^n of them for a pattern of n cells, so a pattern of
+ * six cells takes 64 MiB.  Evaluating a board is one lookup for each pattern
+ * and symmetry, and does not allocate.  The weights of a new network are on
+ * the heap.  Those of a network read from a WeightFile are mapped from the
+ * file and cannot be changed, so many threads may evaluate with it.
+ */
+public final class NTupleNetwork implements Evaluator
+{
+	public static final int MAX_TUPLE_LENGTH = 6;
+	private static final int LENGTH = 4;
+	private static final int CELL_BITS = 4;
+	private static final int CELL_MASK = 0xF;
+	private static final int SYMMETRY_COUNT = 8;
+	private final int[][] tuples;
+	private final FloatBuffer[] weights;
+	private final int[][] shifts;
+
+	/**
+	 * @param tuples The patterns, each a list of cells numbered r * 4 + c.
+	 */
+	public NTupleNetwork(int[]... tuples)
+	{
+		this(tuples, createWeights(tuples));
+	}
+
+	/**
+	 * @param tuples The patterns, each a list of cells numbered r * 4 + c.
+	 * @param weights The weights of each pattern, indexed by the exponents of
+	 * its cells, the first cell in the highest bits.
+	 */
+	NTupleNetwork(int[][] tuples, FloatBuffer[] weights)
+	{
+		if (tuples.length == 0 || tuples.length != weights.length)
+		{
+			throw new IllegalArgumentException(String.format(
+					"Expected weights for each of 1 or more tuples.  "
+					+ "Found: %d tuples, %d weights",
+					tuples.length, weights.length));
+		}
+
+		this.tuples = new int[tuples.length][];
+		this.weights = new FloatBuffer[tuples.length];
+		this.shifts = new int[tuples.length * SYMMETRY_COUNT][];
+
+		for (int t = 0; t < tuples.length; t++)
+		{
+			int[] tuple = tuples[t].clone();
+			checkTuple(tuple);
+
+			if (weights[t].capacity() != getWeightCount(tuple))
+			{
+				throw new IllegalArgumentException(String.format(
+						"Expected %d weights for tuple %s.  Found: %d",
+						getWeightCount(tuple),
+						Arrays.toString(tuple),
+						weights[t].capacity()));
+			}
+
+			this.tuples[t] = tuple;
+			this.weights[t] = weights[t];
+
+			for (int s = 0; s < SYMMETRY_COUNT; s++)
+			{
+				int[] tupleShifts = new int[tuple.length];
+				for (int i = 0; i < tuple.length; i++)
+				{
+					tupleShifts[i] = getSymmetricCell(tuple[i], s) * CELL_BITS;
+				}
+				this.shifts[t * SYMMETRY_COUNT + s] = tupleShifts;
+			}
+		}
+	}
+
+	/**
+	 * @return A small network of two rows and three squares of four cells.
+	 * It takes 1.25 MiB and learns quickly, but not far.
+	 */
+	public static NTupleNetwork fourTuples()
+	{
+		return new NTupleNetwork(
+				new int[]{0, 1, 2, 3},
+				new int[]{4, 5, 6, 7},
+				new int[]{0, 1, 4, 5},
+				new int[]{1, 2, 5, 6},
+				new int[]{5, 6, 9, 10});
+	}
+
+	/**
+	 * @return A network of four patterns of six cells: two rectangles of
+	 * two rows of three, and two shapes of a row and the start of the next.
+	 * It takes 256 MiB.
+	 */
+	public static NTupleNetwork sixTuples()
+	{
+		return new NTupleNetwork(
+				new int[]{0, 1, 2, 3, 4, 5},
+				new int[]{4, 5, 6, 7, 8, 9},
+				new int[]{0, 1, 2, 4, 5, 6},
+				new int[]{4, 5, 6, 8, 9, 10});
+	}
+
+	/**
+	 * @return The learned value of the board, or 0 if it is less.
+	 */
+	@Override
+	public double evaluate(long bits)
+	{
+		return Math.max(0d, this.getValue(bits));
+	}
+
+	/**
+	 * @return The sum of the weights of the board, which can be negative.
+	 */
+	double getValue(long bits)
+	{
+		double value = 0d;
+
+		for (int i = 0; i < shifts.length; i++)
+		{
+			value += weights[i / SYMMETRY_COUNT]
+					.get(getIndex(bits, shifts[i]));
+		}
+
+		return value;
+	}
+
+	/**
+	 * Add an amount to each weight of the board, so its value changes by
+	 * the amount times the lookup count.
+	 *
+	 * @throws java.nio.ReadOnlyBufferException If the weights are mapped.
+	 */
+	void update(long bits, float amount)
+	{
+		for (int i = 0; i < shifts.length; i++)
+		{
+			FloatBuffer tupleWeights = weights[i / SYMMETRY_COUNT];
+			int index = getIndex(bits, shifts[i]);
+			tupleWeights.put(index, tupleWeights.get(index) + amount);
+		}
+	}
+
+	/**
+	 * @return The number of weights added to value a board.
+	 */
+	int getLookupCount()
+	{
+		return shifts.length;
+	}
+
+	public int getTupleCount()
+	{
+		return tuples.length;
+	}
+
+	public int[] getTuple(int t)
+	{
+		return tuples[t].clone();
+	}
+
+	public long getWeightCount()
+	{
+		return Arrays.stream(weights).mapToLong(FloatBuffer::capacity).sum();
+	}
+
+	/**
+	 * @return A view of the weights of a tuple, with its own position.
+	 */
+	FloatBuffer getWeights(int t)
+	{
+		return weights[t].duplicate();
+	}
+
+	/**
+	 * @return The number of weights of a tuple: 16^n for n cells.
+	 */
+	static int getWeightCount(int[] tuple)
+	{
+		return 1 << (CELL_BITS * tuple.length);
+	}
+
+	private static FloatBuffer[] createWeights(int[][] tuples)
+	{
+		FloatBuffer[] weights = new FloatBuffer[tuples.length];
+
+		for (int t = 0; t < tuples.length; t++)
+		{
+			checkTuple(tuples[t]);
+			weights[t] = FloatBuffer.allocate(getWeightCount(tuples[t]));
+		}
+
+		return weights;
+	}
+
+	private static int getIndex(long bits, int[] tupleShifts)
+	{
+		int index = 0;
+
+		for (int shift : tupleShifts)
+		{
+			index = (index << CELL_BITS) | ((int) (bits >>> shift) & CELL_MASK);
+		}
+
+		return index;
+	}
+
+	/**
+	 * @param symmetry Bit 0 reflects columns, bit 1 reflects rows and bit 2
+	 * swaps rows and columns, in that order.
+	 * @return Where the cell is moved to by the symmetry.
+	 */
+	private static int getSymmetricCell(int cell, int symmetry)
+	{
+		int c = cell % LENGTH;
+		int r = cell / LENGTH;
+
+		if ((symmetry & 1) != 0)
+		{
+			c = LENGTH - 1 - c;
+		}
+
+		if ((symmetry & 2) != 0)
+		{
+			r = LENGTH - 1 - r;
+		}
+
+		return (symmetry & 4) != 0 ? c * LENGTH + r : r * LENGTH + c;
+	}
+
+	private static void checkTuple(int[] tuple)
+	{
+		if (tuple.length == 0 || tuple.length > MAX_TUPLE_LENGTH)
+		{
+			throw new IllegalArgumentException(
+					"Tuples must have 1 to " + MAX_TUPLE_LENGTH
+					+ " cells.  Found: " + Arrays.toString(tuple));
+		}
+
+		long usedCells = 0L;
+		for (int cell : tuple)
+		{
+			if (cell < 0 || cell >= LENGTH * LENGTH
+					|| (usedCells & (1L << cell)) != 0L)
+			{
+				throw new IllegalArgumentException(
+						"Bad cell in tuple: " + Arrays.toString(tuple));
+			}
+			usedCells |= 1L << cell;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "NTupleNetwork{tuples=" + Arrays.deepToString(tuples) + "}";
+	}
+}
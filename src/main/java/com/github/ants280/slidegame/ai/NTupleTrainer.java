@@ -0,0 +1,299 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * Trains an NTupleNetwork by playing 4x4 games against itself.  Each move is
+ * the one with the highest score plus value of the board it leaves (the
+ * afterstate).  When a game ends, the value of each afterstate is moved
+ * towards its TD(lambda) return, from the last move back to the first.
+ *
+ * With a lambda of 0 this is TD(0): the target of an afterstate is the score
+ * of the next move plus the value of the next afterstate.
+ *
+ * Usage: NTupleTrainer [episodes=N] [tuples=4|6] [learningRate=A]
+ * [lambda=L] [reportEvery=R] [seed=S] [out=weights.bin]
+ */
+public final class NTupleTrainer
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+	private final NTupleNetwork network;
+	private final double learningRate;
+	private final double lambda;
+	private final RandomSource randomSource;
+	private final BitBoard scratchBoard;
+	private long[] afterstates;
+	private int[] scores;
+	private int scoreOfChosenMove;
+	private int maxExponent;
+
+	/**
+	 * @param network The network to train.
+	 * @param learningRate How far each value moves towards its target, from
+	 * 0 to 1.  It is shared out between the weights of the board.
+	 * @param lambda How much of the return after the next move to use, from
+	 * 0 to 1.
+	 * @param randomSource Adds the tiles of the games.  Used only by this
+	 * trainer.
+	 */
+	public NTupleTrainer(
+			NTupleNetwork network,
+			double learningRate,
+			double lambda,
+			RandomSource randomSource)
+	{
+		if (learningRate <= 0d || learningRate > 1d
+				|| lambda < 0d || lambda > 1d)
+		{
+			throw new IllegalArgumentException(String.format(
+					"Learning rate must be in (0, 1] and lambda in [0, 1].  "
+					+ "Found: %s, %s",
+					learningRate, lambda));
+		}
+
+		this.network = network;
+		this.learningRate = learningRate;
+		this.lambda = lambda;
+		this.randomSource = randomSource;
+		this.scratchBoard = new BitBoard();
+		this.afterstates = new long[1024];
+		this.scores = new int[1024];
+		this.scoreOfChosenMove = BitBoard.NOT_MOVED;
+		this.maxExponent = 0;
+	}
+
+	/**
+	 * Play a game to the end, then learn from it.
+	 *
+	 * @return The score of the game.
+	 */
+	public long playEpisode()
+	{
+		BitBoard board = new BitBoard();
+		Grid.addRandomTile(board, randomSource);
+		Grid.addRandomTile(board, randomSource);
+		int moveCount = 0;
+		long totalScore = 0L;
+
+		while (this.chooseAfterstate(board.getBits()))
+		{
+			if (moveCount == afterstates.length)
+			{
+				afterstates = Arrays.copyOf(afterstates, 2 * moveCount);
+				scores = Arrays.copyOf(scores, 2 * moveCount);
+			}
+
+			long afterstate = scratchBoard.getBits();
+			afterstates[moveCount] = afterstate;
+			scores[moveCount] = scoreOfChosenMove;
+			totalScore += scoreOfChosenMove;
+			moveCount++;
+
+			board.setBits(afterstate);
+			Grid.addRandomTile(board, randomSource);
+		}
+
+		maxExponent = getMaxExponent(board.getBits());
+		this.learn(moveCount);
+
+		return totalScore;
+	}
+
+	/**
+	 * @return The largest exponent on the board at the end of the last game.
+	 */
+	public int getLastMaxExponent()
+	{
+		return maxExponent;
+	}
+
+	/**
+	 * Find the move with the highest score plus afterstate value, and leave
+	 * its afterstate in the scratch board.
+	 *
+	 * @return Whether or not there was a move.
+	 */
+	private boolean chooseAfterstate(long bits)
+	{
+		long bestAfterstate = 0L;
+		int bestScore = BitBoard.NOT_MOVED;
+		double bestValue = Double.NEGATIVE_INFINITY;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			scratchBoard.setBits(bits);
+			int score = scratchBoard.slide(moveDirection);
+
+			if (score != BitBoard.NOT_MOVED)
+			{
+				long afterstate = scratchBoard.getBits();
+				double value = score + network.getValue(afterstate);
+
+				if (value > bestValue)
+				{
+					bestAfterstate = afterstate;
+					bestScore = score;
+					bestValue = value;
+				}
+			}
+		}
+
+		scratchBoard.setBits(bestAfterstate);
+		scoreOfChosenMove = bestScore;
+
+		return bestScore != BitBoard.NOT_MOVED;
+	}
+
+	/**
+	 * Move the value of each afterstate of a game towards its return, last
+	 * first, so each target uses the values just learned after it.
+	 */
+	private void learn(int moveCount)
+	{
+		float rate = (float) (learningRate / network.getLookupCount());
+		// No points follow the last afterstate, as the game was lost:
+		double nextReturn = 0d;
+		double nextValue = 0d;
+		int nextScore = 0;
+
+		for (int t = moveCount - 1; t >= 0; t--)
+		{
+			double target = nextScore
+					+ (1d - lambda) * nextValue
+					+ lambda * nextReturn;
+			long afterstate = afterstates[t];
+			double error = target - network.getValue(afterstate);
+			network.update(afterstate, (float) (rate * error));
+
+			nextReturn = target;
+			nextValue = network.getValue(afterstate);
+			nextScore = scores[t];
+		}
+	}
+
+	private static int getMaxExponent(long bits)
+	{
+		int maxExponent = 0;
+
+		for (long x = bits; x != 0L; x >>>= 4)
+		{
+			maxExponent = Math.max(maxExponent, (int) (x & 0xF));
+		}
+
+		return maxExponent;
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		int episodeCount = 100_000;
+		int tupleLength = 4;
+		double learningRate = 0.1d;
+		double lambda = 0d;
+		int reportEvery = 1_000;
+		long seed = 2048L;
+		Path outPath = null;
+
+		for (String arg : args)
+		{
+			String[] nameAndValue = arg.split("=", 2);
+			String value = nameAndValue.length == 2 ? nameAndValue[1] : "";
+
+			switch (nameAndValue[0])
+			{
+				case "episodes":
+					episodeCount = Integer.parseInt(value);
+					break;
+				case "tuples":
+					tupleLength = Integer.parseInt(value);
+					break;
+				case "learningRate":
+					learningRate = Double.parseDouble(value);
+					break;
+				case "lambda":
+					lambda = Double.parseDouble(value);
+					break;
+				case "reportEvery":
+					reportEvery = Integer.parseInt(value);
+					break;
+				case "seed":
+					seed = Long.parseLong(value);
+					break;
+				case "out":
+					outPath = Paths.get(value);
+					break;
+				default:
+					throw new IllegalArgumentException(
+							"Unknown option: " + arg);
+			}
+		}
+
+		NTupleNetwork network;
+		switch (tupleLength)
+		{
+			case 4:
+				network = NTupleNetwork.fourTuples();
+				break;
+			case 6:
+				network = NTupleNetwork.sixTuples();
+				break;
+			default:
+				throw new IllegalArgumentException(
+						"Tuples must be 4 or 6.  Found: " + tupleLength);
+		}
+
+		NTupleTrainer trainer = new NTupleTrainer(
+				network, learningRate, lambda, RandomSource.fast(seed));
+		System.out.printf(
+				"%s learningRate=%s lambda=%s seed=%d%n",
+				network, learningRate, lambda, seed);
+
+		long scoreSum = 0L;
+		long maxScore = 0L;
+		int maxExponent = 0;
+		long startNanos = System.nanoTime();
+
+		for (int episode = 1; episode <= episodeCount; episode++)
+		{
+			long score = trainer.playEpisode();
+			scoreSum += score;
+			maxScore = Math.max(maxScore, score);
+			maxExponent = Math.max(maxExponent, trainer.getLastMaxExponent());
+
+			if (episode % reportEvery == 0 || episode == episodeCount)
+			{
+				int reportCount = (episode - 1) % reportEvery + 1;
+				double seconds = (System.nanoTime() - startNanos) / 1e9d;
+				System.out.printf(
+						"episodes=%d %.0f episodes/s average=%.0f max=%d "
+						+ "maxTile=%d%n",
+						episode,
+						reportCount / seconds,
+						(double) scoreSum / reportCount,
+						maxScore,
+						1 << maxExponent);
+
+				scoreSum = 0L;
+				maxScore = 0L;
+				maxExponent = 0;
+				startNanos = System.nanoTime();
+			}
+		}
+
+		if (outPath != null)
+		{
+			WeightFile.write(network, outPath);
+			System.out.printf(
+					"wrote %d weights to %s%n",
+					network.getWeightCount(),
+					outPath);
+		}
+	}
+}
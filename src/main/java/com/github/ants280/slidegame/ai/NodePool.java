@@ -0,0 +1,219 @@
+package com.github.ants280.slidegame.ai;
+
+/**
+ * The nodes of a search tree, stored in parallel arrays rather than as
+ * objects.  A node is an index into the arrays.  Children are kept in a
+ * linked list: each node knows its first child and its next sibling.
+ *
+ * Decision nodes hold a board the player moves on.  Chance nodes hold the
+ * board after a move, the move and its score, and have the boards with each
+ * added tile sampled so far as children.
+ */
+final class NodePool
+{
+	static final int NONE = -1;
+	static final byte DECISION = -1;
+	private final long[] boards;
+	private final byte[] moveOrdinals;
+	private final int[] moveScores;
+	private final int[] visitCounts;
+	private final double[] valueSums;
+	private final int[] firstChildren;
+	private final int[] nextSiblings;
+	private int size;
+
+	NodePool(int capacity)
+	{
+		this.boards = new long[capacity];
+		this.moveOrdinals = new byte[capacity];
+		this.moveScores = new int[capacity];
+		this.visitCounts = new int[capacity];
+		this.valueSums = new double[capacity];
+		this.firstChildren = new int[capacity];
+		this.nextSiblings = new int[capacity];
+		this.size = 0;
+	}
+
+	int getCapacity()
+	{
+		return boards.length;
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	boolean isFull()
+	{
+		return size == boards.length;
+	}
+
+	void clear()
+	{
+		size = 0;
+	}
+
+	/**
+	 * @param board The board of the node.
+	 * @param moveOrdinal The ordinal of the move of a chance node, or
+	 * DECISION.
+	 * @param moveScore The score of the move of a chance node.
+	 * @return The new node, or NONE if the pool is full.
+	 */
+	int add(long board, byte moveOrdinal, int moveScore)
+	{
+		if (this.isFull())
+		{
+			return NONE;
+		}
+
+		int node = size++;
+		boards[node] = board;
+		moveOrdinals[node] = moveOrdinal;
+		moveScores[node] = moveScore;
+		visitCounts[node] = 0;
+		valueSums[node] = 0d;
+		firstChildren[node] = NONE;
+		nextSiblings[node] = NONE;
+
+		return node;
+	}
+
+	/**
+	 * Make a node the first child of a parent.
+	 */
+	void addChild(int parent, int child)
+	{
+		nextSiblings[child] = firstChildren[parent];
+		firstChildren[parent] = child;
+	}
+
+	long getBoard(int node)
+	{
+		return boards[node];
+	}
+
+	boolean isDecision(int node)
+	{
+		return moveOrdinals[node] == DECISION;
+	}
+
+	int getMoveOrdinal(int node)
+	{
+		return moveOrdinals[node];
+	}
+
+	int getMoveScore(int node)
+	{
+		return moveScores[node];
+	}
+
+	int getVisitCount(int node)
+	{
+		return visitCounts[node];
+	}
+
+	double getValueSum(int node)
+	{
+		return valueSums[node];
+	}
+
+	void addVisit(int node, double value)
+	{
+		visitCounts[node]++;
+		valueSums[node] += value;
+	}
+
+	int getFirstChild(int node)
+	{
+		return firstChildren[node];
+	}
+
+	int getNextSibling(int node)
+	{
+		return nextSiblings[node];
+	}
+
+	/**
+	 * @return The child of the node with the board, or NONE.
+	 */
+	int findChild(int parent, long board)
+	{
+		for (int child = firstChildren[parent];
+				child != NONE;
+				child = nextSiblings[child])
+		{
+			if (boards[child] == board)
+			{
+				return child;
+			}
+		}
+
+		return NONE;
+	}
+
+	/**
+	 * Replace the nodes of this pool with a copy of a subtree of another.
+	 *
+	 * @param source The pool to copy from.
+	 * @param root The root of the subtree in the source pool.
+	 * @param queue Scratch space at least as large as the capacity.
+	 * @return The root of the copy, which is always 0.
+	 */
+	int copySubtree(NodePool source, int root, int[] queue)
+	{
+		this.clear();
+		int newRoot = this.copyNode(source, root);
+		queue[0] = root;
+		int head = 0;
+		int tail = 1;
+
+		// Nodes are copied breadth-first, so a node's index in this pool is
+		// its position in the queue:
+		while (head < tail)
+		{
+			int sourceNode = queue[head];
+			int node = head;
+			head++;
+			int lastChild = NONE;
+
+			for (int sourceChild = source.firstChildren[sourceNode];
+					sourceChild != NONE;
+					sourceChild = source.nextSiblings[sourceChild])
+			{
+				int child = this.copyNode(source, sourceChild);
+				if (lastChild == NONE)
+				{
+					firstChildren[node] = child;
+				}
+				else
+				{
+					nextSiblings[lastChild] = child;
+				}
+				lastChild = child;
+				queue[tail++] = sourceChild;
+			}
+		}
+
+		return newRoot;
+	}
+
+	private int copyNode(NodePool source, int sourceNode)
+	{
+		int node = this.add(
+				source.boards[sourceNode],
+				source.moveOrdinals[sourceNode],
+				source.moveScores[sourceNode]);
+		visitCounts[node] = source.visitCounts[sourceNode];
+		valueSums[node] = source.valueSums[sourceNode];
+
+		return node;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "NodePool{size=" + size + ",capacity=" + boards.length + "}";
+	}
+}
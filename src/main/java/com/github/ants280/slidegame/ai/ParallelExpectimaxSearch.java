@@ -0,0 +1,362 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An ExpectimaxSearch that uses every thread of a ForkJoinPool.  The moves
+ * from the root and the tiles added in the first chance layers are searched
+ * as separate tasks.  Below the parallel layers, each thread searches with
+ * its own ExpectimaxSearch, so no board is shared.
+ *
+ * The values and node counts match those of an ExpectimaxSearch of the same
+ * depth, unless a TranspositionTable is shared.  One search may run at a time.
+ * A search with a deadline is given up on every thread when it passes, or
+ * when the thread waiting for the result is interrupted.
+ */
+public class ParallelExpectimaxSearch extends ExpectimaxSearch
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+	private final int parallelDepth;
+	private final ForkJoinPool forkJoinPool;
+	private final ThreadLocal<ExpectimaxSearch> sequentialSearches;
+	private volatile long nodeCount;
+
+	/**
+	 * @param depth The number of moves to look ahead, including the first.
+	 * @param evaluator Values the positions at the end of the search.
+	 * @param transpositionTable Caches the values of slid boards, or null.
+	 * It is shared by all threads.
+	 * @param parallelDepth The number of chance layers below the root that
+	 * are split into tasks.  Deeper layers are searched sequentially.
+	 * @param forkJoinPool The threads to search on.
+	 */
+	public ParallelExpectimaxSearch(
+			int depth,
+			Evaluator evaluator,
+			TranspositionTable transpositionTable,
+			int parallelDepth,
+			ForkJoinPool forkJoinPool)
+	{
+		super(depth, evaluator, transpositionTable);
+
+		if (parallelDepth < 0)
+		{
+			throw new IllegalArgumentException(
+					"Parallel depth must not be negative.  Found: "
+					+ parallelDepth);
+		}
+
+		this.parallelDepth = parallelDepth;
+		this.forkJoinPool = forkJoinPool;
+		this.sequentialSearches = ThreadLocal.withInitial(
+				() -> new ExpectimaxSearch(
+						depth,
+						evaluator,
+						transpositionTable));
+		this.nodeCount = 0L;
+	}
+
+	@Override
+	long getNodeCount()
+	{
+		return nodeCount;
+	}
+
+	@Override
+	public SearchResult search(long bits)
+	{
+		SearchState searchState = new SearchState(null);
+		RootTask rootTask = this.createRootTask(bits, searchState);
+
+		forkJoinPool.invoke(rootTask);
+
+		return this.getSearchResult(rootTask, searchState);
+	}
+
+	@Override
+	public SearchResult search(long bits, long deadlineNanos)
+	{
+		SearchDeadline searchDeadline = new SearchDeadline(deadlineNanos);
+		SearchState searchState = new SearchState(searchDeadline);
+		RootTask rootTask = this.createRootTask(bits, searchState);
+
+		try
+		{
+			forkJoinPool.execute(rootTask);
+			rootTask.get();
+		}
+		catch (InterruptedException ex)
+		{
+			// The tasks on the other threads are not interrupted:
+			searchDeadline.cancel();
+			rootTask.quietlyJoin();
+			nodeCount = searchState.nodeCount.sum();
+			Thread.currentThread().interrupt();
+			return null;
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			nodeCount = searchState.nodeCount.sum();
+
+			if (cause instanceof SearchDeadline.SearchCancelledException)
+			{
+				return null;
+			}
+
+			throw cause instanceof RuntimeException
+					? (RuntimeException) cause
+					: new IllegalStateException(cause);
+		}
+
+		return this.getSearchResult(rootTask, searchState);
+	}
+
+	/**
+	 * @return A task that searches the moves from the board, and stores the
+	 * values of its ChanceTasks.
+	 */
+	private RootTask createRootTask(long bits, SearchState searchState)
+	{
+		searchState.nodeCount.increment();
+		ChanceTask[] tasks = new ChanceTask[MOVE_DIRECTIONS.length];
+		List<ChanceTask> slidTasks = new ArrayList<>(MOVE_DIRECTIONS.length);
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			long slidBits = BitBoard.slide(bits, moveDirection);
+
+			if (slidBits != bits)
+			{
+				ChanceTask task = new ChanceTask(
+						slidBits,
+						this.getDepth() - 1,
+						parallelDepth,
+						searchState);
+				tasks[moveDirection.ordinal()] = task;
+				slidTasks.add(task);
+			}
+		}
+
+		return new RootTask(tasks, slidTasks);
+	}
+
+	private SearchResult getSearchResult(
+			RootTask rootTask,
+			SearchState searchState)
+	{
+		ChanceTask[] tasks = rootTask.tasks;
+		double[] values = new double[MOVE_DIRECTIONS.length];
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = tasks[i] == null ? Double.NaN : tasks[i].join();
+		}
+
+		nodeCount = searchState.nodeCount.sum();
+
+		return new SearchResult(values, nodeCount);
+	}
+
+	/**
+	 * What the tasks of one search share.
+	 */
+	private static final class SearchState
+	{
+		private final LongAdder nodeCount;
+		// Null if the search runs to the end:
+		private final SearchDeadline searchDeadline;
+
+		SearchState(SearchDeadline searchDeadline)
+		{
+			this.nodeCount = new LongAdder();
+			this.searchDeadline = searchDeadline;
+		}
+
+		void checkCancelled()
+		{
+			if (searchDeadline != null)
+			{
+				searchDeadline.check();
+			}
+		}
+	}
+
+	/**
+	 * Searches the moves from the root, each in its own ChanceTask.
+	 */
+	private static final class RootTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private final ChanceTask[] tasks;
+		private final List<ChanceTask> slidTasks;
+
+		RootTask(ChanceTask[] tasks, List<ChanceTask> slidTasks)
+		{
+			this.tasks = tasks;
+			this.slidTasks = slidTasks;
+		}
+
+		@Override
+		protected void compute()
+		{
+			ForkJoinTask.invokeAll(slidTasks);
+		}
+	}
+
+	/**
+	 * Averages the value of a slid board over the tiles that could be added.
+	 */
+	private final class ChanceTask extends RecursiveTask<Double>
+	{
+		private static final long serialVersionUID = 1L;
+		private final long bits;
+		private final int remainingDepth;
+		private final int remainingParallelDepth;
+		private final SearchState searchState;
+
+		ChanceTask(
+				long bits,
+				int remainingDepth,
+				int remainingParallelDepth,
+				SearchState searchState)
+		{
+			this.bits = bits;
+			this.remainingDepth = remainingDepth;
+			this.remainingParallelDepth = remainingParallelDepth;
+			this.searchState = searchState;
+		}
+
+		@Override
+		protected Double compute()
+		{
+			searchState.checkCancelled();
+
+			if (remainingParallelDepth == 0)
+			{
+				ExpectimaxSearch sequentialSearch = sequentialSearches.get();
+				long startNodeCount = sequentialSearch.getNodeCount();
+
+				try
+				{
+					return searchState.searchDeadline == null
+							? sequentialSearch.getChanceValue(
+									bits,
+									remainingDepth)
+							: sequentialSearch.getChanceValue(
+									bits,
+									remainingDepth,
+									searchState.searchDeadline);
+				}
+				finally
+				{
+					searchState.nodeCount.add(
+							sequentialSearch.getNodeCount() - startNodeCount);
+				}
+			}
+
+			searchState.nodeCount.increment();
+			long emptyMask = BitBoard.getEmptyMask(bits);
+			List<MaxTask> tasks = new ArrayList<>(
+					2 * Long.bitCount(emptyMask));
+
+			for (long mask = emptyMask; mask != 0L; mask &= mask - 1L)
+			{
+				int shift = Long.numberOfTrailingZeros(mask);
+				tasks.add(new MaxTask(
+						bits | (1L << shift),
+						remainingDepth,
+						remainingParallelDepth - 1,
+						searchState));
+				tasks.add(new MaxTask(
+						bits | (2L << shift),
+						remainingDepth,
+						remainingParallelDepth - 1,
+						searchState));
+			}
+
+			ForkJoinTask.invokeAll(tasks);
+
+			// Sum in the same order as ExpectimaxSearch, for equal values:
+			double sum = 0d;
+			for (int i = 0; i < tasks.size(); i += 2)
+			{
+				sum += TWO_PROBABILITY * tasks.get(i).join()
+						+ FOUR_PROBABILITY * tasks.get(i + 1).join();
+			}
+
+			return sum / Long.bitCount(emptyMask);
+		}
+	}
+
+	/**
+	 * Takes the value of the best move from a board.
+	 */
+	private final class MaxTask extends RecursiveTask<Double>
+	{
+		private static final long serialVersionUID = 1L;
+		private final long bits;
+		private final int remainingDepth;
+		private final int remainingParallelDepth;
+		private final SearchState searchState;
+
+		MaxTask(
+				long bits,
+				int remainingDepth,
+				int remainingParallelDepth,
+				SearchState searchState)
+		{
+			this.bits = bits;
+			this.remainingDepth = remainingDepth;
+			this.remainingParallelDepth = remainingParallelDepth;
+			this.searchState = searchState;
+		}
+
+		@Override
+		protected Double compute()
+		{
+			searchState.checkCancelled();
+			searchState.nodeCount.increment();
+
+			if (remainingDepth == 0)
+			{
+				return ParallelExpectimaxSearch.this.getEvaluator()
+						.evaluate(bits);
+			}
+
+			List<ChanceTask> tasks = new ArrayList<>(MOVE_DIRECTIONS.length);
+			for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+			{
+				long slidBits = BitBoard.slide(bits, moveDirection);
+
+				if (slidBits != bits)
+				{
+					tasks.add(new ChanceTask(
+							slidBits,
+							remainingDepth - 1,
+							remainingParallelDepth,
+							searchState));
+				}
+			}
+
+			ForkJoinTask.invokeAll(tasks);
+
+			double maxValue = LOST_VALUE;
+			for (ChanceTask task : tasks)
+			{
+				maxValue = Math.max(maxValue, task.join());
+			}
+
+			return maxValue;
+		}
+	}
+}
@@ -0,0 +1,27 @@
+package com.github.ants280.slidegame.ai;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the threads rollouts run on.  This version runs them on one
+ * platform thread per processor.  The jar holds a Java 21 version of this
+ * class that runs each rollout task on its own virtual thread.
+ */
+final class RolloutExecutors
+{
+	private RolloutExecutors()
+	{
+	}
+
+	static ExecutorService create()
+	{
+		return Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	static String getDescription()
+	{
+		return "platform threads";
+	}
+}
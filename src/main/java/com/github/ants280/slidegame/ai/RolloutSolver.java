@@ -0,0 +1,361 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Scores each move by playing many games to the end from the board it leaves,
+ * and averaging the points scored.  Works on grids of any length.
+ *
+ * Rollouts run on one platform thread per processor, or on virtual threads
+ * on Java 21 and later.  A solver must be closed to stop its threads.
+ *
+ * Usage: RolloutSolver [rollouts=16,64,256] [policy=random|greedy]
+ * [length=L] [moves=M] [seed=S]
+ */
+public final class RolloutSolver implements AutoCloseable
+{
+	/**
+	 * How moves are picked while playing a rollout.
+	 */
+	public enum RolloutPolicy
+	{
+		/**
+		 * Any slideable direction, with equal odds.
+		 */
+		RANDOM,
+		/**
+		 * The direction that combines tiles with the highest value.
+		 */
+		GREEDY
+	}
+
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+	private static final int ROLLOUTS_PER_TASK = 16;
+	private final int rolloutCount;
+	private final RolloutPolicy rolloutPolicy;
+	private final RandomSource randomSource;
+	private final ExecutorService executorService;
+
+	/**
+	 * @param rolloutCount The number of games to play for each move.
+	 * @param rolloutPolicy How moves are picked in the games.
+	 * @param randomSource Seeds the games.  Used only by this solver.
+	 */
+	public RolloutSolver(
+			int rolloutCount,
+			RolloutPolicy rolloutPolicy,
+			RandomSource randomSource)
+	{
+		if (rolloutCount < 1)
+		{
+			throw new IllegalArgumentException(
+					"Rollout count must be positive.  Found: "
+					+ rolloutCount);
+		}
+
+		this.rolloutCount = rolloutCount;
+		this.rolloutPolicy = rolloutPolicy;
+		this.randomSource = randomSource;
+		this.executorService = RolloutExecutors.create();
+	}
+
+	/**
+	 * @param grid The grid to find a move for.  It is not changed.
+	 * @return The average points scored after each move, including the
+	 * points of the move.  The node count is the number of moves played.
+	 * @throws InterruptedException If interrupted while waiting for games.
+	 */
+	public SearchResult solve(Grid grid) throws InterruptedException
+	{
+		return this.solve(grid.copyBoard());
+	}
+
+	/**
+	 * @param board The board to find a move for.  It is not changed, so it
+	 * can be a copy taken on another thread.
+	 * @return The average points scored after each move, including the
+	 * points of the move.  The node count is the number of moves played.
+	 * @throws InterruptedException If interrupted while waiting for games.
+	 */
+	public SearchResult solve(Board board) throws InterruptedException
+	{
+		List<RolloutTask> tasks = new ArrayList<>();
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			Board slidBoard = board.copy();
+			int score = slidBoard.slide(moveDirection);
+
+			if (score != Board.NOT_MOVED)
+			{
+				for (int first = 0;
+						first < rolloutCount;
+						first += ROLLOUTS_PER_TASK)
+				{
+					tasks.add(new RolloutTask(
+							moveDirection,
+							slidBoard,
+							score,
+							Math.min(ROLLOUTS_PER_TASK, rolloutCount - first),
+							rolloutPolicy,
+							randomSource.split()));
+				}
+			}
+		}
+
+		double[] scoreSums = new double[MOVE_DIRECTIONS.length];
+		Arrays.fill(scoreSums, Double.NaN);
+		long moveCount = 0L;
+
+		try
+		{
+			for (Future<RolloutTotals> future
+					: executorService.invokeAll(tasks))
+			{
+				RolloutTotals rolloutTotals = future.get();
+				int ordinal = rolloutTotals.moveDirection.ordinal();
+				scoreSums[ordinal] = Double.isNaN(scoreSums[ordinal])
+						? rolloutTotals.score
+						: scoreSums[ordinal] + rolloutTotals.score;
+				moveCount += rolloutTotals.moveCount;
+			}
+		}
+		catch (ExecutionException ex)
+		{
+			throw new IllegalStateException("Could not play rollouts", ex);
+		}
+
+		for (int i = 0; i < scoreSums.length; i++)
+		{
+			scoreSums[i] /= rolloutCount;
+		}
+
+		return new SearchResult(scoreSums, moveCount);
+	}
+
+	@Override
+	public void close()
+	{
+		executorService.shutdownNow();
+	}
+
+	private static final class RolloutTotals
+	{
+		private final MoveDirection moveDirection;
+		private final long score;
+		private final long moveCount;
+
+		RolloutTotals(MoveDirection moveDirection, long score, long moveCount)
+		{
+			this.moveDirection = moveDirection;
+			this.score = score;
+			this.moveCount = moveCount;
+		}
+	}
+
+	/**
+	 * Plays rollouts after one move.
+	 */
+	private static final class RolloutTask implements Callable<RolloutTotals>
+	{
+		private final MoveDirection moveDirection;
+		private final Board slidBoard;
+		private final int moveScore;
+		private final int count;
+		private final RolloutPolicy rolloutPolicy;
+		private final RandomSource randomSource;
+
+		RolloutTask(
+				MoveDirection moveDirection,
+				Board slidBoard,
+				int moveScore,
+				int count,
+				RolloutPolicy rolloutPolicy,
+				RandomSource randomSource)
+		{
+			this.moveDirection = moveDirection;
+			this.slidBoard = slidBoard;
+			this.moveScore = moveScore;
+			this.count = count;
+			this.rolloutPolicy = rolloutPolicy;
+			this.randomSource = randomSource;
+		}
+
+		@Override
+		public RolloutTotals call()
+		{
+			long score = 0L;
+			long moveCount = 0L;
+
+			for (int i = 0; i < count; i++)
+			{
+				Board board = slidBoard.copy();
+				Grid.addRandomTile(board, randomSource);
+				score += moveScore;
+
+				int slideableDirections = board.getSlideableDirections();
+				while (slideableDirections != 0)
+				{
+					score += board.slide(
+							this.chooseMove(board, slideableDirections));
+					Grid.addRandomTile(board, randomSource);
+					slideableDirections = board.getSlideableDirections();
+					moveCount++;
+				}
+			}
+
+			return new RolloutTotals(moveDirection, score, moveCount);
+		}
+
+		private MoveDirection chooseMove(Board board, int slideableDirections)
+		{
+			if (rolloutPolicy == RolloutPolicy.RANDOM)
+			{
+				return MovePolicies.chooseRandomly(
+						slideableDirections,
+						randomSource);
+			}
+
+			MoveDirection bestMoveDirection = null;
+			int bestScore = -1;
+
+			for (MoveDirection direction : MOVE_DIRECTIONS)
+			{
+				if ((slideableDirections & (1 << direction.ordinal())) != 0)
+				{
+					int score = board.getMergeScore(direction);
+
+					if (score > bestScore)
+					{
+						bestMoveDirection = direction;
+						bestScore = score;
+					}
+				}
+			}
+
+			return bestMoveDirection;
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		int[] rolloutCounts = {16, 64, 256, 1024};
+		RolloutPolicy rolloutPolicy = RolloutPolicy.RANDOM;
+		int length = 4;
+		int moveCount = 20;
+		long seed = 2048L;
+
+		for (String arg : args)
+		{
+			String[] nameAndValue = arg.split("=", 2);
+			String value = nameAndValue.length == 2 ? nameAndValue[1] : "";
+
+			switch (nameAndValue[0])
+			{
+				case "rollouts":
+					rolloutCounts = Arrays.stream(value.split(","))
+							.mapToInt(Integer::parseInt)
+							.toArray();
+					break;
+				case "policy":
+					rolloutPolicy = RolloutPolicy.valueOf(value.toUpperCase());
+					break;
+				case "length":
+					length = Integer.parseInt(value);
+					break;
+				case "moves":
+					moveCount = Integer.parseInt(value);
+					break;
+				case "seed":
+					seed = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException(
+							"Unknown option: " + arg);
+			}
+		}
+
+		Grid grid = createPosition(length, moveCount, seed);
+		System.out.printf(
+				"policy=%s length=%d moves=%d seed=%d on %s%n",
+				rolloutPolicy, length, moveCount, seed,
+				RolloutExecutors.getDescription());
+
+		for (int rolloutCount : rolloutCounts)
+		{
+			try (RolloutSolver rolloutSolver = new RolloutSolver(
+					rolloutCount,
+					rolloutPolicy,
+					RandomSource.fast(seed)))
+			{
+				long startNanos = System.nanoTime();
+				SearchResult searchResult = rolloutSolver.solve(grid);
+				double seconds = (System.nanoTime() - startNanos) / 1e9d;
+				int totalRollouts = rolloutCount
+						* Integer.bitCount(grid.getSlideableDirections());
+
+				StringBuilder values = new StringBuilder();
+				for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+				{
+					values.append(String.format(
+							" %s=%.1f",
+							moveDirection.getDisplayValue(),
+							searchResult.getValue(moveDirection)));
+				}
+
+				System.out.printf(
+						"  %6d rollouts/move: %.0f rollouts/s, "
+						+ "%.1f us/rollout, best=%s,%s%n",
+						rolloutCount,
+						totalRollouts / seconds,
+						seconds * 1e6d / totalRollouts,
+						searchResult.getBestMoveDirection(),
+						values);
+			}
+		}
+	}
+
+	/**
+	 * @return A grid after some random moves.
+	 */
+	private static Grid createPosition(int length, int moveCount, long seed)
+	{
+		RandomSource randomSource = RandomSource.fast(seed);
+		Grid grid = new Grid(length, 2048, randomSource.split());
+		grid.addRandomTile();
+		grid.addRandomTile();
+
+		for (int i = 0; i < moveCount; i++)
+		{
+			int slideableDirections = grid.getSlideableDirections();
+
+			if (slideableDirections == 0)
+			{
+				break;
+			}
+
+			long moveResult = grid.move(MovePolicies.chooseRandomly(
+					slideableDirections,
+					randomSource));
+
+			if (MoveResult.isGoalReached(moveResult))
+			{
+				break;
+			}
+		}
+
+		return grid;
+	}
+}
@@ -0,0 +1,256 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Values a board by features that can each be measured one row at a time.
+ * The weighted sum of the features of all 65536 rows is built when the
+ * evaluator is created, so a board is valued with 8 lookups: its 4 rows and
+ * the 4 rows of its transpose.
+ *
+ * All features are higher on better rows.  The base value keeps the value of
+ * a board that is not lost above 0, the value of a lost board.
+ */
+public final class RowHeuristicEvaluator implements Evaluator
+{
+	/**
+	 * What is measured on each row.
+	 */
+	public enum Feature
+	{
+		/**
+		 * The number of empty cells.
+		 */
+		EMPTY_CELLS,
+		/**
+		 * The number of pairs of tiles that would combine if slid together.
+		 */
+		MERGES,
+		/**
+		 * Minus the rises in exponent going the other way to the row's
+		 * slope.  Rows that only rise or only fall score 0.
+		 */
+		MONOTONICITY,
+		/**
+		 * Minus the differences in exponent between neighbouring tiles.
+		 */
+		SMOOTHNESS,
+		/**
+		 * The exponent of the largest tile, if it is at an end of the row.
+		 * A tile in a corner counts for its row and its column.
+		 */
+		CORNER
+	}
+
+	public static final double DEFAULT_BASE_VALUE = 100_000d;
+	private static final int LENGTH = BitBoard.LENGTH;
+	private static final int CELL_BITS = 4;
+	private static final int CELL_MASK = 0xF;
+	private static final int ROW_MASK = 0xFFFF;
+	private static final Feature[] FEATURES = Feature.values();
+	private final Map<Feature, Double> weights;
+	private final double baseValue;
+	private final float[] rowValues;
+
+	/**
+	 * @param weights The weight of each feature.  Missing features are not
+	 * used.
+	 * @param baseValue Added to the value of each board.
+	 */
+	public RowHeuristicEvaluator(Map<Feature, Double> weights, double baseValue)
+	{
+		this.weights = new EnumMap<>(Feature.class);
+		this.weights.putAll(weights);
+		this.baseValue = baseValue;
+		this.rowValues = new float[ROW_MASK + 1];
+
+		double[] featureWeights = new double[FEATURES.length];
+		for (Map.Entry<Feature, Double> entry : this.weights.entrySet())
+		{
+			featureWeights[entry.getKey().ordinal()] = entry.getValue();
+		}
+
+		int[] exponents = new int[LENGTH];
+		for (int row = 0; row <= ROW_MASK; row++)
+		{
+			for (int i = 0; i < LENGTH; i++)
+			{
+				exponents[i] = (row >>> (i * CELL_BITS)) & CELL_MASK;
+			}
+
+			double rowValue = 0d;
+			for (Feature feature : FEATURES)
+			{
+				if (featureWeights[feature.ordinal()] != 0d)
+				{
+					rowValue += featureWeights[feature.ordinal()]
+							* measure(feature, exponents);
+				}
+			}
+			rowValues[row] = (float) rowValue;
+		}
+	}
+
+	/**
+	 * @return Weights that favour open, ordered boards with the largest tile
+	 * in a corner.
+	 */
+	public static Map<Feature, Double> getDefaultWeights()
+	{
+		Map<Feature, Double> weights = new EnumMap<>(Feature.class);
+		weights.put(Feature.EMPTY_CELLS, 270d);
+		weights.put(Feature.MERGES, 700d);
+		weights.put(Feature.MONOTONICITY, 47d);
+		weights.put(Feature.SMOOTHNESS, 11d);
+		weights.put(Feature.CORNER, 20d);
+
+		return weights;
+	}
+
+	@Override
+	public double evaluate(long bits)
+	{
+		long transposed = BitBoard.transpose(bits);
+		double value = baseValue
+				+ rowValues[(int) bits & ROW_MASK]
+				+ rowValues[(int) (bits >>> 16) & ROW_MASK]
+				+ rowValues[(int) (bits >>> 32) & ROW_MASK]
+				+ rowValues[(int) (bits >>> 48) & ROW_MASK]
+				+ rowValues[(int) transposed & ROW_MASK]
+				+ rowValues[(int) (transposed >>> 16) & ROW_MASK]
+				+ rowValues[(int) (transposed >>> 32) & ROW_MASK]
+				+ rowValues[(int) (transposed >>> 48) & ROW_MASK];
+
+		return Math.max(0d, value);
+	}
+
+	/**
+	 * @return The weighted features of a row, without the base value.
+	 */
+	double getRowValue(int row)
+	{
+		return rowValues[row];
+	}
+
+	static int measure(Feature feature, int[] exponents)
+	{
+		switch (feature)
+		{
+			case EMPTY_CELLS:
+				return countEmptyCells(exponents);
+			case MERGES:
+				return countMerges(exponents);
+			case MONOTONICITY:
+				return getMonotonicity(exponents);
+			case SMOOTHNESS:
+				return getSmoothness(exponents);
+			case CORNER:
+				return getCorner(exponents);
+			default:
+				throw new IllegalArgumentException(
+						"Unknown feature: " + feature);
+		}
+	}
+
+	private static int countEmptyCells(int[] exponents)
+	{
+		int emptyCount = 0;
+
+		for (int exponent : exponents)
+		{
+			if (exponent == 0)
+			{
+				emptyCount++;
+			}
+		}
+
+		return emptyCount;
+	}
+
+	private static int countMerges(int[] exponents)
+	{
+		int mergeCount = 0;
+		int previous = 0;
+
+		for (int exponent : exponents)
+		{
+			if (exponent != 0)
+			{
+				if (exponent == previous)
+				{
+					mergeCount++;
+					// A tile only combines once:
+					previous = 0;
+				}
+				else
+				{
+					previous = exponent;
+				}
+			}
+		}
+
+		return mergeCount;
+	}
+
+	private static int getMonotonicity(int[] exponents)
+	{
+		int rises = 0;
+		int falls = 0;
+
+		for (int i = 1; i < exponents.length; i++)
+		{
+			int difference = exponents[i] - exponents[i - 1];
+
+			if (difference > 0)
+			{
+				rises += difference;
+			}
+			else
+			{
+				falls -= difference;
+			}
+		}
+
+		return -Math.min(rises, falls);
+	}
+
+	private static int getSmoothness(int[] exponents)
+	{
+		int roughness = 0;
+		int previous = 0;
+
+		for (int exponent : exponents)
+		{
+			if (exponent != 0)
+			{
+				if (previous != 0)
+				{
+					roughness += Math.abs(exponent - previous);
+				}
+				previous = exponent;
+			}
+		}
+
+		return -roughness;
+	}
+
+	private static int getCorner(int[] exponents)
+	{
+		int maxExponent = Arrays.stream(exponents).max().getAsInt();
+
+		return exponents[0] == maxExponent
+				|| exponents[exponents.length - 1] == maxExponent
+				? maxExponent
+				: 0;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "RowHeuristicEvaluator{weights=" + weights
+				+ ",baseValue=" + baseValue + "}";
+	}
+}
@@ -0,0 +1,180 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.GameSession;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times ParallelExpectimaxSearch against ExpectimaxSearch at the same depth
+ * on the same positions, and reports the speedup for each thread count.
+ *
+ * Usage: SearchBenchmark [depth=D] [positions=N] [parallelDepth=P]
+ * [threads=1,2,4,...] [seed=S]
+ */
+public final class SearchBenchmark
+{
+	private static final int MOVES_BETWEEN_POSITIONS = 10;
+
+	private SearchBenchmark()
+	{
+	}
+
+	public static void main(String[] args)
+	{
+		int depth = 4;
+		int positionCount = 20;
+		int parallelDepth = 1;
+		int[] threadCounts = getDefaultThreadCounts();
+		long seed = 2048L;
+
+		for (String arg : args)
+		{
+			String[] nameAndValue = arg.split("=", 2);
+			String value = nameAndValue.length == 2 ? nameAndValue[1] : "";
+
+			switch (nameAndValue[0])
+			{
+				case "depth":
+					depth = Integer.parseInt(value);
+					break;
+				case "positions":
+					positionCount = Integer.parseInt(value);
+					break;
+				case "parallelDepth":
+					parallelDepth = Integer.parseInt(value);
+					break;
+				case "threads":
+					threadCounts = Arrays.stream(value.split(","))
+							.mapToInt(Integer::parseInt)
+							.toArray();
+					break;
+				case "seed":
+					seed = Long.parseLong(value);
+					break;
+				default:
+					throw new IllegalArgumentException(
+							"Unknown option: " + arg);
+			}
+		}
+
+		long[] positions = createPositions(positionCount, seed);
+		Evaluator evaluator = Evaluators.emptyCells();
+
+		// Warm up, then time the sequential search:
+		time(new ExpectimaxSearch(depth, evaluator), positions);
+		double sequentialSeconds
+				= time(new ExpectimaxSearch(depth, evaluator), positions);
+		System.out.printf(
+				"depth=%d positions=%d parallelDepth=%d%n"
+				+ "  sequential: %.3f s%n",
+				depth, positions.length, parallelDepth, sequentialSeconds);
+
+		for (int threadCount : threadCounts)
+		{
+			ForkJoinPool forkJoinPool = new ForkJoinPool(threadCount);
+			try
+			{
+				ExpectimaxSearch parallelSearch = new ParallelExpectimaxSearch(
+						depth, evaluator, null, parallelDepth, forkJoinPool);
+				time(parallelSearch, positions);
+				double seconds = time(parallelSearch, positions);
+
+				System.out.printf(
+						"  %2d threads: %.3f s, speedup %.2fx%n",
+						threadCount,
+						seconds,
+						sequentialSeconds / seconds);
+			}
+			finally
+			{
+				forkJoinPool.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * @return The seconds taken to search all the positions.
+	 */
+	private static double time(
+			ExpectimaxSearch expectimaxSearch,
+			long[] positions)
+	{
+		long nodeCount = 0L;
+		long startNanos = System.nanoTime();
+
+		for (long position : positions)
+		{
+			nodeCount += expectimaxSearch.search(position).getNodeCount();
+		}
+
+		double seconds = (System.nanoTime() - startNanos) / 1e9d;
+
+		if (nodeCount == 0L)
+		{
+			throw new IllegalStateException("No nodes searched");
+		}
+
+		return seconds;
+	}
+
+	/**
+	 * @return Boards from the middle of games played with random moves.
+	 */
+	private static long[] createPositions(int positionCount, long seed)
+	{
+		RandomSource randomSource = RandomSource.fast(seed);
+		MovePolicy movePolicy = MovePolicies.random(randomSource.split());
+		long[] positions = new long[positionCount];
+		int positionIndex = 0;
+
+		while (positionIndex < positionCount)
+		{
+			Grid grid = new Grid(4, 2048, randomSource.split());
+			GameSession gameSession = new GameSession(grid);
+			int slideableDirections = grid.getSlideableDirections();
+			int moveCount = 0;
+
+			while (!gameSession.isGameOver()
+					&& slideableDirections != 0
+					&& positionIndex < positionCount)
+			{
+				long moveResult = gameSession.makeMove(
+						movePolicy.chooseMove(grid, slideableDirections));
+				slideableDirections
+						= MoveResult.getSlideableDirections(moveResult);
+				moveCount++;
+
+				if (moveCount % MOVES_BETWEEN_POSITIONS == 0
+						&& slideableDirections != 0)
+				{
+					positions[positionIndex++]
+							= ExpectimaxSearch.toBits(grid);
+				}
+			}
+		}
+
+		return positions;
+	}
+
+	/**
+	 * @return The powers of two up to the number of processors.
+	 */
+	private static int[] getDefaultThreadCounts()
+	{
+		int processorCount = Runtime.getRuntime().availableProcessors();
+		int[] threadCounts = new int[Integer.SIZE];
+		int size = 0;
+
+		for (int threadCount = 1;
+				threadCount <= processorCount;
+				threadCount *= 2)
+		{
+			threadCounts[size++] = threadCount;
+		}
+
+		return Arrays.copyOf(threadCounts, size);
+	}
+}
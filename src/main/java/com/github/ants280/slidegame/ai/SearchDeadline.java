@@ -0,0 +1,61 @@
+package com.github.ants280.slidegame.ai;
+
+/**
+ * When a search must give up: at a deadline, when the thread that checks is
+ * interrupted, or when cancelled from another thread.  Searches that run on
+ * many threads share one, as an interrupt only reaches the thread waiting
+ * for the result.
+ */
+final class SearchDeadline
+{
+	private final long deadlineNanos;
+	private volatile boolean cancelled;
+
+	/**
+	 * @param deadlineNanos When to give up, as by System.nanoTime().
+	 */
+	SearchDeadline(long deadlineNanos)
+	{
+		this.deadlineNanos = deadlineNanos;
+		this.cancelled = false;
+	}
+
+	void cancel()
+	{
+		cancelled = true;
+	}
+
+	boolean isExpired()
+	{
+		return cancelled
+				|| Thread.currentThread().isInterrupted()
+				|| System.nanoTime() - deadlineNanos >= 0L;
+	}
+
+	/**
+	 * Unwind the search that checks.
+	 */
+	void check()
+	{
+		if (this.isExpired())
+		{
+			throw SearchCancelledException.INSTANCE;
+		}
+	}
+
+	/**
+	 * Thrown through a search to abandon it.  It has no stack trace, so one
+	 * instance is shared.
+	 */
+	static final class SearchCancelledException extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+		static final SearchCancelledException INSTANCE
+				= new SearchCancelledException();
+
+		private SearchCancelledException()
+		{
+			super(null, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.Arrays;
+
+/**
+ * The expected value of each move from a position.
+ */
+public final class SearchResult
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+	private final double[] values;
+	private final long nodeCount;
+
+	/**
+	 * @param values The expected value of each move, by ordinal, or NaN for
+	 * moves that cannot be made.
+	 * @param nodeCount The number of positions visited.
+	 */
+	SearchResult(double[] values, long nodeCount)
+	{
+		this.values = values;
+		this.nodeCount = nodeCount;
+	}
+
+	/**
+	 * @return The move with the highest expected value, or null if no move
+	 * can be made.  Ties go to the move with the lowest ordinal.
+	 */
+	public MoveDirection getBestMoveDirection()
+	{
+		MoveDirection bestMoveDirection = null;
+
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			if (this.canMove(moveDirection)
+					&& (bestMoveDirection == null
+					|| this.getValue(moveDirection)
+					> this.getValue(bestMoveDirection)))
+			{
+				bestMoveDirection = moveDirection;
+			}
+		}
+
+		return bestMoveDirection;
+	}
+
+	public boolean canMove(MoveDirection moveDirection)
+	{
+		return !Double.isNaN(values[moveDirection.ordinal()]);
+	}
+
+	/**
+	 * @param moveDirection The move.
+	 * @return The expected value of the move, or NaN if it cannot be made.
+	 */
+	public double getValue(MoveDirection moveDirection)
+	{
+		return values[moveDirection.ordinal()];
+	}
+
+	public long getNodeCount()
+	{
+		return nodeCount;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SearchResult{values=" + Arrays.toString(values)
+				+ ",nodeCount=" + nodeCount + "}";
+	}
+}
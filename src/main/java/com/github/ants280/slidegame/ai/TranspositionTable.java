@@ -0,0 +1,279 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BoardSymmetry;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size cache of searched positions, keyed by packed board, that many
+ * search threads can share without locks.
+ *
+ * Each entry is two longs: the data (the depth and value) and the key XORed
+ * with the data.  An entry is only trusted if XORing its two words gives back
+ * the key, so an entry torn by two threads writing at once reads as a miss
+ * rather than as the value of another board.
+ *
+ * Boards are probed in a short run of slots starting at the slot their hash
+ * picks.  Values are stored as floats.
+ *
+ * A table can share symmetries: rotations and reflections of a board are
+ * then stored as one entry, under its canonical form.  Only searches whose
+ * evaluator gives symmetric boards the same value may share such a table.
+ */
+public final class TranspositionTable
+{
+	/**
+	 * Decides which entry a new board replaces when all the slots it can use
+	 * are taken.
+	 */
+	public enum ReplacementPolicy
+	{
+		/**
+		 * Always replace the entry in the first slot of the board.
+		 */
+		ALWAYS,
+		/**
+		 * Replace the entry with the least depth, unless it is deeper than
+		 * the new one.
+		 */
+		DEPTH_PREFERRED
+	}
+
+	public static final int ENTRY_BYTES = 2 * Long.BYTES;
+	static final int PROBE_LENGTH = 4;
+	private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+	private static final long VALUE_MASK = 0xFFFFFFFFL;
+	private static final int DEPTH_SHIFT = Integer.SIZE;
+	private static final long EMPTY = 0L;
+	private final long[] keys;
+	private final long[] data;
+	private final int indexMask;
+	private final int hashShift;
+	private final ReplacementPolicy replacementPolicy;
+	private final boolean shareSymmetries;
+	private final LongAdder hitCount;
+	private final LongAdder missCount;
+	private final LongAdder collisionCount;
+
+	/**
+	 * @param memoryBytes The most memory the entries may use.  The capacity
+	 * is the largest power of two that fits.
+	 * @param replacementPolicy Decides which entries are replaced when the
+	 * table is full.
+	 */
+	public TranspositionTable(
+			long memoryBytes,
+			ReplacementPolicy replacementPolicy)
+	{
+		this(memoryBytes, replacementPolicy, false);
+	}
+
+	/**
+	 * @param memoryBytes The most memory the entries may use.  The capacity
+	 * is the largest power of two that fits.
+	 * @param replacementPolicy Decides which entries are replaced when the
+	 * table is full.
+	 * @param shareSymmetries Whether or not to store the 8 symmetries of a
+	 * 4x4 board as one entry.
+	 */
+	public TranspositionTable(
+			long memoryBytes,
+			ReplacementPolicy replacementPolicy,
+			boolean shareSymmetries)
+	{
+		long maxCapacity = Math.min(memoryBytes / ENTRY_BYTES, 1L << 30);
+
+		if (maxCapacity < PROBE_LENGTH)
+		{
+			throw new IllegalArgumentException(
+					"Not enough memory for a table: " + memoryBytes);
+		}
+
+		int capacity = Integer.highestOneBit((int) maxCapacity);
+
+		this.keys = new long[capacity];
+		this.data = new long[capacity];
+		this.indexMask = capacity - 1;
+		this.hashShift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+		this.replacementPolicy = replacementPolicy;
+		this.shareSymmetries = shareSymmetries;
+		this.hitCount = new LongAdder();
+		this.missCount = new LongAdder();
+		this.collisionCount = new LongAdder();
+	}
+
+	public int getCapacity()
+	{
+		return keys.length;
+	}
+
+	/**
+	 * Look up the value of a board searched at least as deep as needed.
+	 *
+	 * @param board The packed board.
+	 * @param depth The depth the value is needed for.
+	 * @return The value, or NaN if there is none.
+	 */
+	public double get(long board, int depth)
+	{
+		long key = this.getKey(board);
+		int index = this.getIndex(key);
+
+		for (int i = 0; i < PROBE_LENGTH; i++)
+		{
+			int slot = (index + i) & indexMask;
+			long entry = data[slot];
+
+			if ((keys[slot] ^ entry) == key && entry != EMPTY)
+			{
+				if (getDepth(entry) >= depth)
+				{
+					hitCount.increment();
+					return getValue(entry);
+				}
+
+				break;
+			}
+		}
+
+		missCount.increment();
+
+		return Double.NaN;
+	}
+
+	/**
+	 * Store the value of a board, unless the replacement policy keeps the
+	 * entries in its slots.
+	 *
+	 * @param board The packed board.
+	 * @param depth The depth the board was searched to.  Not negative.
+	 * @param value The value of the board.
+	 */
+	public void put(long board, int depth, double value)
+	{
+		long key = this.getKey(board);
+		int index = this.getIndex(key);
+		long newEntry = toEntry(depth, value);
+		int replacedSlot = index;
+		int replacedDepth = Integer.MAX_VALUE;
+
+		for (int i = 0; i < PROBE_LENGTH; i++)
+		{
+			int slot = (index + i) & indexMask;
+			long entry = data[slot];
+
+			if (entry == EMPTY)
+			{
+				this.set(slot, key, newEntry);
+				return;
+			}
+
+			if ((keys[slot] ^ entry) == key)
+			{
+				if (replacementPolicy == ReplacementPolicy.ALWAYS
+						|| getDepth(entry) <= depth)
+				{
+					this.set(slot, key, newEntry);
+				}
+				return;
+			}
+
+			if (getDepth(entry) < replacedDepth)
+			{
+				replacedSlot = slot;
+				replacedDepth = getDepth(entry);
+			}
+		}
+
+		if (replacementPolicy == ReplacementPolicy.ALWAYS)
+		{
+			this.set(index, key, newEntry);
+			collisionCount.increment();
+		}
+		else if (replacedDepth <= depth)
+		{
+			this.set(replacedSlot, key, newEntry);
+			collisionCount.increment();
+		}
+	}
+
+	/**
+	 * Remove all entries.  Must not be called during a search.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, 0L);
+		Arrays.fill(data, EMPTY);
+	}
+
+	public long getHitCount()
+	{
+		return hitCount.sum();
+	}
+
+	public long getMissCount()
+	{
+		return missCount.sum();
+	}
+
+	/**
+	 * @return The number of entries replaced by the entry of another board.
+	 */
+	public long getCollisionCount()
+	{
+		return collisionCount.sum();
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format(
+				"TranspositionTable{capacity=%d,hits=%d,misses=%d,"
+				+ "collisions=%d}",
+				this.getCapacity(),
+				this.getHitCount(),
+				this.getMissCount(),
+				this.getCollisionCount());
+	}
+
+	private void set(int slot, long key, long entry)
+	{
+		data[slot] = entry;
+		keys[slot] = key ^ entry;
+	}
+
+	private long getKey(long board)
+	{
+		return shareSymmetries ? BoardSymmetry.canonicalize(board) : board;
+	}
+
+	private int getIndex(long key)
+	{
+		return (int) ((key * HASH_MULTIPLIER) >>> hashShift) & indexMask;
+	}
+
+	/**
+	 * The depth is stored plus one so that no entry equals EMPTY.
+	 */
+	private static long toEntry(int depth, double value)
+	{
+		if (depth < 0)
+		{
+			throw new IllegalArgumentException(
+					"Depth out of range: " + depth);
+		}
+
+		return ((long) (depth + 1) << DEPTH_SHIFT)
+				| (Float.floatToRawIntBits((float) value) & VALUE_MASK);
+	}
+
+	private static int getDepth(long entry)
+	{
+		return (int) (entry >>> DEPTH_SHIFT) - 1;
+	}
+
+	private static double getValue(long entry)
+	{
+		return Float.intBitsToFloat((int) entry);
+	}
+}
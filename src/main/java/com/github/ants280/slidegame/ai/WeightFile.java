@@ -0,0 +1,338 @@
+package com.github.ants280.slidegame.ai;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the weights of an NTupleNetwork.  Weights are not parsed
+ * when read: the file is mapped, and the network looks weights up in the
+ * page cache, which all processes reading the file share.
+ *
+ * The file is little-endian:
+ * <pre>
+ * 0   int   magic, "NTUP"
+ * 4   int   version, 1
+ * 8   int   tuple count
+ * 12  int   offset of the weights, a multiple of 64
+ * 16  long  length of the weights in bytes
+ * 24  int   CRC32 of the weights
+ * 28  int   CRC32 of the header, with this field 0
+ * 32  each tuple: its cell count as a byte, then its cells as bytes
+ * ... zeros up to the offset of the weights
+ * ... the weights of each tuple, as floats
+ * </pre>
+ */
+public final class WeightFile
+{
+	public static final int VERSION = 1;
+	private static final int MAGIC = 0x5055544E;
+	private static final int FIXED_HEADER_BYTES = 32;
+	private static final int HEADER_CRC_OFFSET = 28;
+	private static final int WEIGHTS_ALIGNMENT = 64;
+	private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+	private WeightFile()
+	{
+	}
+
+	/**
+	 * Write the weights to a temporary file, then move it over the path, so
+	 * a process reading the file never sees half of it.
+	 */
+	public static void write(NTupleNetwork network, Path path)
+			throws IOException
+	{
+		ByteBuffer header = createHeader(network);
+		Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+		try
+		{
+			try (FileChannel fileChannel = FileChannel.open(
+					tempPath,
+					StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING))
+			{
+				fileChannel.position(header.capacity());
+				CRC32 weightsCrc = new CRC32();
+				long weightsLength = writeWeights(
+						network, fileChannel, weightsCrc);
+
+				header.putLong(16, weightsLength);
+				header.putInt(24, (int) weightsCrc.getValue());
+				header.putInt(HEADER_CRC_OFFSET, getCrc(header));
+				((Buffer) header).rewind();
+				while (header.hasRemaining())
+				{
+					fileChannel.write(header, header.position());
+				}
+				fileChannel.force(true);
+			}
+
+			Files.move(
+					tempPath,
+					path,
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally
+		{
+			Files.deleteIfExists(tempPath);
+		}
+	}
+
+	/**
+	 * Map a file of weights, checking its header but not its weights.
+	 *
+	 * @return A network that cannot be trained.
+	 */
+	public static NTupleNetwork read(Path path) throws IOException
+	{
+		return read(path, false);
+	}
+
+	/**
+	 * @param path The file to map.
+	 * @param verifyWeights Whether or not to check the CRC32 of the weights,
+	 * which reads them all.
+	 * @return A network that cannot be trained.
+	 * @throws IOException If the file is not a valid weight file.
+	 */
+	public static NTupleNetwork read(Path path, boolean verifyWeights)
+			throws IOException
+	{
+		try (FileChannel fileChannel
+				= FileChannel.open(path, StandardOpenOption.READ))
+		{
+			ByteBuffer fixedHeader = readFully(
+					fileChannel, 0L, FIXED_HEADER_BYTES);
+			int magic = fixedHeader.getInt(0);
+			int version = fixedHeader.getInt(4);
+			int tupleCount = fixedHeader.getInt(8);
+			int weightsOffset = fixedHeader.getInt(12);
+
+			if (magic != MAGIC || version != VERSION)
+			{
+				throw new IOException(String.format(
+						"Not a version %d weight file: %s "
+						+ "(magic %08x, version %d)",
+						VERSION, path, magic, version));
+			}
+
+			if (tupleCount < 1
+					|| weightsOffset < FIXED_HEADER_BYTES
+					|| weightsOffset > fileChannel.size())
+			{
+				throw new IOException("Bad header in weight file: " + path);
+			}
+
+			ByteBuffer header = readFully(fileChannel, 0L, weightsOffset);
+			int headerCrc = header.getInt(HEADER_CRC_OFFSET);
+			header.putInt(HEADER_CRC_OFFSET, 0);
+
+			if (getCrc(header) != headerCrc)
+			{
+				throw new IOException("Header CRC mismatch in " + path);
+			}
+
+			int[][] tuples = readTuples(header, tupleCount, path);
+			long weightsLength = header.getLong(16);
+			long expectedWeightsLength = 0L;
+			for (int[] tuple : tuples)
+			{
+				expectedWeightsLength += (long) Float.BYTES
+						* NTupleNetwork.getWeightCount(tuple);
+			}
+
+			if (weightsLength != expectedWeightsLength
+					|| fileChannel.size() != weightsOffset + weightsLength)
+			{
+				throw new IOException(String.format(
+						"Expected %d bytes of weights in %s.  Found: %d",
+						expectedWeightsLength,
+						path,
+						fileChannel.size() - weightsOffset));
+			}
+
+			FloatBuffer[] weights = new FloatBuffer[tupleCount];
+			CRC32 weightsCrc = new CRC32();
+			long position = weightsOffset;
+
+			for (int t = 0; t < tupleCount; t++)
+			{
+				long length = (long) Float.BYTES
+						* NTupleNetwork.getWeightCount(tuples[t]);
+				MappedByteBuffer mappedBuffer = fileChannel.map(
+						FileChannel.MapMode.READ_ONLY, position, length);
+
+				if (verifyWeights)
+				{
+					weightsCrc.update(mappedBuffer.duplicate());
+				}
+
+				weights[t] = mappedBuffer
+						.order(ByteOrder.LITTLE_ENDIAN)
+						.asFloatBuffer();
+				position += length;
+			}
+
+			if (verifyWeights
+					&& (int) weightsCrc.getValue() != header.getInt(24))
+			{
+				throw new IOException("Weights CRC mismatch in " + path);
+			}
+
+			// The mappings stay valid after the channel is closed.
+			return new NTupleNetwork(tuples, weights);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new IOException("Bad tuples in weight file: " + path, ex);
+		}
+	}
+
+	private static ByteBuffer createHeader(NTupleNetwork network)
+	{
+		int tuplesLength = 0;
+		for (int t = 0; t < network.getTupleCount(); t++)
+		{
+			tuplesLength += 1 + network.getTuple(t).length;
+		}
+
+		int weightsOffset = FIXED_HEADER_BYTES + tuplesLength;
+		weightsOffset += -weightsOffset & (WEIGHTS_ALIGNMENT - 1);
+		ByteBuffer header = ByteBuffer.allocate(weightsOffset)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC)
+				.putInt(VERSION)
+				.putInt(network.getTupleCount())
+				.putInt(weightsOffset);
+		((Buffer) header).position(FIXED_HEADER_BYTES);
+
+		for (int t = 0; t < network.getTupleCount(); t++)
+		{
+			int[] tuple = network.getTuple(t);
+			header.put((byte) tuple.length);
+			for (int cell : tuple)
+			{
+				header.put((byte) cell);
+			}
+		}
+
+		return header;
+	}
+
+	/**
+	 * @return The number of bytes written.
+	 */
+	private static long writeWeights(
+			NTupleNetwork network,
+			FileChannel fileChannel,
+			CRC32 weightsCrc)
+			throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		FloatBuffer floatBuffer = buffer.asFloatBuffer();
+		long weightsLength = 0L;
+
+		for (int t = 0; t < network.getTupleCount(); t++)
+		{
+			FloatBuffer weights = network.getWeights(t);
+			((Buffer) weights).rewind();
+
+			while (weights.hasRemaining())
+			{
+				int count = Math.min(
+						weights.remaining(),
+						floatBuffer.capacity());
+				FloatBuffer chunk = weights.slice();
+				((Buffer) chunk).limit(count);
+				((Buffer) floatBuffer).clear();
+				floatBuffer.put(chunk);
+				((Buffer) weights).position(weights.position() + count);
+
+				((Buffer) buffer).clear().limit(count * Float.BYTES);
+				weightsCrc.update(buffer.duplicate());
+				while (buffer.hasRemaining())
+				{
+					fileChannel.write(buffer);
+				}
+				weightsLength += (long) count * Float.BYTES;
+			}
+		}
+
+		return weightsLength;
+	}
+
+	private static int[][] readTuples(
+			ByteBuffer header,
+			int tupleCount,
+			Path path)
+			throws IOException
+	{
+		int[][] tuples = new int[tupleCount][];
+		((Buffer) header).position(FIXED_HEADER_BYTES);
+
+		for (int t = 0; t < tupleCount; t++)
+		{
+			int tupleLength = header.hasRemaining()
+					? header.get(header.position())
+					: 0;
+
+			if (tupleLength < 1
+					|| tupleLength > NTupleNetwork.MAX_TUPLE_LENGTH
+					|| tupleLength > header.remaining() - 1)
+			{
+				throw new IOException("Bad tuples in weight file: " + path);
+			}
+
+			tuples[t] = new int[header.get()];
+			for (int i = 0; i < tuples[t].length; i++)
+			{
+				tuples[t][i] = header.get();
+			}
+		}
+
+		return tuples;
+	}
+
+	private static ByteBuffer readFully(
+			FileChannel fileChannel,
+			long position,
+			int length)
+			throws IOException
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(length)
+				.order(ByteOrder.LITTLE_ENDIAN);
+
+		while (buffer.hasRemaining())
+		{
+			if (fileChannel.read(buffer, position + buffer.position()) < 0)
+			{
+				throw new IOException(
+						"Weight file too short: " + fileChannel.size());
+			}
+		}
+
+		return buffer;
+	}
+
+	private static int getCrc(ByteBuffer header)
+	{
+		CRC32 crc = new CRC32();
+		crc.update(header.array(), 0, header.capacity());
+
+		return (int) crc.getValue();
+	}
+}
@@ -0,0 +1,362 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * A 4x4 Board packed into a single long.  Each cell is a 4-bit exponent.  The
+ * cell at (c, r) is stored in nibble (r * 4 + c), so each row is 16
+ * consecutive bits with column 0 in the lowest nibble.
+ *
+ * Rows are slid with a RowTable of all 65536 possible rows, and columns are
+ * slid as the rows of the transposed board.
+ *
+ * Tiles cannot exceed 2^15 (32768).  Two such tiles do not combine.
+ */
+public final class BitBoard implements Board
+{
+	public static final int LENGTH = 4;
+	public static final int MAX_EXPONENT = RowTable.MAX_EXPONENT;
+	private static final int CELL_BITS = RowTable.CELL_BITS;
+	private static final int LINE_BITS = LENGTH * CELL_BITS;
+	private static final int CELL_MASK = RowTable.CELL_MASK;
+	private static final int LINE_MASK = 0xFFFF;
+	private static final RowTable ROW_TABLE = RowTable.forLength(LENGTH);
+	private static final long ONES = 0x1111111111111111L;
+	private static final long HIGH_BITS = 0x8888888888888888L;
+	private long bits;
+
+	public BitBoard()
+	{
+		this(0L);
+	}
+
+	public BitBoard(long bits)
+	{
+		this.bits = bits;
+	}
+
+	public long getBits()
+	{
+		return bits;
+	}
+
+	public void setBits(long bits)
+	{
+		this.bits = bits;
+	}
+
+	@Override
+	public int getLength()
+	{
+		return LENGTH;
+	}
+
+	@Override
+	public int getMaxExponent()
+	{
+		return MAX_EXPONENT;
+	}
+
+	@Override
+	public int getExponent(int c, int r)
+	{
+		return (int) (bits >>> getShift(c, r)) & CELL_MASK;
+	}
+
+	@Override
+	public void setExponent(int c, int r, int exponent)
+	{
+		if (exponent < 0 || exponent > MAX_EXPONENT)
+		{
+			throw new IllegalArgumentException(
+					"Exponent out of range: " + exponent);
+		}
+
+		int shift = getShift(c, r);
+		bits = (bits & ~((long) CELL_MASK << shift))
+				| ((long) exponent << shift);
+	}
+
+	@Override
+	public void clear()
+	{
+		bits = 0L;
+	}
+
+	@Override
+	public Board copy()
+	{
+		return new BitBoard(bits);
+	}
+
+	@Override
+	public boolean canSlide(MoveDirection moveDirection)
+	{
+		return canSlide(bits, moveDirection);
+	}
+
+	@Override
+	public int slide(MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		boolean towardZero
+				= moveDirection.getDx() + moveDirection.getDy() < 0;
+		long rows = slideColumns ? transpose(bits) : bits;
+		long slidRows = 0L;
+		int moved = 0;
+		int score = 0;
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			int row = getRow(rows, r);
+			int entry = towardZero
+					? ROW_TABLE.slideLeft(row)
+					: ROW_TABLE.slideRight(row);
+			slidRows |= toRow(entry, r);
+			moved |= entry;
+			score += ROW_TABLE.getScore(row);
+		}
+
+		if ((moved & ROW_TABLE.getMovedFlag()) == 0)
+		{
+			return NOT_MOVED;
+		}
+
+		bits = slideColumns ? transpose(slidRows) : slidRows;
+
+		return score;
+	}
+
+	@Override
+	public int getMergeScore(MoveDirection moveDirection)
+	{
+		long rows = moveDirection.getDy() != 0 ? transpose(bits) : bits;
+		int score = 0;
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			score += ROW_TABLE.getScore(getRow(rows, r));
+		}
+
+		return score;
+	}
+
+	@Override
+	public int getSlideableDirections()
+	{
+		return getSlideableDirections(bits);
+	}
+
+	@Override
+	public boolean containsExponent(int exponent)
+	{
+		return containsExponent(bits, exponent);
+	}
+
+	@Override
+	public int countEmpty()
+	{
+		return countEmpty(bits);
+	}
+
+	@Override
+	public void spawn(int emptyIndex, int exponent)
+	{
+		bits = spawn(bits, emptyIndex, exponent);
+	}
+
+	@Override
+	public String toString()
+	{
+		return String.format("BitBoard{%016x}", bits);
+	}
+
+	public static boolean canSlide(long bits, MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		boolean towardZero
+				= moveDirection.getDx() + moveDirection.getDy() < 0;
+		long rows = slideColumns ? transpose(bits) : bits;
+		int moved = 0;
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			int row = getRow(rows, r);
+			moved |= towardZero
+					? ROW_TABLE.slideLeft(row)
+					: ROW_TABLE.slideRight(row);
+		}
+
+		return (moved & ROW_TABLE.getMovedFlag()) != 0;
+	}
+
+	/**
+	 * Slide all tiles of the board in the specified direction, combining
+	 * equal tiles.
+	 *
+	 * @param bits The board.
+	 * @param moveDirection The direction to slide the tiles.
+	 * @return The slid board, which equals the board if no tiles moved.
+	 */
+	public static long slide(long bits, MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		boolean towardZero
+				= moveDirection.getDx() + moveDirection.getDy() < 0;
+		long rows = slideColumns ? transpose(bits) : bits;
+		long slidRows = 0L;
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			int row = getRow(rows, r);
+			slidRows |= toRow(
+					towardZero
+							? ROW_TABLE.slideLeft(row)
+							: ROW_TABLE.slideRight(row),
+					r);
+		}
+
+		return slideColumns ? transpose(slidRows) : slidRows;
+	}
+
+	/**
+	 * @return A bit mask of the MoveDirections the board can slide in, with
+	 * bit (1 &lt;&lt; moveDirection.ordinal()) set for each.
+	 */
+	public static int getSlideableDirections(long bits)
+	{
+		long transposedBits = transpose(bits);
+		int movedLeft = 0;
+		int movedRight = 0;
+		int movedUp = 0;
+		int movedDown = 0;
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			int row = getRow(bits, r);
+			int column = getRow(transposedBits, r);
+			movedLeft |= ROW_TABLE.slideLeft(row);
+			movedRight |= ROW_TABLE.slideRight(row);
+			movedUp |= ROW_TABLE.slideLeft(column);
+			movedDown |= ROW_TABLE.slideRight(column);
+		}
+
+		int movedFlag = ROW_TABLE.getMovedFlag();
+
+		return ((movedLeft & movedFlag) == 0
+				? 0 : 1 << MoveDirection.LEFT.ordinal())
+				| ((movedRight & movedFlag) == 0
+				? 0 : 1 << MoveDirection.RIGHT.ordinal())
+				| ((movedUp & movedFlag) == 0
+				? 0 : 1 << MoveDirection.UP.ordinal())
+				| ((movedDown & movedFlag) == 0
+				? 0 : 1 << MoveDirection.DOWN.ordinal());
+	}
+
+	public static boolean containsExponent(long bits, int exponent)
+	{
+		// A nibble is zero only where the cell holds the exponent:
+		long x = bits ^ (exponent * ONES);
+
+		return ((x - ONES) & ~x & HIGH_BITS) != 0L;
+	}
+
+	public static int countEmpty(long bits)
+	{
+		return Long.bitCount(getEmptyMask(bits));
+	}
+
+	/**
+	 * Set the exponent of an empty cell.
+	 *
+	 * @param bits The board.
+	 * @param emptyIndex Which empty cell to fill, counting from the lowest
+	 * nibble.
+	 * @param exponent The exponent of the new tile.
+	 * @return The board with the new tile.
+	 */
+	public static long spawn(long bits, int emptyIndex, int exponent)
+	{
+		long emptyMask = getEmptyMask(bits);
+
+		if (emptyIndex < 0 || emptyIndex >= Long.bitCount(emptyMask))
+		{
+			throw new IllegalArgumentException(
+					"No empty cell at index " + emptyIndex);
+		}
+
+		int shift = selectBit(emptyMask, emptyIndex);
+
+		return bits | ((long) exponent << shift);
+	}
+
+	/**
+	 * Find the position of a set bit without visiting each bit: halve the
+	 * search range, counting the set bits of the lower half, four times.
+	 *
+	 * @param mask The bits to search.
+	 * @param index Which set bit to find, counting from the lowest.
+	 * @return The position of the set bit.
+	 */
+	private static int selectBit(long mask, int index)
+	{
+		int shift = 0;
+		int remaining = index;
+
+		for (int width = Long.SIZE / 2; width >= CELL_BITS; width /= 2)
+		{
+			long lowerHalf = (mask >>> shift) & ((1L << width) - 1L);
+			int lowerCount = Long.bitCount(lowerHalf);
+
+			if (remaining >= lowerCount)
+			{
+				remaining -= lowerCount;
+				shift += width;
+			}
+		}
+
+		// The remaining nibble has at most one bit: its lowest.
+		return shift;
+	}
+
+	/**
+	 * @return A mask with the lowest bit of each empty nibble set.
+	 */
+	public static long getEmptyMask(long bits)
+	{
+		long x = bits | (bits >>> 1);
+		x |= x >>> 2;
+
+		return ~x & ONES;
+	}
+
+	private static int getShift(int c, int r)
+	{
+		return (r * LENGTH + c) * CELL_BITS;
+	}
+
+	/**
+	 * Swap the rows and columns of the board: the cell at (c, r) moves to
+	 * (r, c).
+	 */
+	public static long transpose(long bits)
+	{
+		long a1 = bits & 0xF0F00F0FF0F00F0FL;
+		long a2 = bits & 0x0000F0F00000F0F0L;
+		long a3 = bits & 0x0F0F00000F0F0000L;
+		long a = a1 | (a2 << 12) | (a3 >>> 12);
+		long b1 = a & 0xFF00FF0000FF00FFL;
+		long b2 = a & 0x00FF00FF00000000L;
+		long b3 = a & 0x00000000FF00FF00L;
+
+		return b1 | (b2 >>> 24) | (b3 << 24);
+	}
+
+	private static int getRow(long bits, int r)
+	{
+		return (int) (bits >>> (r * LINE_BITS)) & LINE_MASK;
+	}
+
+	private static long toRow(int row, int r)
+	{
+		return (long) (row & LINE_MASK) << (r * LINE_BITS);
+	}
+}
@@ -0,0 +1,118 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * The storage behind a Grid.  Cells are addressed by column and row and hold
+ * the exponent of their tile's value: a tile of 8 is stored as 3.  Empty
+ * cells hold 0.
+ */
+public interface Board
+{
+	/**
+	 * The result of slide() when no tiles moved.
+	 */
+	int NOT_MOVED = -1;
+
+	int getLength();
+
+	/**
+	 * @return The largest exponent a cell of the board can hold.
+	 */
+	int getMaxExponent();
+
+	int getExponent(int c, int r);
+
+	void setExponent(int c, int r, int exponent);
+
+	void clear();
+
+	/**
+	 * @return An independent Board with the same length and cells.
+	 */
+	Board copy();
+
+	boolean canSlide(MoveDirection moveDirection);
+
+	/**
+	 * Slide all tiles in the specified direction, combining equal tiles.
+	 *
+	 * @param moveDirection The direction to slide the tiles.
+	 * @return The sum of the values of the newly combined tiles, or
+	 * NOT_MOVED if no tiles moved.
+	 */
+	int slide(MoveDirection moveDirection);
+
+	/**
+	 * Sliding either way along the rows or columns combines the same tiles,
+	 * so this is the score of slide() without changing the board.
+	 *
+	 * @return The sum of the values of the tiles that sliding in the
+	 * direction would combine, or 0 if none would.
+	 */
+	default int getMergeScore(MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		int length = this.getLength();
+		int maxExponent = this.getMaxExponent();
+		int score = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			int previousExponent = 0;
+
+			for (int j = 0; j < length; j++)
+			{
+				int exponent = slideColumns
+						? this.getExponent(i, j)
+						: this.getExponent(j, i);
+
+				if (exponent != 0)
+				{
+					if (exponent == previousExponent
+							&& exponent != maxExponent)
+					{
+						score += 1 << (exponent + 1);
+						previousExponent = 0;
+					}
+					else
+					{
+						previousExponent = exponent;
+					}
+				}
+			}
+		}
+
+		return score;
+	}
+
+	/**
+	 * @return A bit mask of the MoveDirections the board can slide in, with
+	 * bit (1 &lt;&lt; moveDirection.ordinal()) set for each.
+	 */
+	default int getSlideableDirections()
+	{
+		int slideableDirections = 0;
+
+		for (MoveDirection moveDirection : MoveDirection.VALUES)
+		{
+			if (this.canSlide(moveDirection))
+			{
+				slideableDirections |= 1 << moveDirection.ordinal();
+			}
+		}
+
+		return slideableDirections;
+	}
+
+	boolean containsExponent(int exponent);
+
+	int countEmpty();
+
+	/**
+	 * Set the exponent of an empty cell.
+	 *
+	 * @param emptyIndex Which empty cell to fill, from 0 (inclusive) to
+	 * countEmpty() (exclusive).  The order of the empty cells is not defined.
+	 * @param exponent The exponent of the new tile.
+	 */
+	void spawn(int emptyIndex, int exponent);
+}
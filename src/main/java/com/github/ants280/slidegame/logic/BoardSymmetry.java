@@ -0,0 +1,174 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * The 8 rotations and reflections of a 4x4 board packed as by BitBoard.
+ * Boards that are symmetries of each other play the same way, so they can
+ * share one entry in a cache, keyed by their canonical form: the smallest of
+ * their 8 images, compared as unsigned longs.
+ *
+ * A symmetry is a number from 0 to 7.  Bit 0 mirrors the columns, bit 1
+ * flips the rows and bit 2 transposes the board, in that order.  Symmetry 0
+ * leaves the board as it is.
+ */
+public final class BoardSymmetry
+{
+	public static final int COUNT = 8;
+	private static final int MIRROR = 1;
+	private static final int FLIP = 2;
+	private static final int TRANSPOSE = 4;
+	private static final long COLUMN_0 = 0x000F000F000F000FL;
+	private static final long COLUMN_1 = 0x00F000F000F000F0L;
+	private static final long COLUMN_2 = 0x0F000F000F000F00L;
+	private static final long COLUMN_3 = 0xF000F000F000F000L;
+	private static final long ROW_1 = 0x00000000FFFF0000L;
+	private static final long ROW_2 = 0x0000FFFF00000000L;
+	private static final int[] INVERSES = createInverses();
+
+	private BoardSymmetry()
+	{
+	}
+
+	/**
+	 * @return The board with its columns in reverse order.
+	 */
+	public static long mirror(long bits)
+	{
+		return ((bits & COLUMN_0) << 12)
+				| ((bits & COLUMN_1) << 4)
+				| ((bits & COLUMN_2) >>> 4)
+				| ((bits & COLUMN_3) >>> 12);
+	}
+
+	/**
+	 * @return The board with its rows in reverse order.
+	 */
+	public static long flip(long bits)
+	{
+		return (bits << 48)
+				| ((bits & ROW_1) << 16)
+				| ((bits & ROW_2) >>> 16)
+				| (bits >>> 48);
+	}
+
+	public static long apply(long bits, int symmetry)
+	{
+		long image = (symmetry & MIRROR) != 0 ? mirror(bits) : bits;
+		image = (symmetry & FLIP) != 0 ? flip(image) : image;
+
+		return (symmetry & TRANSPOSE) != 0 ? BitBoard.transpose(image) : image;
+	}
+
+	/**
+	 * @return The direction that makes the same move on the image of a board
+	 * under the symmetry, so that sliding then applying the symmetry equals
+	 * applying the symmetry then sliding the mapped direction.
+	 */
+	public static MoveDirection apply(
+			MoveDirection moveDirection,
+			int symmetry)
+	{
+		MoveDirection image = moveDirection;
+
+		if ((symmetry & MIRROR) != 0)
+		{
+			image = image == MoveDirection.LEFT ? MoveDirection.RIGHT
+					: image == MoveDirection.RIGHT ? MoveDirection.LEFT
+					: image;
+		}
+
+		if ((symmetry & FLIP) != 0)
+		{
+			image = image == MoveDirection.UP ? MoveDirection.DOWN
+					: image == MoveDirection.DOWN ? MoveDirection.UP
+					: image;
+		}
+
+		if ((symmetry & TRANSPOSE) != 0)
+		{
+			switch (image)
+			{
+				case LEFT:
+					return MoveDirection.UP;
+				case RIGHT:
+					return MoveDirection.DOWN;
+				case UP:
+					return MoveDirection.LEFT;
+				default:
+					return MoveDirection.RIGHT;
+			}
+		}
+
+		return image;
+	}
+
+	/**
+	 * @return The symmetry that undoes the specified one.
+	 */
+	public static int invert(int symmetry)
+	{
+		return INVERSES[symmetry];
+	}
+
+	/**
+	 * @return The smallest image of the board, as an unsigned long.
+	 */
+	public static long canonicalize(long bits)
+	{
+		long mirrored = mirror(bits);
+		long transposed = BitBoard.transpose(bits);
+		long transposedMirrored = mirror(transposed);
+
+		return min(
+				min(min(bits, mirrored), min(flip(bits), flip(mirrored))),
+				min(
+						min(transposed, transposedMirrored),
+						min(flip(transposed), flip(transposedMirrored))));
+	}
+
+	/**
+	 * @return The lowest symmetry that maps the board to its canonical form.
+	 * Searching the image and mapping the best move back with the inverse
+	 * gives the best move on the board.
+	 */
+	public static int getCanonicalSymmetry(long bits)
+	{
+		long canonicalBits = canonicalize(bits);
+
+		for (int symmetry = 0; symmetry < COUNT - 1; symmetry++)
+		{
+			if (apply(bits, symmetry) == canonicalBits)
+			{
+				return symmetry;
+			}
+		}
+
+		return COUNT - 1;
+	}
+
+	private static long min(long a, long b)
+	{
+		return Long.compareUnsigned(a, b) <= 0 ? a : b;
+	}
+
+	private static int[] createInverses()
+	{
+		// Every cell differs, so only the identity leaves the board as is:
+		long bits = 0xFEDCBA9876543210L;
+		int[] inverses = new int[COUNT];
+
+		for (int symmetry = 0; symmetry < COUNT; symmetry++)
+		{
+			long image = apply(bits, symmetry);
+
+			for (int inverse = 0; inverse < COUNT; inverse++)
+			{
+				if (apply(image, inverse) == bits)
+				{
+					inverses[symmetry] = inverse;
+				}
+			}
+		}
+
+		return inverses;
+	}
+}
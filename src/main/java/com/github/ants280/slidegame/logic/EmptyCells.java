@@ -0,0 +1,96 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Arrays;
+
+/**
+ * The set of empty cells of a board, indexed (r * length + c).  Adding,
+ * removing, counting and getting the i-th cell are all constant time: cells
+ * are kept densely packed in an array, and each cell remembers its position
+ * in that array.
+ */
+final class EmptyCells
+{
+	private static final int ABSENT = -1;
+	private final int[] cells;
+	private final int[] positions;
+	private int size;
+
+	EmptyCells(int cellCount)
+	{
+		this.cells = new int[cellCount];
+		this.positions = new int[cellCount];
+
+		this.fill();
+	}
+
+	int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @param index The position of the cell in the set, from 0 (inclusive)
+	 * to size() (exclusive).  The order changes as cells are removed.
+	 * @return The cell.
+	 */
+	int get(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IllegalArgumentException(
+					"No empty cell at index " + index);
+		}
+
+		return cells[index];
+	}
+
+	boolean contains(int cell)
+	{
+		return positions[cell] != ABSENT;
+	}
+
+	void add(int cell)
+	{
+		if (positions[cell] == ABSENT)
+		{
+			cells[size] = cell;
+			positions[cell] = size;
+			size++;
+		}
+	}
+
+	void remove(int cell)
+	{
+		int position = positions[cell];
+
+		if (position != ABSENT)
+		{
+			// Move the last cell into the hole:
+			size--;
+			int lastCell = cells[size];
+			cells[position] = lastCell;
+			positions[lastCell] = position;
+			positions[cell] = ABSENT;
+		}
+	}
+
+	/**
+	 * Mark every cell as empty.
+	 */
+	void fill()
+	{
+		for (int cell = 0; cell < cells.length; cell++)
+		{
+			cells[cell] = cell;
+			positions[cell] = cell;
+		}
+
+		size = cells.length;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EmptyCells" + Arrays.toString(Arrays.copyOf(cells, size));
+	}
+}
@@ -0,0 +1,148 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * The rules of a game played on a Grid: the score, the high score and when
+ * the game is won or lost.  Has no user interface, so games can be played
+ * without a display.
+ */
+public class GameSession
+{
+	private static final int STARTING_TILE_COUNT = 2;
+	private final Grid grid;
+	private int score;
+	private int highScore;
+	private boolean gameOver;
+	private boolean gameWon;
+
+	/**
+	 * Creates a session and starts a new game on the grid.
+	 *
+	 * @param grid The grid to play on.  Its tiles are cleared.
+	 */
+	public GameSession(Grid grid)
+	{
+		this.grid = grid;
+		this.highScore = 0;
+
+		this.newGame();
+	}
+
+	public Grid getGrid()
+	{
+		return grid;
+	}
+
+	public int getGridLength()
+	{
+		return grid.getLength();
+	}
+
+	/**
+	 * Set the length of the grid and start a new game.
+	 *
+	 * @param length The width and height of columns and rows in the grid.
+	 */
+	public void setGridLength(int length)
+	{
+		grid.setLength(length);
+		this.newGame();
+	}
+
+	public int getGoalTileValue()
+	{
+		return grid.getGoalTileValue();
+	}
+
+	/**
+	 * Set the value of the goal tile and start a new game.
+	 *
+	 * @param goalTileValue The value of the Tile used to determine when the
+	 * game is won.
+	 */
+	public void setGoalTileValue(int goalTileValue)
+	{
+		grid.setGoalTileValue(goalTileValue);
+		this.newGame();
+	}
+
+	public int getScore()
+	{
+		return score;
+	}
+
+	public int getHighScore()
+	{
+		return highScore;
+	}
+
+	public boolean isGameOver()
+	{
+		return gameOver;
+	}
+
+	public boolean isGameWon()
+	{
+		return gameWon;
+	}
+
+	/**
+	 * Clear the grid, reset the score and add the starting tiles.  The high
+	 * score is kept.
+	 */
+	public void newGame()
+	{
+		grid.clear();
+		score = 0;
+		gameOver = false;
+		gameWon = false;
+
+		for (int i = 0; i < STARTING_TILE_COUNT; i++)
+		{
+			grid.addRandomTile();
+		}
+	}
+
+	/**
+	 * Make a move, adding to the score and ending the game if the goal tile
+	 * is created or no more moves can be made.  Moves are ignored once the
+	 * game is over.
+	 *
+	 * @param moveDirection The direction to slide the tiles.
+	 * @return The result of the move, to be decoded with MoveResult.
+	 */
+	public long makeMove(MoveDirection moveDirection)
+	{
+		if (gameOver)
+		{
+			return MoveResult.of(false, 0, gameWon, 0);
+		}
+
+		long moveResult = grid.move(moveDirection);
+
+		if (MoveResult.isMoved(moveResult))
+		{
+			this.incrementScore(MoveResult.getScore(moveResult));
+
+			if (MoveResult.isGoalReached(moveResult)
+					|| !MoveResult.canSlideInAnyDirection(moveResult))
+			{
+				gameWon = MoveResult.isGoalReached(moveResult);
+				gameOver = true;
+			}
+		}
+
+		return moveResult;
+	}
+
+	private void incrementScore(int additionalScore)
+	{
+		if (additionalScore != 0)
+		{
+			this.score += additionalScore;
+			if (score > highScore)
+			{
+				highScore = score;
+			}
+		}
+	}
+}
@@ -1,13 +1,15 @@
 package com.github.ants280.slidegame.logic;
 
-import java.util.Random;
+import java.util.BitSet;
 
 public class Grid
 {
-	private final Random random;
-	private int length;
-	private Tile[][] cols;
-	private Tile[][] rows;
+	/**
+	 * One in this many added tiles is a 4 rather than a 2.
+	 */
+	public static final int FOUR_ODDS = 10;
+	private final RandomSource randomSource;
+	private Board board;
 	private int goalTileValue;
 	private boolean goalTileCreated;
 
@@ -30,10 +32,22 @@ public class Grid
 	 */
 	public Grid(int length, int goalTileValue)
 	{
-		this.random = new Random();
-		this.length = length;
-		this.cols = createTiles(length);
-		this.rows = createTiles(length);
+		this(length, goalTileValue, RandomSource.create());
+	}
+
+	/**
+	 * Creates an empty, square grid of tiles.
+	 *
+	 * @param length The width and height of columns and rows in the grid.
+	 * @param goalTileValue The value of the Tile used to determine when the
+	 * game is over.
+	 * @param randomSource The source of the values and locations of added
+	 * tiles.  It is used only by this Grid.
+	 */
+	public Grid(int length, int goalTileValue, RandomSource randomSource)
+	{
+		this.randomSource = randomSource;
+		this.board = createBoard(length, goalTileValue);
 		this.goalTileValue = goalTileValue;
 		this.goalTileCreated = false;
 
@@ -43,15 +57,13 @@ public class Grid
 
 	public int getLength()
 	{
-		return length;
+		return board.getLength();
 	}
 
 	public void setLength(int length)
 	{
 		this.validateLength(length);
-		this.length = length;
-		this.cols = createTiles(length);
-		this.rows = createTiles(length);
+		this.board = createBoard(length, goalTileValue);
 		this.clear();
 	}
 
@@ -64,6 +76,7 @@ public class Grid
 	{
 		this.validateGoalTileValue(goalTileValue);
 		this.goalTileValue = goalTileValue;
+		this.board = createBoard(board.getLength(), goalTileValue);
 		this.clear();
 	}
 
@@ -95,6 +108,7 @@ public class Grid
 					"Goal tile value must be a value of 2");
 		}
 
+		int length = this.getLength();
 		int maximumGoalTileValue = (int) Math.pow(2, Math.pow(length, 2));
 
 		if (goalTileValue > maximumGoalTileValue)
@@ -108,247 +122,202 @@ public class Grid
 
 	public Tile getTile(int c, int r)
 	{
-		return rows[r][c];
+		return Tile.fromExponent(board.getExponent(c, r));
 	}
 
 	public void clear()
 	{
-		for (int r = 0; r < length; r++)
-		{
-			for (int c = 0; c < length; c++)
-			{
-				this.setTile(c, r, null);
-			}
-		}
-
+		board.clear();
 		goalTileCreated = false;
 	}
 
 	/**
 	 * Add a random tile to an empty spot on the grid.
-	 *
-	 * This may be slow with fairly-filled game boards due to random adding.
 	 */
 	public void addRandomTile()
 	{
-		if (this.isFilled())
-		{
-			throw new IllegalArgumentException("Cannot add random tile");
-		}
+		addRandomTile(board, randomSource);
+	}
 
-		int c;
-		int r;
+	/**
+	 * Add a random tile to an empty spot on a board, with the same odds as
+	 * a Grid.
+	 *
+	 * @param board The board to add the tile to.
+	 * @param randomSource Chooses the value and location of the tile.
+	 */
+	public static void addRandomTile(Board board, RandomSource randomSource)
+	{
+		int emptyCount = board.countEmpty();
 
-		Tile tile = random.nextInt(10) == 0 ? Tile.TWO.getNext() : Tile.TWO;
-		do
+		if (emptyCount == 0)
 		{
-			c = random.nextInt(length);
-			r = random.nextInt(length);
+			throw new IllegalArgumentException("Cannot add random tile");
 		}
-		while (this.getTile(c, r) != null);
 
-		this.setTile(c, r, tile);
+		// One random number chooses both the cell and the value:
+		int choice = randomSource.nextInt(emptyCount * FOUR_ODDS);
+		int exponent = choice % FOUR_ODDS == 0 ? 2 : 1;
+		board.spawn(choice / FOUR_ODDS, exponent);
 	}
 
+	/**
+	 * Slide the tiles in the specified direction.
+	 *
+	 * @param moveDirection The direction to slide the tiles.
+	 * @return The sum of the newly created, combined tiles.
+	 */
 	public int slideTiles(MoveDirection moveDirection)
 	{
-		return this.slideTiles(moveDirection == MoveDirection.UP
-				|| moveDirection == MoveDirection.DOWN,
-				moveDirection == MoveDirection.LEFT
-				|| moveDirection == MoveDirection.UP);
-	}
-
-	public boolean canSlideTiles(MoveDirection moveDirection)
-	{
-		return this.canSlideTiles(moveDirection == MoveDirection.UP
-				|| moveDirection == MoveDirection.DOWN,
-				moveDirection == MoveDirection.LEFT
-				|| moveDirection == MoveDirection.UP);
-	}
+		int sum = board.slide(moveDirection);
 
-	public boolean canSlideInAnyDirection()
-	{
-		for (MoveDirection moveDirection : MoveDirection.values())
+		if (sum == Board.NOT_MOVED)
 		{
-			if (this.canSlideTiles(moveDirection))
-			{
-				return true;
-			}
+			return 0;
 		}
 
-		return false;
+		this.updateGoalTileCreated(sum);
+
+		return sum;
 	}
 
-	public boolean isFilled()
+	/**
+	 * Make a complete move in one pass: slide the tiles in the specified
+	 * direction and, if they moved and the goal tile has not been created,
+	 * add a random tile.  Allocates nothing.
+	 *
+	 * @param moveDirection The direction to slide the tiles.
+	 * @return The result of the move, to be decoded with MoveResult.  The
+	 * slideable directions describe the grid after the random tile is added.
+	 */
+	public long move(MoveDirection moveDirection)
 	{
-		for (int r = 0; r < length; r++)
+		int sum = board.slide(moveDirection);
+		boolean moved = sum != Board.NOT_MOVED;
+
+		if (moved)
 		{
-			for (int c = 0; c < length; c++)
+			this.updateGoalTileCreated(sum);
+
+			if (!goalTileCreated)
 			{
-				if (this.getTile(c, r) == null)
-				{
-					return false;
-				}
+				this.addRandomTile();
 			}
 		}
 
-		return true;
+		return MoveResult.of(
+				moved,
+				moved ? sum : 0,
+				goalTileCreated,
+				board.getSlideableDirections());
 	}
 
-	public boolean goalTileCreated()
+	public boolean canSlideTiles(MoveDirection moveDirection)
 	{
-		return goalTileCreated;
+		return board.canSlide(moveDirection);
 	}
 
-	private boolean canSlideTiles(boolean slideColumns, boolean towardZero)
+	/**
+	 * @return The points sliding in the direction would score, without
+	 * sliding.
+	 */
+	public int getMergeScore(MoveDirection moveDirection)
 	{
-		for (int i = 0; i < length; i++)
-		{
-			if (this.canSlideTiles(slideColumns, i, towardZero))
-			{
-				return true;
-			}
-		}
-
-		return false;
+		return board.getMergeScore(moveDirection);
 	}
 
-	private int slideTiles(boolean slideColumns, boolean towardZero)
+	public boolean canSlideInAnyDirection()
 	{
-		int sum = 0;
+		return board.getSlideableDirections() != 0;
+	}
 
-		for (int i = 0; i < length; i++)
-		{
-			sum += this.slideTiles(slideColumns, i, towardZero);
-		}
+	/**
+	 * @return A bit mask of the MoveDirections the grid can slide in, with
+	 * bit (1 &lt;&lt; moveDirection.ordinal()) set for each.
+	 */
+	public int getSlideableDirections()
+	{
+		return board.getSlideableDirections();
+	}
 
-		return sum;
+	/**
+	 * @return A copy of the tiles of the grid that can be changed freely,
+	 * for example to look ahead at moves.
+	 */
+	public Board copyBoard()
+	{
+		return board.copy();
 	}
 
 	/**
-	 * Determines if the row or column can be slid in the specified direction.
-	 * That is, if sliding the row/column moves/changes the tiles at all.
+	 * Find the cells that differ from an earlier copy of the grid, such as
+	 * the one last painted.
 	 *
-	 * @param slideColumns Whether or not a column or row is being slid
-	 * (consolidated).
-	 * @param index The column or row index.
-	 * @param towardZero Whether or not to slide the row/column up/left (toward
-	 * zero) or down/right (toward the end of the array).
-	 * @return The if the row/column can be slid in the specified direction.
+	 * @param previous A Board from copyBoard().
+	 * @return The changed cells, with bit r * length + c set for each.  All
+	 * cells are changed if the lengths differ.
 	 */
-	private boolean canSlideTiles(
-			boolean slideColumns,
-			int index,
-			boolean towardZero)
+	public BitSet getChangedCells(Board previous)
 	{
-		Tile lastSlidTile = null;
-
-		Tile[] tilesToSlide = this.getTilesToSlide(slideColumns, index);
-		int slideIndex = this.getSlideIndex(towardZero);
-		int slideDirectionDelta = this.getSlideDirectionDelta(towardZero);
-		for (int i = slideIndex;
-				towardZero ? i < length : i >= 0;
-				i += slideDirectionDelta)
+		int length = this.getLength();
+		BitSet changedCells = new BitSet(length * length);
+
+		if (previous.getLength() != length)
+		{
+			changedCells.set(0, length * length);
+		}
+		else if (board instanceof BitBoard && previous instanceof BitBoard)
 		{
-			if (tilesToSlide[i] != null)
+			long changedBits = ((BitBoard) board).getBits()
+					^ ((BitBoard) previous).getBits();
+
+			for (int i = 0; changedBits != 0L; i++, changedBits >>>= 4)
 			{
-				if (lastSlidTile == tilesToSlide[i]
-						|| i != slideIndex)
-				{
-					return true;
-				}
-				else
+				if ((changedBits & 0xFL) != 0L)
 				{
-					lastSlidTile = tilesToSlide[i];
-					slideIndex += slideDirectionDelta;
+					changedCells.set(i);
 				}
 			}
 		}
-
-		return false;
-	}
-
-	/**
-	 * Slide the tiles at the specified index in the specified direction.
-	 *
-	 * @param slideColumns Whether or not a column or row is being slid
-	 * (consolidated).
-	 * @param index The row or column index.
-	 * @param towardZero Whether or not to slide the row/column up/left (toward
-	 * zero) or down/right (toward the end of the array).
-	 * @return The sum of the newly created, combined tiles.
-	 */
-	private int slideTiles(boolean slideColumns, int index, boolean towardZero)
-	{
-		int sum = 0;
-		Tile[] slidTiles = new Tile[length];
-		boolean canCombineWithPreviousSlide = false;
-
-		Tile[] tilesToSlide = this.getTilesToSlide(slideColumns, index);
-		int slideIndex = this.getSlideIndex(towardZero);
-		int slideDirectionDelta = this.getSlideDirectionDelta(towardZero);
-		for (int i = slideIndex;
-				towardZero ? i < length : i >= 0;
-				i += slideDirectionDelta)
+		else
 		{
-			if (tilesToSlide[i] != null)
+			for (int r = 0; r < length; r++)
 			{
-				if (canCombineWithPreviousSlide
-						&& slidTiles[slideIndex - slideDirectionDelta]
-						== tilesToSlide[i])
+				for (int c = 0; c < length; c++)
 				{
-					Tile nextTile = tilesToSlide[i].getNext();
-					slidTiles[slideIndex - slideDirectionDelta] = nextTile;
-					sum += nextTile.getValue();
-					canCombineWithPreviousSlide = false;
-					if (nextTile.getValue() == goalTileValue)
+					if (board.getExponent(c, r) != previous.getExponent(c, r))
 					{
-						goalTileCreated = true;
+						changedCells.set(r * length + c);
 					}
 				}
-				else
-				{
-					slidTiles[slideIndex] = tilesToSlide[i];
-					slideIndex += slideDirectionDelta;
-					canCombineWithPreviousSlide = true;
-				}
 			}
 		}
 
-		this.setTiles(slideColumns, index, slidTiles);
-
-		return sum;
-	}
-
-	private Tile[] getTilesToSlide(boolean slideColumns, int index)
-	{
-		return slideColumns ? cols[index] : rows[index];
+		return changedCells;
 	}
 
-	private int getSlideIndex(boolean towardZero)
+	public boolean isFilled()
 	{
-		return towardZero ? 0 : length - 1;
+		return board.countEmpty() == 0;
 	}
 
-	private int getSlideDirectionDelta(boolean towardZero)
+	public boolean goalTileCreated()
 	{
-		return towardZero ? 1 : -1;
+		return goalTileCreated;
 	}
 
-	private void setTiles(boolean slideColumns, int index, Tile[] tempArray)
+	private void updateGoalTileCreated(int sum)
 	{
-		for (int i = 0; i < length; i++)
+		if (sum != 0
+				&& !goalTileCreated
+				&& board.containsExponent(getExponent(goalTileValue)))
 		{
-			this.setTile(
-					slideColumns ? index : i,
-					slideColumns ? i : index,
-					tempArray[i]);
+			goalTileCreated = true;
 		}
 	}
 
 	/**
-	 * Set the tile at the specified location. Updates the both the rows and
-	 * columns to keep the reflective data structure intact.
+	 * Set the tile at the specified location.
 	 *
 	 * Package-private for easy arrangements of tests.
 	 *
@@ -358,19 +327,33 @@ public class Grid
 	 */
 	void setTile(int c, int r, Tile tile)
 	{
-		rows[r][c] = tile;
-		cols[c][r] = tile;
+		board.setExponent(c, r, tile == null ? 0 : tile.getExponent());
 	}
 
-	private static Tile[][] createTiles(int length)
+	/**
+	 * Creates the most compact Board that can hold tiles up to the goal.
+	 */
+	private static Board createBoard(int length, int goalTileValue)
 	{
-		Tile[][] tiles = new Tile[length][];
-
-		for (int i = 0; i < length; i++)
+		if (getExponent(goalTileValue) <= RowTable.MAX_EXPONENT)
 		{
-			tiles[i] = new Tile[length];
+			if (length == BitBoard.LENGTH)
+			{
+				return new BitBoard();
+			}
+
+			if (length >= PackedBoard.MIN_LENGTH
+					&& length <= PackedBoard.MAX_LENGTH)
+			{
+				return new PackedBoard(length);
+			}
 		}
 
-		return tiles;
+		return new TileBoard(length);
+	}
+
+	private static int getExponent(int value)
+	{
+		return Integer.numberOfTrailingZeros(value);
 	}
 }
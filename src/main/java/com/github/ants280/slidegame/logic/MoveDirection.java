@@ -19,6 +19,8 @@ public enum MoveDirection
 	private final int dx;
 	private final int dy;
 	private final int[] keyCodes;
+	// values() copies the array, so it is cached for allocation-free loops:
+	static final MoveDirection[] VALUES = MoveDirection.values();
 	private static final Map<Integer, MoveDirection> KEY_CODES
 			= Arrays.stream(MoveDirection.values())
 					.flatMap(moveDirection -> Arrays.stream(moveDirection.keyCodes)
@@ -0,0 +1,90 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * Decodes the long returned by Grid.move().  The result is a primitive so
+ * that making a move allocates nothing.
+ *
+ * Bits 0-31 hold the score of the move, bit 32 is set if any tiles moved,
+ * bit 33 is set once the goal tile has been created, and bits 34-37 hold the
+ * MoveDirections the grid can slide in after the move, by ordinal.
+ */
+public final class MoveResult
+{
+	private static final long SCORE_MASK = 0xFFFFFFFFL;
+	private static final long MOVED_FLAG = 1L << 32;
+	private static final long GOAL_REACHED_FLAG = 1L << 33;
+	private static final int SLIDEABLE_DIRECTIONS_SHIFT = 34;
+	private static final long SLIDEABLE_DIRECTIONS_MASK = 0xFL;
+
+	private MoveResult()
+	{
+	}
+
+	/**
+	 * Encodes the result of a move.
+	 *
+	 * @param moved Whether or not any tiles moved.
+	 * @param score The sum of the values of the newly combined tiles.
+	 * @param goalReached Whether or not the goal tile has been created.
+	 * @param slideableDirections The bit mask of MoveDirections that can be
+	 * slid in after the move, as returned by Board.getSlideableDirections().
+	 * @return The encoded result.
+	 */
+	public static long of(
+			boolean moved,
+			int score,
+			boolean goalReached,
+			int slideableDirections)
+	{
+		return (score & SCORE_MASK)
+				| (moved ? MOVED_FLAG : 0L)
+				| (goalReached ? GOAL_REACHED_FLAG : 0L)
+				| ((slideableDirections & SLIDEABLE_DIRECTIONS_MASK)
+				<< SLIDEABLE_DIRECTIONS_SHIFT);
+	}
+
+	public static boolean isMoved(long moveResult)
+	{
+		return (moveResult & MOVED_FLAG) != 0L;
+	}
+
+	public static int getScore(long moveResult)
+	{
+		return (int) (moveResult & SCORE_MASK);
+	}
+
+	public static boolean isGoalReached(long moveResult)
+	{
+		return (moveResult & GOAL_REACHED_FLAG) != 0L;
+	}
+
+	public static boolean canSlide(
+			long moveResult,
+			MoveDirection moveDirection)
+	{
+		return (getSlideableDirections(moveResult)
+				& (1 << moveDirection.ordinal())) != 0;
+	}
+
+	public static boolean canSlideInAnyDirection(long moveResult)
+	{
+		return getSlideableDirections(moveResult) != 0;
+	}
+
+	public static int getSlideableDirections(long moveResult)
+	{
+		return (int) ((moveResult >>> SLIDEABLE_DIRECTIONS_SHIFT)
+				& SLIDEABLE_DIRECTIONS_MASK);
+	}
+
+	public static String toString(long moveResult)
+	{
+		return String.format(
+				"MoveResult{moved=%b,score=%d,goalReached=%b,"
+				+ "slideableDirections=%s}",
+				isMoved(moveResult),
+				getScore(moveResult),
+				isGoalReached(moveResult),
+				Integer.toBinaryString(getSlideableDirections(moveResult)));
+	}
+}
@@ -0,0 +1,194 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * Where each tile went in a move, for animating it.  Cells are numbered
+ * r * length + c.  Tiles that combine both move to the cell of their
+ * combined tile.
+ */
+public final class MoveTrace
+{
+	private final int length;
+	private final int[] fromCells;
+	private final int[] toCells;
+	private final int[] exponents;
+	private final boolean[] mergedCells;
+	private final int tileCount;
+	private final int spawnCell;
+
+	private MoveTrace(
+			int length,
+			int[] fromCells,
+			int[] toCells,
+			int[] exponents,
+			boolean[] mergedCells,
+			int tileCount,
+			int spawnCell)
+	{
+		this.length = length;
+		this.fromCells = fromCells;
+		this.toCells = toCells;
+		this.exponents = exponents;
+		this.mergedCells = mergedCells;
+		this.tileCount = tileCount;
+		this.spawnCell = spawnCell;
+	}
+
+	/**
+	 * Trace a move by sliding the board before it, the same way Board.slide()
+	 * does.
+	 *
+	 * @param before A copy of the board before the move.
+	 * @param moveDirection The direction the tiles slid.
+	 * @param after A copy of the board after the move, with any added tile.
+	 * @return The trace.  Tiles that did not move are included, moving 0
+	 * cells.
+	 */
+	public static MoveTrace of(
+			Board before,
+			MoveDirection moveDirection,
+			Board after)
+	{
+		int length = before.getLength();
+		int cellCount = length * length;
+		int[] fromCells = new int[cellCount];
+		int[] toCells = new int[cellCount];
+		int[] exponents = new int[cellCount];
+		boolean[] mergedCells = new boolean[cellCount];
+		boolean[] slidCells = new boolean[cellCount];
+		int tileCount = 0;
+
+		for (int line = 0; line < length; line++)
+		{
+			int nextPosition = 0;
+			int lastExponent = 0;
+
+			for (int position = 0; position < length; position++)
+			{
+				int cell = getCell(length, moveDirection, line, position);
+				int exponent = before.getExponent(cell % length, cell / length);
+
+				if (exponent == 0)
+				{
+					continue;
+				}
+
+				int toCell;
+				if (exponent == lastExponent)
+				{
+					toCell = getCell(
+							length, moveDirection, line, nextPosition - 1);
+					mergedCells[toCell] = true;
+					// A tile only combines once:
+					lastExponent = 0;
+				}
+				else
+				{
+					toCell = getCell(
+							length, moveDirection, line, nextPosition);
+					nextPosition++;
+					lastExponent = exponent;
+				}
+
+				fromCells[tileCount] = cell;
+				toCells[tileCount] = toCell;
+				exponents[tileCount] = exponent;
+				slidCells[toCell] = true;
+				tileCount++;
+			}
+		}
+
+		int spawnCell = -1;
+		for (int cell = 0; cell < cellCount; cell++)
+		{
+			if (!slidCells[cell]
+					&& after.getExponent(cell % length, cell / length) != 0)
+			{
+				spawnCell = cell;
+			}
+		}
+
+		return new MoveTrace(
+				length,
+				fromCells,
+				toCells,
+				exponents,
+				mergedCells,
+				tileCount,
+				spawnCell);
+	}
+
+	public int getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * @return The number of tiles before the move.
+	 */
+	public int getTileCount()
+	{
+		return tileCount;
+	}
+
+	/**
+	 * @param tile From 0 (inclusive) to getTileCount() (exclusive).
+	 */
+	public int getFromCell(int tile)
+	{
+		return fromCells[tile];
+	}
+
+	public int getToCell(int tile)
+	{
+		return toCells[tile];
+	}
+
+	/**
+	 * @return The tile as it was before it combined, if it did.
+	 */
+	public Tile getTile(int tile)
+	{
+		return Tile.fromExponent(exponents[tile]);
+	}
+
+	/**
+	 * @return Whether or not two tiles combined into the cell.
+	 */
+	public boolean isMerged(int cell)
+	{
+		return mergedCells[cell];
+	}
+
+	/**
+	 * @return The cell of the tile added after the slide, or -1 if none was.
+	 */
+	public int getSpawnCell()
+	{
+		return spawnCell;
+	}
+
+	/**
+	 * @param position How far the cell is from the edge the tiles slide to.
+	 */
+	private static int getCell(
+			int length,
+			MoveDirection moveDirection,
+			int line,
+			int position)
+	{
+		switch (moveDirection)
+		{
+			case LEFT:
+				return line * length + position;
+			case RIGHT:
+				return line * length + length - 1 - position;
+			case UP:
+				return position * length + line;
+			case DOWN:
+				return (length - 1 - position) * length + line;
+			default:
+				throw new IllegalArgumentException(
+						"Unknown moveDirection: " + moveDirection);
+		}
+	}
+}
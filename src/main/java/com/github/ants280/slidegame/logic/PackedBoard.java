@@ -0,0 +1,287 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * A Board with 5 to 8 cells per row.  Each row is packed into an int of 4-bit
+ * exponents, with column 0 in the lowest nibble.  Columns are gathered into
+ * the same packed form to be slid.
+ *
+ * Rows are slid with a RowTable when one fits in memory and are computed
+ * otherwise.  The number of empty cells is kept up to date as rows change.
+ *
+ * Tiles cannot exceed 2^15 (32768).  Two such tiles do not combine.
+ */
+class PackedBoard implements Board
+{
+	static final int MIN_LENGTH = BitBoard.LENGTH + 1;
+	static final int MAX_LENGTH = Integer.SIZE / RowTable.CELL_BITS;
+	private static final int CELL_BITS = RowTable.CELL_BITS;
+	private static final int CELL_MASK = RowTable.CELL_MASK;
+	private static final int ONES = 0x11111111;
+	private static final int HIGH_BITS = 0x88888888;
+	private final int length;
+	private final int unusedCells;
+	private final int[] rows;
+	private final RowTable rowTable;
+	private int emptyCount;
+
+	PackedBoard(int length)
+	{
+		if (length < MIN_LENGTH || length > MAX_LENGTH)
+		{
+			throw new IllegalArgumentException(
+					"Length out of range: " + length);
+		}
+
+		this.length = length;
+		this.unusedCells = length == MAX_LENGTH
+				? 0
+				: -1 << (length * CELL_BITS);
+		this.rows = new int[length];
+		this.rowTable = RowTable.forLength(length);
+		this.emptyCount = length * length;
+	}
+
+	private PackedBoard(PackedBoard other)
+	{
+		this.length = other.length;
+		this.unusedCells = other.unusedCells;
+		this.rows = other.rows.clone();
+		this.rowTable = other.rowTable;
+		this.emptyCount = other.emptyCount;
+	}
+
+	@Override
+	public int getLength()
+	{
+		return length;
+	}
+
+	@Override
+	public int getMaxExponent()
+	{
+		return RowTable.MAX_EXPONENT;
+	}
+
+	@Override
+	public int getExponent(int c, int r)
+	{
+		return (rows[r] >>> (c * CELL_BITS)) & CELL_MASK;
+	}
+
+	@Override
+	public void setExponent(int c, int r, int exponent)
+	{
+		if (exponent < 0 || exponent > RowTable.MAX_EXPONENT)
+		{
+			throw new IllegalArgumentException(
+					"Exponent out of range: " + exponent);
+		}
+
+		int shift = c * CELL_BITS;
+		this.setRow(
+				r,
+				(rows[r] & ~(CELL_MASK << shift)) | (exponent << shift));
+	}
+
+	@Override
+	public void clear()
+	{
+		for (int r = 0; r < length; r++)
+		{
+			rows[r] = 0;
+		}
+
+		emptyCount = length * length;
+	}
+
+	@Override
+	public Board copy()
+	{
+		return new PackedBoard(this);
+	}
+
+	@Override
+	public boolean canSlide(MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		boolean towardZero
+				= moveDirection.getDx() + moveDirection.getDy() < 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			int line = slideColumns ? this.getColumn(i) : rows[i];
+
+			if ((int) this.slideLine(line, towardZero) != line)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public int slide(MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		boolean towardZero
+				= moveDirection.getDx() + moveDirection.getDy() < 0;
+		boolean moved = false;
+		int sum = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			int line = slideColumns ? this.getColumn(i) : rows[i];
+			long slid = this.slideLine(line, towardZero);
+			int slidLine = (int) slid;
+
+			if (slidLine != line)
+			{
+				moved = true;
+				sum += (int) (slid >>> Integer.SIZE);
+
+				if (slideColumns)
+				{
+					this.setColumn(i, slidLine);
+				}
+				else
+				{
+					this.setRow(i, slidLine);
+				}
+			}
+		}
+
+		return moved ? sum : NOT_MOVED;
+	}
+
+	@Override
+	public int getMergeScore(MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		int score = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			int line = slideColumns ? this.getColumn(i) : rows[i];
+			score += (int) (this.slideLine(line, true) >>> Integer.SIZE);
+		}
+
+		return score;
+	}
+
+	@Override
+	public boolean containsExponent(int exponent)
+	{
+		for (int r = 0; r < length; r++)
+		{
+			// A nibble is zero only where the cell holds the exponent:
+			int x = (rows[r] ^ (exponent * ONES)) | unusedCells;
+
+			if (((x - ONES) & ~x & HIGH_BITS) != 0)
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public int countEmpty()
+	{
+		return emptyCount;
+	}
+
+	@Override
+	public void spawn(int emptyIndex, int exponent)
+	{
+		int remainingEmptyCells = emptyIndex;
+
+		for (int r = 0; r < length; r++)
+		{
+			int emptyMask = this.getEmptyMask(rows[r]);
+			int emptyCount = Integer.bitCount(emptyMask);
+
+			if (remainingEmptyCells < emptyCount)
+			{
+				for (int i = 0; i < remainingEmptyCells; i++)
+				{
+					emptyMask &= emptyMask - 1; // clear the lowest bit
+				}
+
+				int shift = Integer.numberOfTrailingZeros(emptyMask);
+				this.setRow(r, rows[r] | (exponent << shift));
+				return;
+			}
+
+			remainingEmptyCells -= emptyCount;
+		}
+
+		throw new IllegalArgumentException(
+				"No empty cell at index " + emptyIndex);
+	}
+
+	private void setRow(int r, int row)
+	{
+		emptyCount += Integer.bitCount(this.getEmptyMask(row))
+				- Integer.bitCount(this.getEmptyMask(rows[r]));
+		rows[r] = row;
+	}
+
+	/**
+	 * @return A mask with the lowest bit of each empty cell of the row set.
+	 */
+	private int getEmptyMask(int row)
+	{
+		int x = row | unusedCells;
+		x |= x >>> 1;
+		x |= x >>> 2;
+
+		return ~x & ONES;
+	}
+
+	/**
+	 * @return The slid line in the low 32 bits with the sum of the newly
+	 * combined tiles above it.
+	 */
+	private long slideLine(int line, boolean towardZero)
+	{
+		if (rowTable == null)
+		{
+			return RowTable.computeSlide(line, length, towardZero);
+		}
+
+		int entry = towardZero
+				? rowTable.slideLeft(line)
+				: rowTable.slideRight(line);
+
+		return ((long) rowTable.getScore(line) << Integer.SIZE)
+				| (entry & rowTable.getRowMask());
+	}
+
+	private int getColumn(int c)
+	{
+		int shift = c * CELL_BITS;
+		int column = 0;
+
+		for (int r = 0; r < length; r++)
+		{
+			column |= ((rows[r] >>> shift) & CELL_MASK) << (r * CELL_BITS);
+		}
+
+		return column;
+	}
+
+	private void setColumn(int c, int column)
+	{
+		int shift = c * CELL_BITS;
+
+		for (int r = 0; r < length; r++)
+		{
+			int exponent = (column >>> (r * CELL_BITS)) & CELL_MASK;
+			this.setRow(
+					r,
+					(rows[r] & ~(CELL_MASK << shift)) | (exponent << shift));
+		}
+	}
+}
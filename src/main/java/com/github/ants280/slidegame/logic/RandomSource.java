@@ -0,0 +1,72 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Random numbers for adding tiles.  Sources are not thread-safe: each thread
+ * should use its own, created with split() or from a derived seed.  Sources
+ * created with the same seed produce the same numbers.
+ */
+public interface RandomSource
+{
+	/**
+	 * @param bound The upper bound (exclusive).  Must be positive.
+	 * @return A random int from 0 (inclusive) to the bound (exclusive).
+	 */
+	int nextInt(int bound);
+
+	long nextLong();
+
+	/**
+	 * @return A new, independent source seeded from this one.
+	 */
+	RandomSource split();
+
+	/**
+	 * Create a fast, non-synchronized source.
+	 *
+	 * @param seed The seed.
+	 * @return The source.
+	 */
+	static RandomSource fast(long seed)
+	{
+		return new XorShiftRandomSource(seed);
+	}
+
+	/**
+	 * Create a source backed by a java.util.SplittableRandom.
+	 *
+	 * @param seed The seed.
+	 * @return The source.
+	 */
+	static RandomSource splittable(long seed)
+	{
+		return new SplittableRandomSource(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Create a fast source with an unpredictable seed.
+	 *
+	 * @return The source.
+	 */
+	static RandomSource create()
+	{
+		return fast(ThreadLocalRandom.current().nextLong() ^ System.nanoTime());
+	}
+
+	/**
+	 * Derive the seed of one of many games from a master seed.  Nearby
+	 * master seeds and indexes give unrelated seeds, so a batch of games can
+	 * be replayed exactly from its master seed alone.
+	 *
+	 * @param masterSeed The seed of the batch of games.
+	 * @param index The index of the game in the batch.
+	 * @return The seed of the game.
+	 */
+	static long deriveSeed(long masterSeed, long index)
+	{
+		return XorShiftRandomSource.mix(
+				masterSeed + (index + 1L) * XorShiftRandomSource.GOLDEN_GAMMA);
+	}
+}
@@ -0,0 +1,179 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * Precomputed slides of every possible row of 4-bit exponents of a given
+ * length.  Cell i of a row is stored in bits [4i, 4i + 4), so sliding left
+ * moves cells toward the lowest nibble.  Columns are slid as rows of a
+ * transposed board.
+ *
+ * Each entry of the left and right tables holds the slid row, with the
+ * moved flag set above it if the row changed.  Sliding left or right combines
+ * the same tiles, so both directions share one score table.
+ *
+ * Tables grow sixteen-fold with each cell, so they are only built for rows
+ * of up to MAX_TABLE_LENGTH cells.  Longer rows are slid with computeSlide.
+ */
+final class RowTable
+{
+	static final int CELL_BITS = 4;
+	static final int CELL_MASK = 0xF;
+	static final int MAX_EXPONENT = CELL_MASK;
+	static final int MAX_TABLE_LENGTH = 5;
+	private static final RowTable[] TABLES
+			= new RowTable[MAX_TABLE_LENGTH + 1];
+	private final int length;
+	private final int movedFlag;
+	private final int rowMask;
+	private final int[] left;
+	private final int[] right;
+	private final int[] scores;
+
+	RowTable(int length)
+	{
+		this.length = length;
+		this.movedFlag = 1 << (length * CELL_BITS);
+		this.rowMask = movedFlag - 1;
+		this.left = new int[movedFlag];
+		this.right = new int[movedFlag];
+		this.scores = new int[movedFlag];
+
+		this.init();
+	}
+
+	/**
+	 * Gets the shared table for rows of the specified length, building it on
+	 * first use.
+	 *
+	 * @param length The number of cells in a row.
+	 * @return The table, or null if rows of the length are too long to
+	 * tabulate.
+	 */
+	static synchronized RowTable forLength(int length)
+	{
+		if (length > MAX_TABLE_LENGTH)
+		{
+			return null;
+		}
+
+		if (TABLES[length] == null)
+		{
+			TABLES[length] = new RowTable(length);
+		}
+
+		return TABLES[length];
+	}
+
+	int getLength()
+	{
+		return length;
+	}
+
+	/**
+	 * @param row The cells of the row.
+	 * @return The row slid toward its first cell, with the moved flag set if
+	 * any cell changed.
+	 */
+	int slideLeft(int row)
+	{
+		return left[row];
+	}
+
+	/**
+	 * @param row The cells of the row.
+	 * @return The row slid toward its last cell, with the moved flag set if
+	 * any cell changed.
+	 */
+	int slideRight(int row)
+	{
+		return right[row];
+	}
+
+	/**
+	 * @param row The cells of the row.
+	 * @return The sum of the values of the tiles combined by sliding the row.
+	 */
+	int getScore(int row)
+	{
+		return scores[row];
+	}
+
+	/**
+	 * @return The bit set in table entries if sliding changed the row.
+	 */
+	int getMovedFlag()
+	{
+		return movedFlag;
+	}
+
+	/**
+	 * @return The bits of table entries that hold the slid row.
+	 */
+	int getRowMask()
+	{
+		return rowMask;
+	}
+
+	private void init()
+	{
+		for (int row = 0; row < movedFlag; row++)
+		{
+			long slidLeft = computeSlide(row, length, true);
+			long slidRight = computeSlide(row, length, false);
+
+			left[row] = toEntry(row, (int) slidLeft);
+			right[row] = toEntry(row, (int) slidRight);
+			scores[row] = (int) (slidLeft >>> Integer.SIZE);
+		}
+	}
+
+	private int toEntry(int row, int slidRow)
+	{
+		return slidRow == row ? slidRow : slidRow | movedFlag;
+	}
+
+	/**
+	 * Slide the cells of the row toward its first or last cell.  Tiles with
+	 * the largest exponent do not combine.
+	 *
+	 * @param row The cells of the row.
+	 * @param length The number of cells in the row, at most 8.
+	 * @param towardZero Whether or not to slide the row toward its first
+	 * cell.
+	 * @return The slid row in the low 32 bits with the sum of the newly
+	 * combined tiles above it.
+	 */
+	static long computeSlide(int row, int length, boolean towardZero)
+	{
+		int slidRow = 0;
+		int score = 0;
+		int slideIndex = towardZero ? 0 : length - 1;
+		int slideDirectionDelta = towardZero ? 1 : -1;
+		int previousExponent = 0;
+
+		for (int i = slideIndex;
+				towardZero ? i < length : i >= 0;
+				i += slideDirectionDelta)
+		{
+			int exponent = (row >>> (i * CELL_BITS)) & CELL_MASK;
+
+			if (exponent != 0)
+			{
+				if (exponent == previousExponent && exponent != MAX_EXPONENT)
+				{
+					int previousSlideIndex = slideIndex - slideDirectionDelta;
+					slidRow += 1 << (previousSlideIndex * CELL_BITS);
+					score += 1 << (exponent + 1);
+					previousExponent = 0;
+				}
+				else
+				{
+					slidRow |= exponent << (slideIndex * CELL_BITS);
+					slideIndex += slideDirectionDelta;
+					previousExponent = exponent;
+				}
+			}
+		}
+
+		return ((long) score << Integer.SIZE) | (slidRow & 0xFFFFFFFFL);
+	}
+}
@@ -0,0 +1,31 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.SplittableRandom;
+
+final class SplittableRandomSource implements RandomSource
+{
+	private final SplittableRandom splittableRandom;
+
+	SplittableRandomSource(SplittableRandom splittableRandom)
+	{
+		this.splittableRandom = splittableRandom;
+	}
+
+	@Override
+	public int nextInt(int bound)
+	{
+		return splittableRandom.nextInt(bound);
+	}
+
+	@Override
+	public long nextLong()
+	{
+		return splittableRandom.nextLong();
+	}
+
+	@Override
+	public RandomSource split()
+	{
+		return new SplittableRandomSource(splittableRandom.split());
+	}
+}
@@ -9,10 +9,18 @@ public class Tile implements Comparable<Tile>
 	private final String displayValue;
 	private static final Map<Integer, Tile> VALUE_CACHE = new HashMap<>();
 	public static final Tile TWO = new Tile(2);
+	static final int MAX_EXPONENT = 30;
+	private static final Tile[] EXPONENT_CACHE = new Tile[MAX_EXPONENT + 1];
 
 	static
 	{
 		VALUE_CACHE.put(2, TWO);
+
+		EXPONENT_CACHE[1] = TWO;
+		for (int exponent = 2; exponent <= MAX_EXPONENT; exponent++)
+		{
+			EXPONENT_CACHE[exponent] = EXPONENT_CACHE[exponent - 1].getNext();
+		}
 	}
 
 	Tile(int value)
@@ -26,6 +34,14 @@ public class Tile implements Comparable<Tile>
 		return value;
 	}
 
+	/**
+	 * @return The power of two of the value.  For example, 3 for a Tile of 8.
+	 */
+	public int getExponent()
+	{
+		return Integer.numberOfTrailingZeros(value);
+	}
+
 	public String getDisplayValue()
 	{
 		return displayValue;
@@ -43,6 +59,17 @@ public class Tile implements Comparable<Tile>
 		return VALUE_CACHE.get(nextValue);
 	}
 
+	/**
+	 * Gets the Tile with the value of two raised to the exponent.
+	 *
+	 * @param exponent The power of two of the Tile's value.
+	 * @return The Tile, or null for an exponent of 0 (an empty cell).
+	 */
+	static Tile fromExponent(int exponent)
+	{
+		return EXPONENT_CACHE[exponent];
+	}
+
 	@Override
 	public int hashCode()
 	{
@@ -0,0 +1,322 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Arrays;
+
+/**
+ * A Board of any length that stores its Tiles in both rows and columns.  The
+ * empty cells are tracked as tiles are set so that they can be counted and
+ * filled in constant time.
+ */
+class TileBoard implements Board
+{
+	private final int length;
+	private final Tile[][] cols;
+	private final Tile[][] rows;
+	private final Tile[] slidTiles;
+	private final EmptyCells emptyCells;
+
+	TileBoard(int length)
+	{
+		this.length = length;
+		this.cols = createTiles(length);
+		this.rows = createTiles(length);
+		this.slidTiles = new Tile[length];
+		this.emptyCells = new EmptyCells(length * length);
+	}
+
+	@Override
+	public int getLength()
+	{
+		return length;
+	}
+
+	@Override
+	public int getMaxExponent()
+	{
+		return Tile.MAX_EXPONENT;
+	}
+
+	@Override
+	public int getExponent(int c, int r)
+	{
+		Tile tile = rows[r][c];
+
+		return tile == null ? 0 : tile.getExponent();
+	}
+
+	@Override
+	public void setExponent(int c, int r, int exponent)
+	{
+		this.setTile(c, r, Tile.fromExponent(exponent));
+	}
+
+	@Override
+	public void clear()
+	{
+		for (int i = 0; i < length; i++)
+		{
+			Arrays.fill(rows[i], null);
+			Arrays.fill(cols[i], null);
+		}
+
+		emptyCells.fill();
+	}
+
+	@Override
+	public Board copy()
+	{
+		TileBoard copy = new TileBoard(length);
+
+		for (int r = 0; r < length; r++)
+		{
+			for (int c = 0; c < length; c++)
+			{
+				copy.setTile(c, r, rows[r][c]);
+			}
+		}
+
+		return copy;
+	}
+
+	@Override
+	public boolean canSlide(MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		boolean towardZero
+				= moveDirection.getDx() + moveDirection.getDy() < 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			if (this.canSlideTiles(slideColumns, i, towardZero))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public int slide(MoveDirection moveDirection)
+	{
+		boolean slideColumns = moveDirection.getDy() != 0;
+		boolean towardZero
+				= moveDirection.getDx() + moveDirection.getDy() < 0;
+		boolean moved = false;
+		int sum = 0;
+
+		for (int i = 0; i < length; i++)
+		{
+			int slideSum = this.slideTiles(slideColumns, i, towardZero);
+
+			if (slideSum != NOT_MOVED)
+			{
+				moved = true;
+				sum += slideSum;
+			}
+		}
+
+		return moved ? sum : NOT_MOVED;
+	}
+
+	@Override
+	public boolean containsExponent(int exponent)
+	{
+		for (int r = 0; r < length; r++)
+		{
+			for (int c = 0; c < length; c++)
+			{
+				if (this.getExponent(c, r) == exponent)
+				{
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public int countEmpty()
+	{
+		return emptyCells.size();
+	}
+
+	@Override
+	public void spawn(int emptyIndex, int exponent)
+	{
+		int cell = emptyCells.get(emptyIndex);
+
+		this.setExponent(cell % length, cell / length, exponent);
+	}
+
+	/**
+	 * Determines if the row or column can be slid in the specified direction.
+	 * That is, if sliding the row/column moves/changes the tiles at all.
+	 *
+	 * @param slideColumns Whether or not a column or row is being slid
+	 * (consolidated).
+	 * @param index The column or row index.
+	 * @param towardZero Whether or not to slide the row/column up/left (toward
+	 * zero) or down/right (toward the end of the array).
+	 * @return The if the row/column can be slid in the specified direction.
+	 */
+	private boolean canSlideTiles(
+			boolean slideColumns,
+			int index,
+			boolean towardZero)
+	{
+		Tile lastSlidTile = null;
+
+		Tile[] tilesToSlide = this.getTilesToSlide(slideColumns, index);
+		int slideIndex = this.getSlideIndex(towardZero);
+		int slideDirectionDelta = this.getSlideDirectionDelta(towardZero);
+		for (int i = slideIndex;
+				towardZero ? i < length : i >= 0;
+				i += slideDirectionDelta)
+		{
+			if (tilesToSlide[i] != null)
+			{
+				if (lastSlidTile == tilesToSlide[i]
+						|| i != slideIndex)
+				{
+					return true;
+				}
+				else
+				{
+					lastSlidTile = tilesToSlide[i];
+					slideIndex += slideDirectionDelta;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Slide the tiles at the specified index in the specified direction.
+	 *
+	 * @param slideColumns Whether or not a column or row is being slid
+	 * (consolidated).
+	 * @param index The row or column index.
+	 * @param towardZero Whether or not to slide the row/column up/left (toward
+	 * zero) or down/right (toward the end of the array).
+	 * @return The sum of the newly created, combined tiles, or NOT_MOVED if
+	 * no tiles moved.
+	 */
+	private int slideTiles(boolean slideColumns, int index, boolean towardZero)
+	{
+		int sum = 0;
+		Arrays.fill(slidTiles, null);
+		boolean canCombineWithPreviousSlide = false;
+
+		Tile[] tilesToSlide = this.getTilesToSlide(slideColumns, index);
+		int slideIndex = this.getSlideIndex(towardZero);
+		int slideDirectionDelta = this.getSlideDirectionDelta(towardZero);
+		for (int i = slideIndex;
+				towardZero ? i < length : i >= 0;
+				i += slideDirectionDelta)
+		{
+			if (tilesToSlide[i] != null)
+			{
+				if (canCombineWithPreviousSlide
+						&& slidTiles[slideIndex - slideDirectionDelta]
+						== tilesToSlide[i])
+				{
+					Tile nextTile = Tile.fromExponent(
+							tilesToSlide[i].getExponent() + 1);
+					slidTiles[slideIndex - slideDirectionDelta] = nextTile;
+					sum += nextTile.getValue();
+					canCombineWithPreviousSlide = false;
+				}
+				else
+				{
+					slidTiles[slideIndex] = tilesToSlide[i];
+					slideIndex += slideDirectionDelta;
+					canCombineWithPreviousSlide = true;
+				}
+			}
+		}
+
+		boolean moved = this.setTiles(slideColumns, index, slidTiles);
+
+		return moved ? sum : NOT_MOVED;
+	}
+
+	private Tile[] getTilesToSlide(boolean slideColumns, int index)
+	{
+		return slideColumns ? cols[index] : rows[index];
+	}
+
+	private int getSlideIndex(boolean towardZero)
+	{
+		return towardZero ? 0 : length - 1;
+	}
+
+	private int getSlideDirectionDelta(boolean towardZero)
+	{
+		return towardZero ? 1 : -1;
+	}
+
+	/**
+	 * @return Whether or not any of the tiles changed.
+	 */
+	private boolean setTiles(
+			boolean slideColumns,
+			int index,
+			Tile[] tempArray)
+	{
+		Tile[] tiles = this.getTilesToSlide(slideColumns, index);
+		boolean changed = false;
+
+		for (int i = 0; i < length; i++)
+		{
+			if (tiles[i] != tempArray[i])
+			{
+				changed = true;
+				this.setTile(
+						slideColumns ? index : i,
+						slideColumns ? i : index,
+						tempArray[i]);
+			}
+		}
+
+		return changed;
+	}
+
+	/**
+	 * Set the tile at the specified location. Updates the both the rows and
+	 * columns to keep the reflective data structure intact, and the empty
+	 * cells.
+	 *
+	 * @param c The column on the Grid (x-coordinate).
+	 * @param r The row on the Grid (y-coordinate).
+	 * @param tile The Tile to ad to the Grid.
+	 */
+	private void setTile(int c, int r, Tile tile)
+	{
+		if (tile == null)
+		{
+			emptyCells.add(r * length + c);
+		}
+		else
+		{
+			emptyCells.remove(r * length + c);
+		}
+
+		rows[r][c] = tile;
+		cols[c][r] = tile;
+	}
+
+	private static Tile[][] createTiles(int length)
+	{
+		Tile[][] tiles = new Tile[length][];
+
+		for (int i = 0; i < length; i++)
+		{
+			tiles[i] = new Tile[length];
+		}
+
+		return tiles;
+	}
+}
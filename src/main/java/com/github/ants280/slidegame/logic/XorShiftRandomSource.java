@@ -0,0 +1,61 @@
+package com.github.ants280.slidegame.logic;
+
+/**
+ * An xorshift64* generator.  It keeps one long of state with no locking or
+ * atomic updates.
+ */
+final class XorShiftRandomSource implements RandomSource
+{
+	static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+	private long state;
+
+	XorShiftRandomSource(long seed)
+	{
+		// The state must never be zero:
+		long mixedSeed = mix(seed);
+		this.state = mixedSeed == 0L ? GOLDEN_GAMMA : mixedSeed;
+	}
+
+	@Override
+	public int nextInt(int bound)
+	{
+		if (bound <= 0)
+		{
+			throw new IllegalArgumentException(
+					"Bound must be positive: " + bound);
+		}
+
+		// Scale the high 32 bits into the range (Lemire's method).  The bias
+		// is at most bound / 2^32.
+		return (int) (((this.nextLong() >>> 32) * bound) >>> 32);
+	}
+
+	@Override
+	public long nextLong()
+	{
+		state ^= state >>> 12;
+		state ^= state << 25;
+		state ^= state >>> 27;
+
+		return state * 0x2545F4914F6CDD1DL;
+	}
+
+	@Override
+	public RandomSource split()
+	{
+		return new XorShiftRandomSource(this.nextLong());
+	}
+
+	/**
+	 * The SplitMix64 finalizer: spreads every bit of the input over the
+	 * whole output.
+	 */
+	static long mix(long value)
+	{
+		long z = value;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+		return z ^ (z >>> 31);
+	}
+}
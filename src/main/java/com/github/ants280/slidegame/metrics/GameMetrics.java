@@ -0,0 +1,377 @@
+package com.github.ants280.slidegame.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The statistics of a running game: counts of moves and games, move rates,
+ * and latencies of how long each move takes to handle, from its input event
+ * to the repaint request, and how long each paint of the grid takes.  Tail
+ * latencies are what players notice as stutter, so reports show
+ * percentiles rather than averages.
+ *
+ * The game records on the event dispatch thread.  Statistics may be read on
+ * any thread, such as by JMX once registered.
+ */
+public final class GameMetrics implements GameMetricsMXBean
+{
+	public static final String OBJECT_NAME
+			= "com.github.ants280.slidegame:type=GameMetrics";
+	/**
+	 * Seconds between reports, if set.
+	 */
+	public static final String REPORT_SECONDS_PROPERTY
+			= "slidegame.metrics.reportSeconds";
+	private static final Logger LOGGER
+			= Logger.getLogger(GameMetrics.class.getName());
+	private final LatencyHistogram moveLatency;
+	private final LatencyHistogram paintLatency;
+	private final LatencyHistogram frameInterval;
+	private final RateCounter moveRate;
+	private final AtomicLong moveCount;
+	private final AtomicLong gamesPlayed;
+	private final AtomicLong winCount;
+	private final AtomicLong lossCount;
+	private final AtomicLong abandonedCount;
+	private volatile int score;
+	private volatile int highScore;
+	private volatile int gridLength;
+	private volatile int goalTileValue;
+	private volatile boolean sampling;
+	// Only used on the event dispatch thread:
+	private boolean gameInProgress;
+	private long gameMoveCount;
+	private ScheduledExecutorService reportExecutorService;
+
+	public GameMetrics()
+	{
+		this.moveLatency = new LatencyHistogram();
+		this.paintLatency = new LatencyHistogram();
+		this.frameInterval = new LatencyHistogram();
+		this.moveRate = new RateCounter();
+		this.moveCount = new AtomicLong();
+		this.gamesPlayed = new AtomicLong();
+		this.winCount = new AtomicLong();
+		this.lossCount = new AtomicLong();
+		this.abandonedCount = new AtomicLong();
+		this.sampling = true;
+		this.gameInProgress = false;
+		this.gameMoveCount = 0L;
+		this.reportExecutorService = null;
+	}
+
+	/**
+	 * Register with the platform MBean server, under OBJECT_NAME.
+	 *
+	 * @throws JMException If another instance is registered.
+	 */
+	public void register() throws JMException
+	{
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		mBeanServer.registerMBean(this, new ObjectName(OBJECT_NAME));
+	}
+
+	public void unregister() throws JMException
+	{
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		mBeanServer.unregisterMBean(new ObjectName(OBJECT_NAME));
+	}
+
+	/**
+	 * A game that is replaced before it ends is counted as abandoned, if a
+	 * move was made in it.  One replaced without a move is not counted, as
+	 * for a change of settings right after starting.
+	 */
+	public void gameStarted(int gridLength, int goalTileValue)
+	{
+		if (gameInProgress && gameMoveCount != 0L)
+		{
+			abandonedCount.incrementAndGet();
+			gamesPlayed.incrementAndGet();
+		}
+
+		gameInProgress = true;
+		gameMoveCount = 0L;
+		this.gridLength = gridLength;
+		this.goalTileValue = goalTileValue;
+	}
+
+	public void gameEnded(boolean won)
+	{
+		(won ? winCount : lossCount).incrementAndGet();
+		gamesPlayed.incrementAndGet();
+		gameInProgress = false;
+	}
+
+	public void scoreChanged(int score, int highScore)
+	{
+		this.score = score;
+		this.highScore = highScore;
+	}
+
+	/**
+	 * @param startNanos A value of System.nanoTime() when the move's input
+	 * was received.
+	 * @param validMove Whether or not the move moved tiles.
+	 */
+	public void moveHandled(long startNanos, boolean validMove)
+	{
+		if (validMove)
+		{
+			moveCount.incrementAndGet();
+			gameMoveCount++;
+		}
+
+		if (sampling)
+		{
+			long endNanos = System.nanoTime();
+			moveLatency.record(endNanos - startNanos);
+
+			if (validMove)
+			{
+				moveRate.record(endNanos);
+			}
+		}
+	}
+
+	/**
+	 * @param startNanos A value of System.nanoTime() when painting started.
+	 */
+	public void gridPainted(long startNanos)
+	{
+		if (sampling)
+		{
+			paintLatency.recordSince(startNanos);
+		}
+	}
+
+	/**
+	 * @param intervalNanos The time since the last frame of the animation.
+	 */
+	public void animationFrameShown(long intervalNanos)
+	{
+		if (sampling)
+		{
+			frameInterval.record(intervalNanos);
+		}
+	}
+
+	@Override
+	public long getMoveCount()
+	{
+		return moveCount.get();
+	}
+
+	@Override
+	public long getGamesPlayed()
+	{
+		return gamesPlayed.get();
+	}
+
+	@Override
+	public long getWinCount()
+	{
+		return winCount.get();
+	}
+
+	@Override
+	public long getLossCount()
+	{
+		return lossCount.get();
+	}
+
+	@Override
+	public long getAbandonedCount()
+	{
+		return abandonedCount.get();
+	}
+
+	@Override
+	public int getScore()
+	{
+		return score;
+	}
+
+	@Override
+	public int getHighScore()
+	{
+		return highScore;
+	}
+
+	@Override
+	public int getGridLength()
+	{
+		return gridLength;
+	}
+
+	@Override
+	public int getGoalTileValue()
+	{
+		return goalTileValue;
+	}
+
+	@Override
+	public double getMovesPerSecond()
+	{
+		return moveRate.getRate(System.nanoTime());
+	}
+
+	@Override
+	public long getPeakMovesPerSecond()
+	{
+		return moveRate.getPeakRate();
+	}
+
+	@Override
+	public LatencySnapshot getMoveLatency()
+	{
+		return moveLatency.getSnapshot();
+	}
+
+	@Override
+	public LatencySnapshot getPaintLatency()
+	{
+		return paintLatency.getSnapshot();
+	}
+
+	@Override
+	public LatencySnapshot getFrameInterval()
+	{
+		return frameInterval.getSnapshot();
+	}
+
+	@Override
+	public boolean isSampling()
+	{
+		return sampling;
+	}
+
+	@Override
+	public void startSampling()
+	{
+		sampling = true;
+	}
+
+	@Override
+	public void stopSampling()
+	{
+		sampling = false;
+	}
+
+	@Override
+	public void resetCounters()
+	{
+		moveCount.set(0L);
+		gamesPlayed.set(0L);
+		winCount.set(0L);
+		lossCount.set(0L);
+		abandonedCount.set(0L);
+		moveRate.reset();
+		moveLatency.reset();
+		paintLatency.reset();
+		frameInterval.reset();
+	}
+
+	/**
+	 * Start logging reports if the report property is set to a positive
+	 * number of seconds.
+	 */
+	public void startReportingFromProperty()
+	{
+		long reportSeconds = Long.getLong(REPORT_SECONDS_PROPERTY, 0L);
+
+		if (reportSeconds > 0L)
+		{
+			this.startReporting(reportSeconds, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Log the latencies since the last report at INFO level, periodically, on
+	 * a daemon thread.  Periods without moves or paints are not logged.
+	 */
+	public synchronized void startReporting(long period, TimeUnit unit)
+	{
+		this.stopReporting();
+
+		reportExecutorService = Executors.newSingleThreadScheduledExecutor(
+				runnable ->
+				{
+					Thread thread = new Thread(
+							runnable, "slide-game-metrics");
+					thread.setDaemon(true);
+					return thread;
+				});
+		reportExecutorService.scheduleAtFixedRate(
+				new IntervalReporter(),
+				period,
+				period,
+				unit);
+	}
+
+	public synchronized void stopReporting()
+	{
+		if (reportExecutorService != null)
+		{
+			reportExecutorService.shutdownNow();
+			reportExecutorService = null;
+		}
+	}
+
+	/**
+	 * @return The latencies since the start, or the last reset.
+	 */
+	@Override
+	public String toString()
+	{
+		return "move latency: " + moveLatency.getSnapshot()
+				+ "\npaint latency: " + paintLatency.getSnapshot();
+	}
+
+	private class IntervalReporter implements Runnable
+	{
+		private LatencySnapshot lastMoveSnapshot;
+		private LatencySnapshot lastPaintSnapshot;
+
+		IntervalReporter()
+		{
+			this.lastMoveSnapshot = moveLatency.getSnapshot();
+			this.lastPaintSnapshot = paintLatency.getSnapshot();
+		}
+
+		@Override
+		public void run()
+		{
+			LatencySnapshot moveSnapshot = moveLatency.getSnapshot();
+			LatencySnapshot paintSnapshot = paintLatency.getSnapshot();
+			// A reset since the last report shows as a drop in the count:
+			LatencySnapshot moveInterval
+					= moveSnapshot.getCount() < lastMoveSnapshot.getCount()
+					? moveSnapshot
+					: moveSnapshot.since(lastMoveSnapshot);
+			LatencySnapshot paintInterval
+					= paintSnapshot.getCount() < lastPaintSnapshot.getCount()
+					? paintSnapshot
+					: paintSnapshot.since(lastPaintSnapshot);
+			lastMoveSnapshot = moveSnapshot;
+			lastPaintSnapshot = paintSnapshot;
+
+			if (moveInterval.getCount() != 0L
+					|| paintInterval.getCount() != 0L)
+			{
+				LOGGER.log(
+						Level.INFO,
+						"move latency: {0}\npaint latency: {1}",
+						new Object[]{moveInterval, paintInterval});
+			}
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.github.ants280.slidegame.metrics;
+
+/**
+ * The statistics of a running game, for JConsole or VisualVM.  Latencies are
+ * in nanoseconds.
+ */
+public interface GameMetricsMXBean
+{
+	/**
+	 * @return The number of moves that moved tiles.
+	 */
+	long getMoveCount();
+
+	/**
+	 * @return The number of games that ended or were abandoned: the sum of
+	 * the win, loss and abandoned counts.  The game in progress is not
+	 * counted.
+	 */
+	long getGamesPlayed();
+
+	long getWinCount();
+
+	long getLossCount();
+
+	/**
+	 * @return The number of games replaced by a new game, or by a change of
+	 * settings, after a move but before they ended.
+	 */
+	long getAbandonedCount();
+
+	int getScore();
+
+	int getHighScore();
+
+	int getGridLength();
+
+	int getGoalTileValue();
+
+	/**
+	 * @return The moves per second over the last 10 seconds.
+	 */
+	double getMovesPerSecond();
+
+	/**
+	 * @return The most moves made in one second.
+	 */
+	long getPeakMovesPerSecond();
+
+	/**
+	 * @return The time to handle each move, from its input to the repaint
+	 * request.
+	 */
+	LatencySnapshot getMoveLatency();
+
+	/**
+	 * @return The time to paint the grid.
+	 */
+	LatencySnapshot getPaintLatency();
+
+	/**
+	 * @return The time between frames of move animations.  Times above
+	 * 16.7 ms are frames skipped to keep up.
+	 */
+	LatencySnapshot getFrameInterval();
+
+	/**
+	 * @return Whether or not latencies and move rates are being recorded.
+	 */
+	boolean isSampling();
+
+	void startSampling();
+
+	void stopSampling();
+
+	/**
+	 * Clear the counts of moves and games, the move rates and the latencies.
+	 * The scores and settings of the game are kept.
+	 */
+	void resetCounters();
+}
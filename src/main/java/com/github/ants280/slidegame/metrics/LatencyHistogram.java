@@ -0,0 +1,123 @@
+package com.github.ants280.slidegame.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in buckets whose width grows with their value, so that
+ * latencies from a nanosecond to hours are each counted to within 1% with a
+ * fixed 58 KiB of counts.  Values below 256 have a bucket each.  Above that,
+ * each power of two is split into 128 buckets.
+ *
+ * Recording does not allocate or lock, so it can be done on the event
+ * dispatch thread around every move and paint.  Snapshots may be taken on
+ * other threads while recording continues.
+ */
+public final class LatencyHistogram
+{
+	private static final int SUB_BUCKET_BITS = 7;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int LINEAR_COUNT = SUB_BUCKET_COUNT << 1;
+	private static final int LINEAR_BITS = SUB_BUCKET_BITS + 1;
+	static final int BUCKET_COUNT = LINEAR_COUNT
+			+ (Long.SIZE - 1 - LINEAR_BITS) * SUB_BUCKET_COUNT;
+	private final AtomicLongArray counts;
+	private final AtomicLong sum;
+	private final AtomicLong max;
+
+	public LatencyHistogram()
+	{
+		this.counts = new AtomicLongArray(BUCKET_COUNT);
+		this.sum = new AtomicLong();
+		this.max = new AtomicLong();
+	}
+
+	/**
+	 * @param nanos The latency.  Negative values are counted as 0.
+	 */
+	public void record(long nanos)
+	{
+		long value = Math.max(0L, nanos);
+		counts.incrementAndGet(getIndex(value));
+		sum.addAndGet(value);
+
+		long currentMax = max.get();
+		while (value > currentMax
+				&& !max.compareAndSet(currentMax, value))
+		{
+			currentMax = max.get();
+		}
+	}
+
+	/**
+	 * Record the time since the start.
+	 *
+	 * @param startNanos A value of System.nanoTime().
+	 */
+	public void recordSince(long startNanos)
+	{
+		this.record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * @return The counts so far.  Values recorded while the snapshot is
+	 * taken may be left out.
+	 */
+	public LatencySnapshot getSnapshot()
+	{
+		long[] snapshotCounts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			snapshotCounts[i] = counts.get(i);
+		}
+
+		return new LatencySnapshot(snapshotCounts, sum.get(), max.get());
+	}
+
+	/**
+	 * Forget all values.  Values recorded during the reset may be kept.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			counts.set(i, 0L);
+		}
+		sum.set(0L);
+		max.set(0L);
+	}
+
+	static int getIndex(long value)
+	{
+		if (value < LINEAR_COUNT)
+		{
+			return (int) value;
+		}
+
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+
+		return LINEAR_COUNT
+				+ (exponent - LINEAR_BITS) * SUB_BUCKET_COUNT
+				+ subBucket;
+	}
+
+	/**
+	 * @return The largest value counted in the bucket.
+	 */
+	static long getHighestValue(int index)
+	{
+		if (index < LINEAR_COUNT)
+		{
+			return index;
+		}
+
+		int exponent = LINEAR_BITS + (index - LINEAR_COUNT) / SUB_BUCKET_COUNT;
+		int shift = exponent - SUB_BUCKET_BITS;
+		long subBucket = SUB_BUCKET_COUNT
+				+ (index - LINEAR_COUNT) % SUB_BUCKET_COUNT;
+
+		return (subBucket << shift) + (1L << shift) - 1L;
+	}
+}
@@ -0,0 +1,138 @@
+package com.github.ants280.slidegame.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The counts of a LatencyHistogram at one time.  Percentiles are the
+ * largest value of the bucket they fall in, so they are never understated,
+ * and are never more than the max.
+ */
+public final class LatencySnapshot
+{
+	private final long[] counts;
+	private final long count;
+	private final long sum;
+	private final long max;
+
+	LatencySnapshot(long[] counts, long sum, long max)
+	{
+		long totalCount = 0L;
+		for (long bucketCount : counts)
+		{
+			totalCount += bucketCount;
+		}
+
+		this.counts = counts;
+		this.count = totalCount;
+		this.sum = sum;
+		this.max = max;
+	}
+
+	public long getCount()
+	{
+		return count;
+	}
+
+	public long getMeanNanos()
+	{
+		return count == 0L ? 0L : sum / count;
+	}
+
+	public long getMaxNanos()
+	{
+		return max;
+	}
+
+	public long getP50Nanos()
+	{
+		return this.getValueAtPercentile(50d);
+	}
+
+	public long getP99Nanos()
+	{
+		return this.getValueAtPercentile(99d);
+	}
+
+	public long getP999Nanos()
+	{
+		return this.getValueAtPercentile(99.9d);
+	}
+
+	/**
+	 * @param percentile From 0 to 100, such as 99.9.
+	 * @return The latency that the percentile of values are at or below, or
+	 * 0 if there are none.
+	 */
+	public long getValueAtPercentile(double percentile)
+	{
+		if (percentile < 0d || percentile > 100d)
+		{
+			throw new IllegalArgumentException(
+					"Percentile must be from 0 to 100.  Found: " + percentile);
+		}
+
+		long rank = Math.max(1L, (long) Math.ceil(percentile / 100d * count));
+		long countBelow = 0L;
+
+		for (int i = 0; i < counts.length; i++)
+		{
+			countBelow += counts[i];
+
+			if (countBelow >= rank)
+			{
+				return Math.min(LatencyHistogram.getHighestValue(i), max);
+			}
+		}
+
+		return 0L;
+	}
+
+	/**
+	 * @param earlier A snapshot of the same histogram, taken before this one
+	 * and since it was last reset.
+	 * @return The values recorded between the two snapshots.  Its max is the
+	 * largest value of its highest bucket.
+	 */
+	public LatencySnapshot since(LatencySnapshot earlier)
+	{
+		long[] intervalCounts = new long[counts.length];
+		long intervalMax = 0L;
+
+		for (int i = 0; i < counts.length; i++)
+		{
+			intervalCounts[i] = Math.max(0L, counts[i] - earlier.counts[i]);
+
+			if (intervalCounts[i] != 0L)
+			{
+				intervalMax = LatencyHistogram.getHighestValue(i);
+			}
+		}
+
+		return new LatencySnapshot(
+				intervalCounts,
+				Math.max(0L, sum - earlier.sum),
+				Math.min(intervalMax, max));
+	}
+
+	/**
+	 * @return The count, mean, p50, p99, p99.9 and max, in milliseconds.
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format(
+				"count=%d mean=%.3fms p50=%.3fms p99=%.3fms p99.9=%.3fms "
+				+ "max=%.3fms",
+				count,
+				toMillis(this.getMeanNanos()),
+				toMillis(this.getP50Nanos()),
+				toMillis(this.getP99Nanos()),
+				toMillis(this.getP999Nanos()),
+				toMillis(max));
+	}
+
+	private static double toMillis(long nanos)
+	{
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1L);
+	}
+}
@@ -0,0 +1,92 @@
+package com.github.ants280.slidegame.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events in one-second slots, to give the rate over the last few
+ * seconds and the most events in any one second.  Events should be recorded
+ * on one thread.  Rates may be read on any thread.
+ */
+public final class RateCounter
+{
+	public static final int WINDOW_SECONDS = 10;
+	private static final int SLOT_COUNT = WINDOW_SECONDS + 2;
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+	private final AtomicLongArray slotSeconds;
+	private final AtomicLongArray slotCounts;
+	private final AtomicLong peakCount;
+
+	public RateCounter()
+	{
+		this.slotSeconds = new AtomicLongArray(SLOT_COUNT);
+		this.slotCounts = new AtomicLongArray(SLOT_COUNT);
+		this.peakCount = new AtomicLong();
+		this.reset();
+	}
+
+	/**
+	 * @param nanos A value of System.nanoTime() when the event happened.
+	 */
+	public void record(long nanos)
+	{
+		long second = Math.floorDiv(nanos, NANOS_PER_SECOND);
+		int slot = (int) Math.floorMod(second, (long) SLOT_COUNT);
+
+		if (slotSeconds.get(slot) != second)
+		{
+			slotCounts.set(slot, 0L);
+			slotSeconds.set(slot, second);
+		}
+
+		long count = slotCounts.incrementAndGet(slot);
+		long currentPeakCount = peakCount.get();
+		while (count > currentPeakCount
+				&& !peakCount.compareAndSet(currentPeakCount, count))
+		{
+			currentPeakCount = peakCount.get();
+		}
+	}
+
+	/**
+	 * @param nanos A value of System.nanoTime() for now.
+	 * @return The events per second in the last WINDOW_SECONDS full seconds.
+	 */
+	public double getRate(long nanos)
+	{
+		long second = Math.floorDiv(nanos, NANOS_PER_SECOND);
+		long count = 0L;
+
+		for (int slot = 0; slot < SLOT_COUNT; slot++)
+		{
+			long slotSecond = slotSeconds.get(slot);
+
+			if (slotSecond < second && slotSecond >= second - WINDOW_SECONDS)
+			{
+				count += slotCounts.get(slot);
+			}
+		}
+
+		return count / (double) WINDOW_SECONDS;
+	}
+
+	/**
+	 * @return The most events in one second since the start, or the last
+	 * reset.
+	 */
+	public long getPeakRate()
+	{
+		return peakCount.get();
+	}
+
+	public void reset()
+	{
+		for (int slot = 0; slot < SLOT_COUNT; slot++)
+		{
+			slotSeconds.set(slot, Long.MIN_VALUE);
+			slotCounts.set(slot, 0L);
+		}
+		peakCount.set(0L);
+	}
+}
@@ -0,0 +1,70 @@
+package com.github.ants280.slidegame.ui;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+
+/**
+ * The moves input since they were last applied, in order, with when each
+ * was input.  Bounded, so input cannot pile up without limit if moves stop
+ * being applied.  Must be used on the event dispatch thread.
+ */
+public class MoveQueue
+{
+	private final MoveDirection[] moveDirections;
+	private final long[] inputNanos;
+	private int size;
+
+	public MoveQueue(int capacity)
+	{
+		this.moveDirections = new MoveDirection[capacity];
+		this.inputNanos = new long[capacity];
+		this.size = 0;
+	}
+
+	/**
+	 * @param moveDirection The move.
+	 * @param nanos A value of System.nanoTime() when the move was input.
+	 * @return False if the queue is full and the move was dropped.
+	 */
+	public boolean offer(MoveDirection moveDirection, long nanos)
+	{
+		if (size == moveDirections.length)
+		{
+			return false;
+		}
+
+		moveDirections[size] = moveDirection;
+		inputNanos[size] = nanos;
+		size++;
+
+		return true;
+	}
+
+	public int size()
+	{
+		return size;
+	}
+
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * @param index From 0, the oldest move (inclusive), to size()
+	 * (exclusive).
+	 */
+	public MoveDirection getMoveDirection(int index)
+	{
+		return moveDirections[index];
+	}
+
+	public long getInputNanos(int index)
+	{
+		return inputNanos[index];
+	}
+
+	public void clear()
+	{
+		size = 0;
+	}
+}
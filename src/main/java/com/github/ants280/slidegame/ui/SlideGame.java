@@ -1,7 +1,9 @@
 package com.github.ants280.slidegame.ui;
 
+import com.github.ants280.slidegame.metrics.GameMetrics;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.management.JMException;
 import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
@@ -29,7 +31,8 @@ public class SlideGame implements Runnable
 	{
 		setLookAndFeel();
 
-		JFrame frame = new SlideGameFrame().getWindow();
+		SlideGameFrame slideGameFrame = new SlideGameFrame();
+		JFrame frame = slideGameFrame.getWindow();
 
 		Thread.setDefaultUncaughtExceptionHandler(
 				new SlideGameUncaughtExceptionHandler(frame));
@@ -37,6 +40,26 @@ public class SlideGame implements Runnable
 		// Center the Window on the screen.
 		frame.setLocationRelativeTo(null);
 		frame.setVisible(true);
+
+		registerGameMetrics(slideGameFrame.getGameMetrics());
+	}
+
+	private static void registerGameMetrics(GameMetrics gameMetrics)
+	{
+		try
+		{
+			gameMetrics.register();
+		}
+		catch (JMException ex)
+		{
+			Logger.getLogger(SlideGame.class.getName())
+					.log(
+							Level.WARNING,
+							"Could not register game metrics with JMX",
+							ex);
+		}
+
+		gameMetrics.startReportingFromProperty();
 	}
 
 	private static void setLookAndFeel()
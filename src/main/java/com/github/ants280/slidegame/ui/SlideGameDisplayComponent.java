@@ -1,35 +1,61 @@
 package com.github.ants280.slidegame.ui;
 
+import com.github.ants280.slidegame.logic.Board;
 import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveTrace;
 import com.github.ants280.slidegame.logic.Tile;
+import com.github.ants280.slidegame.metrics.GameMetrics;
+import java.awt.AlphaComposite;
 import java.awt.Color;
+import java.awt.Composite;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.util.BitSet;
 import javax.swing.JComponent;
+import javax.swing.Timer;
 
 public class SlideGameDisplayComponent
 {
 	private final Grid grid;
 	private final JComponent component;
+	private final GameMetrics gameMetrics;
+	private final TileSpriteCache tileSpriteCache;
+	private final Timer spriteRebuildTimer;
+	private final TileAnimator tileAnimator;
 	private static final RenderingHints ANTIALIAS_ON_RENDERING_HINT
 			= new RenderingHints(
 					RenderingHints.KEY_ANTIALIASING,
 					RenderingHints.VALUE_ANTIALIAS_ON);
 	private static final double SPACER_PERCENTAGE = 0.10d;
+	// Tiles are drawn directly while the component is being resized:
+	private static final int SPRITE_REBUILD_DELAY_MILLIS = 150;
+	// How much larger combined tiles grow at the height of their pop:
+	private static final double POP_GROWTH = 0.2d;
 	private int xOffset;
 	private int yOffset;
 	private int cellSize;
 	private int tileSize;
 	private int spacerSize;
+	// The grid as of the last repaint request:
+	private Board paintedBoard;
 
-	public SlideGameDisplayComponent(Grid grid)
+	public SlideGameDisplayComponent(Grid grid, GameMetrics gameMetrics)
 	{
 		super();
 
 		this.grid = grid;
+		this.gameMetrics = gameMetrics;
 		this.component = new SlideGameDisplayComponentImpl();
+		this.tileSpriteCache = new TileSpriteCache();
+		this.spriteRebuildTimer = new Timer(
+				SPRITE_REBUILD_DELAY_MILLIS,
+				actionEvent -> this.rebuildSprites());
+		spriteRebuildTimer.setRepeats(false);
+		this.tileAnimator = new TileAnimator(component::repaint, gameMetrics);
+		this.paintedBoard = null;
 
 		this.init();
 	}
@@ -47,6 +73,68 @@ public class SlideGameDisplayComponent
 						componentEvent -> this.componentResized()));
 	}
 
+	/**
+	 * Animate a move that has been made on the grid.  Moves are shown at once
+	 * while the component is being resized.
+	 */
+	public void showMove(MoveTrace moveTrace)
+	{
+		if (this.isSpriteCacheReady())
+		{
+			paintedBoard = grid.copyBoard();
+			tileAnimator.start(moveTrace);
+		}
+		else
+		{
+			this.repaintChangedCells();
+		}
+	}
+
+	/**
+	 * Repaint the cells that changed since the last repaint was requested.
+	 * Swing joins the cells into one rectangle, so a move that changes one
+	 * row repaints only that row and the cell of the added tile.  A running
+	 * animation is stopped, and everything is repainted.
+	 */
+	public void repaintChangedCells()
+	{
+		// An animation may have drawn tiles between cells:
+		if (paintedBoard == null || tileAnimator.isAnimating())
+		{
+			this.repaintAll();
+			return;
+		}
+
+		BitSet changedCells = grid.getChangedCells(paintedBoard);
+		paintedBoard = grid.copyBoard();
+		int length = grid.getLength();
+
+		for (int i = changedCells.nextSetBit(0);
+				i >= 0;
+				i = changedCells.nextSetBit(i + 1))
+		{
+			component.repaint(
+					xOffset + (i % length) * cellSize + spacerSize,
+					yOffset + (i / length) * cellSize + spacerSize,
+					tileSize,
+					tileSize);
+		}
+	}
+
+	public void repaintAll()
+	{
+		tileAnimator.stop();
+		paintedBoard = grid.copyBoard();
+		component.repaint();
+	}
+
+	private boolean isSpriteCacheReady()
+	{
+		return tileSize > 0
+				&& !spriteRebuildTimer.isRunning()
+				&& tileSpriteCache.getTileSize() == tileSize;
+	}
+
 	private void componentResized()
 	{
 		int width = component.getWidth();
@@ -66,9 +154,20 @@ public class SlideGameDisplayComponent
 			component.setFont(component.getFont()
 					.deriveFont((float) (cellSize / 3d)));
 			component.repaint();
+			spriteRebuildTimer.restart();
 		}
 	}
 
+	/**
+	 * Drop the sprites of the old size once resizing has stopped.  New ones
+	 * are drawn by the repaint.
+	 */
+	private void rebuildSprites()
+	{
+		tileSpriteCache.setTileSize(tileSize, component.getFont());
+		component.repaint();
+	}
+
 	private class SlideGameDisplayComponentImpl extends JComponent
 	{
 		private static final long serialVersionUID = 1L;
@@ -77,11 +176,25 @@ public class SlideGameDisplayComponent
 		@Override
 		public void paintComponent(Graphics g)
 		{
+			long startNanos = System.nanoTime();
 			((Graphics2D) g).setRenderingHints(ANTIALIAS_ON_RENDERING_HINT);
 
 			g.translate(xOffset, yOffset);
 			this.paintGrid(g);
-			this.paintTiles(g);
+
+			if (tileAnimator.isAnimating() && isSpriteCacheReady())
+			{
+				this.paintAnimation(
+						(Graphics2D) g,
+						tileAnimator.getMoveTrace(),
+						tileAnimator.getElapsedNanos());
+			}
+			else
+			{
+				this.paintTiles(g);
+			}
+
+			gameMetrics.gridPainted(startNanos);
 		}
 
 		private void paintGrid(Graphics g)
@@ -101,21 +214,141 @@ public class SlideGameDisplayComponent
 			}
 		}
 
+		/**
+		 * Paint the tiles that overlap the clip, which is only the changed
+		 * cells after a move.
+		 */
 		private void paintTiles(Graphics g)
 		{
-			for (int c = 0; c < grid.getLength(); c++)
+			int length = grid.getLength();
+			Rectangle clip = g.getClipBounds();
+			int minC = 0;
+			int maxC = length - 1;
+			int minR = 0;
+			int maxR = length - 1;
+
+			if (clip != null && cellSize > 0)
 			{
-				for (int r = 0; r < grid.getLength(); r++)
+				minC = Math.max(minC, (clip.x - spacerSize) / cellSize);
+				maxC = Math.min(maxC, (clip.x + clip.width - 1) / cellSize);
+				minR = Math.max(minR, (clip.y - spacerSize) / cellSize);
+				maxR = Math.min(maxR, (clip.y + clip.height - 1) / cellSize);
+			}
+
+			for (int c = minC; c <= maxC; c++)
+			{
+				for (int r = minR; r <= maxR; r++)
 				{
 					this.paintTile(g, c, r);
 				}
 			}
 		}
 
+		/**
+		 * Paint a frame of the move: tiles sliding from their old cells, then
+		 * the grid after the move with combined tiles popping and the added
+		 * tile fading in.
+		 */
+		private void paintAnimation(
+				Graphics2D g,
+				MoveTrace moveTrace,
+				long elapsedNanos)
+		{
+			int length = grid.getLength();
+
+			if (elapsedNanos < TileAnimator.SLIDE_NANOS)
+			{
+				for (int cell = 0; cell < length * length; cell++)
+				{
+					tileSpriteCache.paintTile(
+							g, null, this.getCellX(cell), this.getCellY(cell));
+				}
+
+				double progress = easeOut(
+						elapsedNanos / (double) TileAnimator.SLIDE_NANOS);
+				for (int tile = 0; tile < moveTrace.getTileCount(); tile++)
+				{
+					int fromCell = moveTrace.getFromCell(tile);
+					int toCell = moveTrace.getToCell(tile);
+					int x = interpolate(
+							this.getCellX(fromCell),
+							this.getCellX(toCell),
+							progress);
+					int y = interpolate(
+							this.getCellY(fromCell),
+							this.getCellY(toCell),
+							progress);
+					tileSpriteCache.paintTile(
+							g, moveTrace.getTile(tile), x, y);
+				}
+				return;
+			}
+
+			double progress = Math.min(
+					1d,
+					(elapsedNanos - TileAnimator.SLIDE_NANOS)
+					/ (double) TileAnimator.POP_NANOS);
+			for (int cell = 0; cell < length * length; cell++)
+			{
+				Tile tile = grid.getTile(cell % length, cell / length);
+
+				if (moveTrace.isMerged(cell))
+				{
+					int popSize = round(tileSize
+							* (1d + POP_GROWTH * Math.sin(Math.PI * progress)));
+					int popOffset = (tileSize - popSize) / 2;
+					tileSpriteCache.paintTile(
+							g, null, this.getCellX(cell), this.getCellY(cell));
+					tileSpriteCache.paintTile(
+							g,
+							tile,
+							this.getCellX(cell) + popOffset,
+							this.getCellY(cell) + popOffset,
+							popSize);
+				}
+				else if (cell == moveTrace.getSpawnCell())
+				{
+					Composite composite = g.getComposite();
+					tileSpriteCache.paintTile(
+							g, null, this.getCellX(cell), this.getCellY(cell));
+					g.setComposite(AlphaComposite.SrcOver
+							.derive((float) progress));
+					tileSpriteCache.paintTile(
+							g, tile, this.getCellX(cell), this.getCellY(cell));
+					g.setComposite(composite);
+				}
+				else
+				{
+					tileSpriteCache.paintTile(
+							g, tile, this.getCellX(cell), this.getCellY(cell));
+				}
+			}
+		}
+
+		private int getCellX(int cell)
+		{
+			return (cell % grid.getLength()) * cellSize + spacerSize;
+		}
+
+		private int getCellY(int cell)
+		{
+			return (cell / grid.getLength()) * cellSize + spacerSize;
+		}
+
 		private void paintTile(Graphics g, int c, int r)
 		{
 			Tile tile = grid.getTile(c, r);
 
+			if (isSpriteCacheReady())
+			{
+				tileSpriteCache.paintTile(
+						(Graphics2D) g,
+						tile,
+						c * cellSize + spacerSize,
+						r * cellSize + spacerSize);
+				return;
+			}
+
 			this.paintTileBackground(g, c, r, tile);
 
 			if (tile != null)
@@ -157,4 +390,17 @@ public class SlideGameDisplayComponent
 	{
 		return (int) (value + 0.5d);
 	}
+
+	private static int interpolate(int from, int to, double progress)
+	{
+		return round(from + (to - from) * progress);
+	}
+
+	/**
+	 * @return The progress slowed to a stop, as tiles hit the edge.
+	 */
+	private static double easeOut(double progress)
+	{
+		return 1d - (1d - progress) * (1d - progress);
+	}
 }
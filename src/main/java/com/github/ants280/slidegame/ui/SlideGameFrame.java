@@ -1,14 +1,18 @@
 package com.github.ants280.slidegame.ui;
 
 import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.metrics.GameMetrics;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.function.IntConsumer;
 import java.util.stream.IntStream;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
@@ -24,6 +28,7 @@ public class SlideGameFrame
 {
 	private final JFrame frame;
 	private final SlideGameManager slideGameManager;
+	private final GameMetrics gameMetrics;
 	private static final Border EMPTY_BORDER = BorderFactory.createEmptyBorder(
 			2, 10, 2, 10); // top, left, bottom, right
 	private static final Border LINE_BORDER
@@ -37,15 +42,17 @@ public class SlideGameFrame
 	public SlideGameFrame()
 	{
 		this.frame = new JFrame("Slide Game");
+		this.gameMetrics = new GameMetrics();
 
 		Grid grid = new Grid();
-		JComponent slideGameDisplayComponent
-				= new SlideGameDisplayComponent(grid).getComponent();
+		SlideGameDisplayComponent slideGameDisplayComponent
+				= new SlideGameDisplayComponent(grid, gameMetrics);
 		JLabel gameOverLabel = this.createJLabel(false);
 		JLabel scoreLabel = this.createJLabel(true);
 		JLabel highScoreLabel = this.createJLabel(true);
 		JLabel goalLabel = this.createJLabel(false);
 		JLabel moveLabel = this.createJLabel(false);
+		JLabel searchLabel = this.createJLabel(false);
 
 		this.slideGameManager = new SlideGameManager(
 				grid,
@@ -56,15 +63,18 @@ public class SlideGameFrame
 						highScoreLabel,
 						moveLabel,
 						goalLabel,
-						gameOverLabel));
+						gameOverLabel,
+						searchLabel),
+				gameMetrics);
 
 		this.initSize(
-				slideGameDisplayComponent,
+				slideGameDisplayComponent.getComponent(),
 				gameOverLabel,
 				scoreLabel,
 				highScoreLabel,
 				goalLabel,
-				moveLabel);
+				moveLabel,
+				searchLabel);
 	}
 
 	private void initSize(
@@ -73,7 +83,8 @@ public class SlideGameFrame
 			JLabel scoreLabel,
 			JLabel highScoreLabel,
 			JLabel goalLabel,
-			JLabel moveLabel)
+			JLabel moveLabel,
+			JLabel searchLabel)
 	{
 		JPanel topPanel = new JPanel();
 		topPanel.setLayout(new BoxLayout(topPanel, BoxLayout.X_AXIS));
@@ -85,6 +96,8 @@ public class SlideGameFrame
 		bottomPanel.setLayout(new BoxLayout(bottomPanel, BoxLayout.X_AXIS));
 		bottomPanel.add(goalLabel);
 		bottomPanel.add(Box.createGlue());
+		bottomPanel.add(searchLabel);
+		bottomPanel.add(Box.createGlue());
 		bottomPanel.add(moveLabel);
 		slideGameDisplayComponent.setBorder(EMPTY_BORDER);
 
@@ -95,6 +108,14 @@ public class SlideGameFrame
 
 		frame.setMinimumSize(new Dimension(400, 447));
 		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		frame.addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosing(WindowEvent windowEvent)
+			{
+				slideGameManager.close();
+			}
+		});
 		frame.pack();
 	}
 
@@ -103,6 +124,11 @@ public class SlideGameFrame
 		return frame;
 	}
 
+	public GameMetrics getGameMetrics()
+	{
+		return gameMetrics;
+	}
+
 	private JLabel createJLabel(boolean addBorder)
 	{
 		JLabel label = new JLabel();
@@ -127,11 +153,33 @@ public class SlideGameFrame
 		newGameMenuItem.addActionListener(
 				actionEvent -> slideGameManager.newGame());
 
+		JMenuItem hintMenuItem = new JMenuItem("Hint", KeyEvent.VK_I);
+		hintMenuItem.setAccelerator(KeyStroke.getKeyStroke(
+				KeyEvent.VK_I, KeyEvent.CTRL_DOWN_MASK));
+		hintMenuItem.addActionListener(
+				actionEvent -> slideGameManager.showHint());
+
+		JCheckBoxMenuItem autoPlayMenuItem
+				= new JCheckBoxMenuItem("Auto-play");
+		autoPlayMenuItem.setMnemonic(KeyEvent.VK_P);
+		autoPlayMenuItem.setAccelerator(KeyStroke.getKeyStroke(
+				KeyEvent.VK_P, KeyEvent.CTRL_DOWN_MASK));
+		autoPlayMenuItem.addActionListener(
+				actionEvent -> slideGameManager.setAutoPlay(
+						autoPlayMenuItem.isSelected()));
+		// A hint would cancel the search for the next auto-play move:
+		slideGameManager.setAutoPlayListener(autoPlay ->
+		{
+			autoPlayMenuItem.setSelected(autoPlay);
+			hintMenuItem.setEnabled(!autoPlay);
+		});
+
 		JMenuItem exitMenuItem = new JMenuItem("Exit", KeyEvent.VK_X);
 		exitMenuItem.setAccelerator(KeyStroke.getKeyStroke(
 				KeyEvent.VK_X, KeyEvent.CTRL_DOWN_MASK));
 		exitMenuItem.addActionListener(
-				actionEvent -> Runtime.getRuntime().exit(0));
+				actionEvent -> frame.dispatchEvent(
+						new WindowEvent(frame, WindowEvent.WINDOW_CLOSING)));
 
 		JMenuItem helpMenuItem = new JMenuItem("Help...", KeyEvent.VK_H);
 		helpMenuItem.setAccelerator(KeyStroke.getKeyStroke(
@@ -150,6 +198,9 @@ public class SlideGameFrame
 		actionMenu.add(setGoalTileValueMenuItem);
 		actionMenu.addSeparator();
 		actionMenu.add(newGameMenuItem);
+		actionMenu.add(hintMenuItem);
+		actionMenu.add(autoPlayMenuItem);
+		actionMenu.addSeparator();
 		actionMenu.add(exitMenuItem);
 
 		JMenu helpMenu = new JMenu("Help");
@@ -13,6 +13,7 @@ public class SlideGameLabelManager
 	private final JLabel moveLabel;
 	private final JLabel goalLabel;
 	private final JLabel gameOverLabel;
+	private final JLabel searchLabel;
 	private final Timer moveLabelClearingTimer;
 
 	public SlideGameLabelManager(
@@ -20,13 +21,15 @@ public class SlideGameLabelManager
 			JLabel highScoreLabel,
 			JLabel moveLabel,
 			JLabel goalLabel,
-			JLabel gameOverLabel)
+			JLabel gameOverLabel,
+			JLabel searchLabel)
 	{
 		this.scoreLabel = scoreLabel;
 		this.highScoreLabel = highScoreLabel;
 		this.moveLabel = moveLabel;
 		this.goalLabel = goalLabel;
 		this.gameOverLabel = gameOverLabel;
+		this.searchLabel = searchLabel;
 
 		this.moveLabelClearingTimer = new Timer(
 				(int) TimeUnit.MILLISECONDS.convert(1, TimeUnit.SECONDS),
@@ -72,6 +75,14 @@ public class SlideGameLabelManager
 		}
 	}
 
+	/**
+	 * @param text A hint, or how the last search went.  Empty to clear.
+	 */
+	public void updateSearchLabel(String text)
+	{
+		searchLabel.setText(text);
+	}
+
 	public void clearMoveLabel()
 	{
 		moveLabelClearingTimer.stop();
@@ -1,36 +1,51 @@
 package com.github.ants280.slidegame.ui;
 
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.GameSession;
 import com.github.ants280.slidegame.logic.Grid;
 import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.MoveResult;
+import com.github.ants280.slidegame.logic.MoveTrace;
+import com.github.ants280.slidegame.metrics.GameMetrics;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import javax.swing.JComponent;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import javax.swing.JFrame;
+import javax.swing.Timer;
 
 public class SlideGameManager
 {
-	private final Grid grid;
+	private static final long FRAME_NANOS
+			= TimeUnit.SECONDS.toNanos(1L) / 60L;
+	// Several seconds of the fastest play:
+	private static final int MOVE_QUEUE_CAPACITY = 64;
+	private final GameSession gameSession;
 	private final JFrame slideGameRootComponent;
-	private final JComponent slideGameDisplayComponent;
+	private final SlideGameDisplayComponent slideGameDisplayComponent;
 	private final SlideGameLabelManager slideGameLabelManager;
 	private final KeyListener keyListener;
 	private final MouseListener mouseListener;
-	private int score;
-	private int highScore;
-	private boolean gameOver;
-	private boolean gameWon;
+	private final SlideGameMoveSearcher slideGameMoveSearcher;
+	private final GameMetrics gameMetrics;
+	private final MoveQueue moveQueue;
+	private final Timer moveQueueTimer;
 	private boolean listenersAdded;
+	private boolean autoPlay;
+	private Consumer<Boolean> autoPlayListener;
 	private MouseEvent mousePressedLocation;
+	private long lastAppliedNanos;
 
 	public SlideGameManager(
 			Grid grid,
 			JFrame slideGameRootComponent,
-			JComponent slideGameDisplayComponent,
-			SlideGameLabelManager slideGameLabelManager)
+			SlideGameDisplayComponent slideGameDisplayComponent,
+			SlideGameLabelManager slideGameLabelManager,
+			GameMetrics gameMetrics)
 	{
-		this.grid = grid;
+		this.gameSession = new GameSession(grid);
 		this.slideGameRootComponent = slideGameRootComponent;
 		this.slideGameDisplayComponent = slideGameDisplayComponent;
 		this.slideGameLabelManager = slideGameLabelManager;
@@ -40,105 +55,279 @@ public class SlideGameManager
 		this.mouseListener = new SlideGameMouseListener(
 				this::mousePressed,
 				this::mouseReleased);
-		this.score = 0;
-		this.highScore = 0;
-		this.gameOver = false;
-		this.gameWon = false;
+		this.slideGameMoveSearcher = new SlideGameMoveSearcher();
+		this.gameMetrics = gameMetrics;
+		this.moveQueue = new MoveQueue(MOVE_QUEUE_CAPACITY);
+		this.moveQueueTimer = new Timer(
+				0,
+				actionEvent -> this.applyQueuedMoves());
+		moveQueueTimer.setRepeats(false);
+		this.lastAppliedNanos = System.nanoTime() - FRAME_NANOS;
 		this.listenersAdded = false;
+		this.autoPlay = false;
+		this.autoPlayListener = autoPlayValue -> {};
 
 		this.initGame();
 	}
 
 	public int getGridLength()
 	{
-		return grid.getLength();
+		return gameSession.getGridLength();
 	}
 
 	public void setGridLength(int length)
 	{
-		grid.setLength(length);
-		this.newGame();
+		gameSession.setGridLength(length);
+		this.initGame();
+		slideGameDisplayComponent.repaintAll();
 	}
 
 	public int getGoalTileValue()
 	{
-		return grid.getGoalTileValue();
+		return gameSession.getGoalTileValue();
 	}
 
 	public void setGoalTileValue(int goalTileValue)
 	{
-		grid.setGoalTileValue(goalTileValue);
-		this.newGame();
-		slideGameLabelManager.updateGoalLabel(grid.getGoalTileValue());
+		gameSession.setGoalTileValue(goalTileValue);
+		this.initGame();
+		slideGameDisplayComponent.repaintAll();
 	}
 
+	/**
+	 * Queue a move.  Queued moves are applied in order, all at once, at most
+	 * once a frame, so the labels and grid are updated once for each batch
+	 * of moves however fast they are input.
+	 *
+	 * @param moveDirection The move, or null for input that is not a move.
+	 */
 	public void makeMove(MoveDirection moveDirection)
 	{
-		boolean validMove = moveDirection != null
-				&& grid.canSlideTiles(moveDirection);
+		long inputNanos = System.nanoTime();
 
-		if (validMove)
+		if (moveDirection == null)
 		{
+			gameMetrics.moveHandled(inputNanos, false);
+			return;
+		}
 
-			int moveScore = grid.slideTiles(moveDirection);
+		if (!moveQueue.offer(moveDirection, inputNanos))
+		{
+			// Only if moves have not been applied for many frames:
+			gameMetrics.moveHandled(inputNanos, false);
+			return;
+		}
 
-			this.incrementScore(moveScore);
+		if (!moveQueueTimer.isRunning())
+		{
+			long waitNanos = lastAppliedNanos + FRAME_NANOS - inputNanos;
+			moveQueueTimer.setInitialDelay((int) Math.max(
+					0L,
+					TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+			moveQueueTimer.start();
+		}
+	}
 
-			if (!grid.canSlideInAnyDirection() || grid.goalTileCreated())
-			{
-				gameWon = grid.goalTileCreated();
-				this.endGame();
-			}
-			else
+	private void applyQueuedMoves()
+	{
+		// The queue is cleared by a new game, but the timer may have fired:
+		if (moveQueue.isEmpty())
+		{
+			return;
+		}
+
+		lastAppliedNanos = System.nanoTime();
+		// Moves that do not move tiles leave the board as it was:
+		Board before = gameSession.getGrid().copyBoard();
+		boolean[] validMoves = new boolean[moveQueue.size()];
+		MoveDirection lastMoveDirection = null;
+		MoveDirection lastValidMoveDirection = null;
+		int validMoveCount = 0;
+
+		for (int i = 0; i < moveQueue.size(); i++)
+		{
+			lastMoveDirection = moveQueue.getMoveDirection(i);
+			long moveResult = gameSession.makeMove(lastMoveDirection);
+			validMoves[i] = MoveResult.isMoved(moveResult);
+
+			if (validMoves[i])
 			{
-				grid.addRandomTile();
+				lastValidMoveDirection = lastMoveDirection;
+				validMoveCount++;
 
-				if (!grid.canSlideInAnyDirection())
+				if (gameSession.isGameOver())
 				{
-					this.endGame();
+					this.removeListeners();
+					gameMetrics.gameEnded(gameSession.isGameWon());
 				}
 			}
+		}
 
-			slideGameLabelManager.updateScoreLabels(
-					gameOver,
-					gameWon,
-					score,
-					highScore);
+		if (validMoveCount != 0)
+		{
+			this.updateScoreLabels();
 
-			slideGameDisplayComponent.repaint();
+			// Only a single move is animated:
+			if (validMoveCount == 1)
+			{
+				slideGameDisplayComponent.showMove(MoveTrace.of(
+						before,
+						lastValidMoveDirection,
+						gameSession.getGrid().copyBoard()));
+			}
+			else
+			{
+				slideGameDisplayComponent.repaintChangedCells();
+			}
+			this.positionChanged();
 		}
 
-		slideGameLabelManager.updateMoveLabel(moveDirection, validMove);
+		slideGameLabelManager.updateMoveLabel(
+				lastMoveDirection,
+				validMoves[validMoves.length - 1]);
+
+		for (int i = 0; i < moveQueue.size(); i++)
+		{
+			gameMetrics.moveHandled(moveQueue.getInputNanos(i), validMoves[i]);
+		}
+		moveQueue.clear();
 	}
 
-	private void initGame()
+	/**
+	 * Search for the best move in the background, and show it when found.
+	 * Does nothing while auto-playing, as the hint would cancel the search
+	 * for the next auto-play move.
+	 */
+	public void showHint()
 	{
-		gameOver = false;
-		gameWon = false;
-		score = 0;
-		grid.addRandomTile();
-		grid.addRandomTile();
-		this.addListeners();
-		slideGameLabelManager.updateScoreLabels(
-				gameOver,
-				gameWon,
-				score,
-				highScore);
-		slideGameLabelManager.updateGoalLabel(grid.getGoalTileValue());
-		slideGameLabelManager.clearMoveLabel();
+		if (autoPlay || gameSession.isGameOver())
+		{
+			return;
+		}
+
+		slideGameLabelManager.updateSearchLabel("Thinking...");
+		slideGameMoveSearcher.search(
+				gameSession.getGrid().copyBoard(),
+				result -> slideGameLabelManager.updateSearchLabel(
+						result.getMoveDirection() == null
+								? "No moves"
+								: String.format(
+										"Hint: %s (%s)",
+										result.getMoveDirection()
+												.getDisplayValue(),
+										result)));
+	}
+
+	public boolean isAutoPlay()
+	{
+		return autoPlay;
+	}
+
+	/**
+	 * Start or stop making the moves found by searches in the background.
+	 * Moves made by the player are still allowed.
+	 */
+	public void setAutoPlay(boolean autoPlay)
+	{
+		this.autoPlay = autoPlay;
+		autoPlayListener.accept(autoPlay);
+
+		if (autoPlay)
+		{
+			this.searchAutoPlayMove();
+		}
+		else
+		{
+			slideGameMoveSearcher.cancel();
+			slideGameLabelManager.updateSearchLabel("");
+		}
+	}
+
+	/**
+	 * @param autoPlayListener Told each time auto-play starts or stops,
+	 * including when it stops itself at the end of a game.
+	 */
+	public void setAutoPlayListener(Consumer<Boolean> autoPlayListener)
+	{
+		this.autoPlayListener = autoPlayListener;
+	}
+
+	/**
+	 * Stop background work, when the game is closed.
+	 */
+	public void close()
+	{
+		moveQueueTimer.stop();
+		slideGameMoveSearcher.close();
 	}
 
 	public void newGame()
 	{
-		grid.clear();
+		gameSession.newGame();
 		this.initGame();
-		slideGameDisplayComponent.repaint();
+		slideGameDisplayComponent.repaintAll();
+	}
+
+	/**
+	 * Drop any search of the old position, and search the new one if
+	 * auto-playing.
+	 */
+	private void positionChanged()
+	{
+		if (autoPlay)
+		{
+			this.searchAutoPlayMove();
+		}
+		else
+		{
+			slideGameMoveSearcher.cancel();
+			slideGameLabelManager.updateSearchLabel("");
+		}
+	}
+
+	private void searchAutoPlayMove()
+	{
+		if (gameSession.isGameOver())
+		{
+			this.setAutoPlay(false);
+			return;
+		}
+
+		slideGameMoveSearcher.search(
+				gameSession.getGrid().copyBoard(),
+				result ->
+				{
+					slideGameLabelManager.updateSearchLabel(
+							"Auto-play: " + result);
+					this.makeMove(result.getMoveDirection());
+				});
 	}
 
-	private void endGame()
+	private void initGame()
 	{
-		gameOver = true;
-		this.removeListeners();
+		moveQueueTimer.stop();
+		moveQueue.clear();
+		gameMetrics.gameStarted(
+				gameSession.getGridLength(),
+				gameSession.getGoalTileValue());
+		this.positionChanged();
+		this.addListeners();
+		this.updateScoreLabels();
+		slideGameLabelManager.updateGoalLabel(
+				gameSession.getGoalTileValue());
+		slideGameLabelManager.clearMoveLabel();
+	}
+
+	private void updateScoreLabels()
+	{
+		slideGameLabelManager.updateScoreLabels(
+				gameSession.isGameOver(),
+				gameSession.isGameWon(),
+				gameSession.getScore(),
+				gameSession.getHighScore());
+		gameMetrics.scoreChanged(
+				gameSession.getScore(),
+				gameSession.getHighScore());
 	}
 
 	private void addListeners()
@@ -146,7 +335,8 @@ public class SlideGameManager
 		if (!listenersAdded)
 		{
 			slideGameRootComponent.addKeyListener(keyListener);
-			slideGameDisplayComponent.addMouseListener(mouseListener);
+			slideGameDisplayComponent.getComponent()
+					.addMouseListener(mouseListener);
 			mousePressedLocation = null;
 			listenersAdded = true;
 		}
@@ -155,23 +345,12 @@ public class SlideGameManager
 	private void removeListeners()
 	{
 		slideGameRootComponent.removeKeyListener(keyListener);
-		slideGameDisplayComponent.removeMouseListener(mouseListener);
+		slideGameDisplayComponent.getComponent()
+				.removeMouseListener(mouseListener);
 		mousePressedLocation = null;
 		listenersAdded = false;
 	}
 
-	private void incrementScore(int additionalScore)
-	{
-		if (additionalScore != 0)
-		{
-			this.score += additionalScore;
-			if (score > highScore)
-			{
-				highScore = score;
-			}
-		}
-	}
-
 	private void keyReleased(KeyEvent e)
 	{
 		this.makeMove(MoveDirection.fromKeyEvent(e));
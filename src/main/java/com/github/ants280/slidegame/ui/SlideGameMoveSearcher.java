@@ -0,0 +1,316 @@
+package com.github.ants280.slidegame.ui;
+
+import com.github.ants280.slidegame.ai.Evaluator;
+import com.github.ants280.slidegame.ai.Evaluators;
+import com.github.ants280.slidegame.ai.ExpectimaxSearch;
+import com.github.ants280.slidegame.ai.ParallelExpectimaxSearch;
+import com.github.ants280.slidegame.ai.RolloutSolver;
+import com.github.ants280.slidegame.ai.SearchResult;
+import com.github.ants280.slidegame.ai.TranspositionTable;
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Board;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+/**
+ * Searches for moves on a background thread, so the event dispatch thread
+ * is never blocked.  Only one search runs at a time: starting a search
+ * cancels the one before it, and the result of a cancelled search is
+ * dropped.  All methods must be called on the event dispatch thread, and
+ * the searcher must be closed to stop its threads.
+ *
+ * Boards of length 4 are searched with expectimax on every core, one level
+ * deeper at a time, until the next level would take longer than the budget.  A level
+ * that runs past the budget is dropped, and the deepest one that finished
+ * is used.  Other
+ * boards are searched with rounds of rollouts until the budget runs out.
+ */
+public class SlideGameMoveSearcher implements AutoCloseable
+{
+	private static final MoveDirection[] MOVE_DIRECTIONS
+			= MoveDirection.values();
+	private static final long BUDGET_NANOS
+			= TimeUnit.MILLISECONDS.toNanos(200L);
+	private static final int MAX_DEPTH = 8;
+	// Each level of expectimax takes about 12 times as long as the one above:
+	private static final int DEPTH_GROWTH = 12;
+	private static final int ROLLOUTS_PER_ROUND = 32;
+	private static final long TRANSPOSITION_TABLE_BYTES = 16L << 20;
+	// The moves from the root and the tiles added after them are tasks:
+	private static final int PARALLEL_DEPTH = 1;
+	private final ExecutorService executorService;
+	private final ForkJoinPool forkJoinPool;
+	private final Evaluator evaluator;
+	private final TranspositionTable transpositionTable;
+	private RolloutSolver rolloutSolver;
+	private Future<?> searchFuture;
+	private long searchCount;
+
+	public SlideGameMoveSearcher()
+	{
+		this.executorService = Executors.newSingleThreadExecutor(runnable ->
+		{
+			Thread thread = new Thread(runnable, "slide-game-search");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.forkJoinPool = new ForkJoinPool(
+				Runtime.getRuntime().availableProcessors());
+		this.evaluator = Evaluators.rowHeuristic();
+		this.transpositionTable = new TranspositionTable(
+				TRANSPOSITION_TABLE_BYTES,
+				TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED,
+				true);
+		this.rolloutSolver = null;
+		this.searchFuture = null;
+		this.searchCount = 0L;
+	}
+
+	/**
+	 * Cancel any search that is running, and start one for the board.
+	 *
+	 * @param board A copy of the board to search.  It must not be changed.
+	 * @param resultConsumer Gets the result on the event dispatch thread,
+	 * unless the search is cancelled first.
+	 */
+	public void search(Board board, Consumer<Result> resultConsumer)
+	{
+		this.cancel();
+		long searchId = searchCount;
+
+		searchFuture = executorService.submit(() ->
+		{
+			Result result = this.runSearch(board);
+
+			if (result != null)
+			{
+				SwingUtilities.invokeLater(() ->
+				{
+					if (searchId == searchCount)
+					{
+						searchFuture = null;
+						resultConsumer.accept(result);
+					}
+				});
+			}
+		});
+	}
+
+	/**
+	 * Stop the running search, if any.  Its result is never delivered.
+	 */
+	public void cancel()
+	{
+		searchCount++;
+
+		if (searchFuture != null)
+		{
+			searchFuture.cancel(true);
+			searchFuture = null;
+		}
+	}
+
+	/**
+	 * Stop the running search, and the threads searches run on.  No search
+	 * can be started afterwards.
+	 */
+	@Override
+	public void close()
+	{
+		this.cancel();
+		// The solver is only touched on the search thread:
+		executorService.execute(() ->
+		{
+			if (rolloutSolver != null)
+			{
+				rolloutSolver.close();
+				rolloutSolver = null;
+			}
+		});
+		executorService.shutdown();
+		forkJoinPool.shutdown();
+	}
+
+	public boolean isSearching()
+	{
+		return searchFuture != null;
+	}
+
+	/**
+	 * @return The best move found, or null if the search was interrupted.
+	 */
+	private Result runSearch(Board board)
+	{
+		long startNanos = System.nanoTime();
+
+		try
+		{
+			return board instanceof BitBoard
+					? this.searchExpectimax(
+							((BitBoard) board).getBits(),
+							startNanos)
+					: this.searchRollouts(board, startNanos);
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private Result searchExpectimax(long bits, long startNanos)
+			throws InterruptedException
+	{
+		long deadlineNanos = startNanos + BUDGET_NANOS;
+		MoveDirection bestMoveDirection = null;
+		int depth = 0;
+		long elapsedNanos = 0L;
+
+		while (depth < MAX_DEPTH
+				&& elapsedNanos * DEPTH_GROWTH < BUDGET_NANOS)
+		{
+			checkInterrupted();
+			ExpectimaxSearch expectimaxSearch = new ParallelExpectimaxSearch(
+					depth + 1,
+					evaluator,
+					transpositionTable,
+					PARALLEL_DEPTH,
+					forkJoinPool);
+			// The first level always finishes, so there is a move to make:
+			SearchResult searchResult = depth == 0
+					? expectimaxSearch.search(bits)
+					: expectimaxSearch.search(bits, deadlineNanos);
+
+			if (searchResult == null)
+			{
+				checkInterrupted();
+				elapsedNanos = System.nanoTime() - startNanos;
+				break;
+			}
+
+			bestMoveDirection = searchResult.getBestMoveDirection();
+			depth++;
+			elapsedNanos = System.nanoTime() - startNanos;
+
+			if (bestMoveDirection == null)
+			{
+				break;
+			}
+		}
+
+		return new Result(
+				bestMoveDirection,
+				elapsedNanos,
+				"depth " + depth);
+	}
+
+	private Result searchRollouts(Board board, long startNanos)
+			throws InterruptedException
+	{
+		if (rolloutSolver == null)
+		{
+			rolloutSolver = new RolloutSolver(
+					ROLLOUTS_PER_ROUND,
+					RolloutSolver.RolloutPolicy.RANDOM,
+					RandomSource.create());
+		}
+
+		double[] valueSums = new double[MOVE_DIRECTIONS.length];
+		int roundCount = 0;
+		long elapsedNanos;
+
+		do
+		{
+			checkInterrupted();
+			SearchResult searchResult = rolloutSolver.solve(board);
+			for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+			{
+				valueSums[moveDirection.ordinal()]
+						+= searchResult.getValue(moveDirection);
+			}
+			roundCount++;
+			elapsedNanos = System.nanoTime() - startNanos;
+		}
+		while (elapsedNanos < BUDGET_NANOS);
+
+		// Moves that cannot be made have NaN sums:
+		MoveDirection bestMoveDirection = null;
+		for (MoveDirection moveDirection : MOVE_DIRECTIONS)
+		{
+			if (!Double.isNaN(valueSums[moveDirection.ordinal()])
+					&& (bestMoveDirection == null
+					|| valueSums[moveDirection.ordinal()]
+					> valueSums[bestMoveDirection.ordinal()]))
+			{
+				bestMoveDirection = moveDirection;
+			}
+		}
+
+		return new Result(
+				bestMoveDirection,
+				elapsedNanos,
+				roundCount * ROLLOUTS_PER_ROUND + " rollouts/move");
+	}
+
+	private static void checkInterrupted() throws InterruptedException
+	{
+		if (Thread.interrupted())
+		{
+			throw new InterruptedException();
+		}
+	}
+
+	/**
+	 * The move a search found, and how hard it looked.
+	 */
+	public static final class Result
+	{
+		private final MoveDirection moveDirection;
+		private final long elapsedNanos;
+		private final String extent;
+
+		Result(MoveDirection moveDirection, long elapsedNanos, String extent)
+		{
+			this.moveDirection = moveDirection;
+			this.elapsedNanos = elapsedNanos;
+			this.extent = extent;
+		}
+
+		/**
+		 * @return The best move, or null if no move can be made.
+		 */
+		public MoveDirection getMoveDirection()
+		{
+			return moveDirection;
+		}
+
+		public long getElapsedNanos()
+		{
+			return elapsedNanos;
+		}
+
+		/**
+		 * @return How deep the search got, such as "depth 5".
+		 */
+		public String getExtent()
+		{
+			return extent;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format(
+					"%s in %d ms",
+					extent,
+					TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+		}
+	}
+}
@@ -0,0 +1,103 @@
+package com.github.ants280.slidegame.ui;
+
+import com.github.ants280.slidegame.logic.MoveTrace;
+import com.github.ants280.slidegame.metrics.GameMetrics;
+import java.util.concurrent.TimeUnit;
+import javax.swing.Timer;
+
+/**
+ * Times the animation of a move: the tiles slide, then combined tiles pop
+ * and the added tile fades in.  A Swing timer asks for a frame 60 times a
+ * second.  Frames are drawn at the time they are painted, not counted, so a
+ * slow frame makes the animation skip ahead rather than fall behind.  A move
+ * made during an animation ends it, so input never waits for animations.
+ */
+public class TileAnimator
+{
+	static final long SLIDE_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+	static final long POP_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+	private static final int FRAME_MILLIS = 1000 / 60;
+	private final Runnable repaintAction;
+	private final GameMetrics gameMetrics;
+	private final Timer frameTimer;
+	private MoveTrace moveTrace;
+	private long startNanos;
+	private long lastFrameNanos;
+
+	/**
+	 * @param repaintAction Requests a frame.
+	 */
+	public TileAnimator(Runnable repaintAction, GameMetrics gameMetrics)
+	{
+		this.repaintAction = repaintAction;
+		this.gameMetrics = gameMetrics;
+		this.frameTimer = new Timer(
+				FRAME_MILLIS,
+				actionEvent -> this.nextFrame());
+		// Ticks that fall behind are joined into one, skipping frames:
+		frameTimer.setCoalesce(true);
+		this.moveTrace = null;
+		this.startNanos = 0L;
+		this.lastFrameNanos = 0L;
+	}
+
+	/**
+	 * Start animating a move that has been made, ending any animation
+	 * running.
+	 */
+	public void start(MoveTrace moveTrace)
+	{
+		this.moveTrace = moveTrace;
+		startNanos = System.nanoTime();
+		lastFrameNanos = startNanos;
+		frameTimer.restart();
+		repaintAction.run();
+	}
+
+	public void stop()
+	{
+		if (moveTrace != null)
+		{
+			moveTrace = null;
+			frameTimer.stop();
+			repaintAction.run();
+		}
+	}
+
+	public boolean isAnimating()
+	{
+		return moveTrace != null;
+	}
+
+	/**
+	 * @return The move being animated, or null.
+	 */
+	public MoveTrace getMoveTrace()
+	{
+		return moveTrace;
+	}
+
+	/**
+	 * @return The time since the animation started.
+	 */
+	public long getElapsedNanos()
+	{
+		return System.nanoTime() - startNanos;
+	}
+
+	private void nextFrame()
+	{
+		long frameNanos = System.nanoTime();
+		gameMetrics.animationFrameShown(frameNanos - lastFrameNanos);
+		lastFrameNanos = frameNanos;
+
+		if (frameNanos - startNanos >= SLIDE_NANOS + POP_NANOS)
+		{
+			this.stop();
+		}
+		else
+		{
+			repaintAction.run();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package com.github.ants280.slidegame.ui;
+
+import com.github.ants280.slidegame.logic.Tile;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Images of tiles, each drawn once with its background and centred text, so
+ * that painting a tile is one image copy.  Images are drawn when first
+ * asked for, and all are dropped when the size of tiles or the font
+ * changes.  Must be used on the event dispatch thread.
+ */
+public class TileSpriteCache
+{
+	// The key of the empty cell, which has no tile:
+	private static final int EMPTY_TILE_VALUE = 0;
+	private final Map<Integer, BufferedImage> sprites;
+	private int tileSize;
+	private Font font;
+	private double scale;
+
+	public TileSpriteCache()
+	{
+		this.sprites = new HashMap<>();
+		this.tileSize = 0;
+		this.font = null;
+		this.scale = 1d;
+	}
+
+	public int getTileSize()
+	{
+		return tileSize;
+	}
+
+	/**
+	 * Drop the images if the size or font differs from that of the images.
+	 */
+	public void setTileSize(int tileSize, Font font)
+	{
+		if (this.tileSize != tileSize || !font.equals(this.font))
+		{
+			sprites.clear();
+			this.tileSize = tileSize;
+			this.font = font;
+		}
+	}
+
+	/**
+	 * Draw the tile with its top left corner at the location.
+	 *
+	 * @param tile The tile, or null for an empty cell.
+	 */
+	public void paintTile(Graphics2D g, Tile tile, int x, int y)
+	{
+		this.paintTile(g, tile, x, y, tileSize);
+	}
+
+	/**
+	 * Draw the tile scaled to the size.
+	 */
+	public void paintTile(Graphics2D g, Tile tile, int x, int y, int size)
+	{
+		// Draw in device pixels, so the text stays sharp on scaled screens:
+		double deviceScale = g.getTransform().getScaleX();
+		if (deviceScale != scale)
+		{
+			sprites.clear();
+			scale = deviceScale;
+		}
+
+		BufferedImage sprite = sprites.computeIfAbsent(
+				tile == null ? EMPTY_TILE_VALUE : tile.getValue(),
+				tileValue -> this.createSprite(
+						g.getDeviceConfiguration(), tile));
+		g.drawImage(sprite, x, y, size, size, null);
+	}
+
+	public int getSpriteCount()
+	{
+		return sprites.size();
+	}
+
+	private BufferedImage createSprite(
+			GraphicsConfiguration graphicsConfiguration,
+			Tile tile)
+	{
+		int spriteSize = Math.max(1, (int) Math.ceil(tileSize * scale));
+		BufferedImage sprite = graphicsConfiguration == null
+				? new BufferedImage(
+						spriteSize, spriteSize, BufferedImage.TYPE_INT_RGB)
+				: graphicsConfiguration.createCompatibleImage(
+						spriteSize, spriteSize);
+		Graphics2D g = sprite.createGraphics();
+
+		try
+		{
+			double spriteScale = spriteSize / (double) tileSize;
+			g.scale(spriteScale, spriteScale);
+			g.setColor(tile == null
+					? SlideGameColors.EMPTY_TILE_COLOR
+					: SlideGameColors.getColor(tile));
+			g.fillRect(0, 0, tileSize, tileSize);
+
+			if (tile != null)
+			{
+				g.setRenderingHint(
+						RenderingHints.KEY_ANTIALIASING,
+						RenderingHints.VALUE_ANTIALIAS_ON);
+				g.setFont(font);
+				g.setColor(SlideGameColors.TILE_TEXT_COLOR);
+
+				int textWidth = g.getFontMetrics()
+						.stringWidth(tile.getDisplayValue());
+				double fontHeight = font.getSize2D() * 0.75d;
+				g.drawString(
+						tile.getDisplayValue(),
+						(float) ((tileSize - textWidth) / 2d),
+						(float) ((tileSize + fontHeight) / 2d));
+			}
+		}
+		finally
+		{
+			g.dispose();
+		}
+
+		return sprite;
+	}
+}
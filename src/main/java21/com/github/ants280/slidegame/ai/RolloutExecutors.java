@@ -0,0 +1,25 @@
+package com.github.ants280.slidegame.ai;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates the threads rollouts run on.  On Java 21 and later, each rollout
+ * task runs on its own virtual thread.
+ */
+final class RolloutExecutors
+{
+	private RolloutExecutors()
+	{
+	}
+
+	static ExecutorService create()
+	{
+		return Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	static String getDescription()
+	{
+		return "virtual threads";
+	}
+}
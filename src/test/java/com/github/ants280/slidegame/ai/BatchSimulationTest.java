@@ -0,0 +1,75 @@
+package com.github.ants280.slidegame.ai;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BatchSimulationTest
+{
+	@Test
+	public void testRun_sameResultsForAnyThreadCount()
+			throws InterruptedException
+	{
+		BatchStatistics batchStatistics1 = new BatchSimulation(
+				50, 1, 2048L, MovePolicies::random)
+				.run(4, 2048);
+		BatchStatistics batchStatistics4 = new BatchSimulation(
+				50, 4, 2048L, MovePolicies::random)
+				.run(4, 2048);
+
+		Assert.assertEquals(50, batchStatistics1.getGameCount());
+		Assert.assertEquals(
+				batchStatistics1.getMoveCount(),
+				batchStatistics4.getMoveCount());
+		Assert.assertEquals(
+				batchStatistics1.getScoreQuantile(0.5d),
+				batchStatistics4.getScoreQuantile(0.5d));
+		Assert.assertEquals(
+				batchStatistics1.getMaxTileDistribution(),
+				batchStatistics4.getMaxTileDistribution());
+	}
+
+	@Test
+	public void testRun_smallGoalAlwaysWon() throws InterruptedException
+	{
+		BatchStatistics batchStatistics = new BatchSimulation(
+				20, 2, 1L, randomSource -> MovePolicies.greedy())
+				.run(4, 16);
+
+		Assert.assertEquals(20, batchStatistics.getWinCount());
+		Assert.assertEquals(1d, batchStatistics.getWinRate(), 0d);
+		Assert.assertEquals(20, batchStatistics.getMaxTileCount(16));
+	}
+
+	@Test
+	public void testBatchStatistics()
+	{
+		BatchStatistics batchStatistics = new BatchStatistics();
+		BatchStatistics otherBatchStatistics = new BatchStatistics();
+
+		for (int score = 1; score <= 10; score++)
+		{
+			batchStatistics.addGame(score, 2, 8, false);
+			otherBatchStatistics.addGame(score * 10, 3, 16, true);
+		}
+		batchStatistics.addAll(otherBatchStatistics);
+
+		Assert.assertEquals(20, batchStatistics.getGameCount());
+		Assert.assertEquals(50L, batchStatistics.getMoveCount());
+		Assert.assertEquals(0.5d, batchStatistics.getWinRate(), 0d);
+		Assert.assertEquals(1, batchStatistics.getScoreQuantile(0d));
+		Assert.assertEquals(10, batchStatistics.getScoreQuantile(0.5d));
+		Assert.assertEquals(100, batchStatistics.getScoreQuantile(1d));
+		Assert.assertEquals(
+				"8=50.0% 16=50.0%",
+				batchStatistics.getMaxTileDistribution());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBatchSimulation_badGameCount()
+	{
+		BatchSimulation batchSimulation
+				= new BatchSimulation(0, 1, 1L, MovePolicies::random);
+
+		Assert.fail("Games must be played: " + batchSimulation);
+	}
+}
@@ -0,0 +1,164 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExpectimaxSearchTest
+{
+	// A 2 in each of the first two cells of the top row:
+	private static final long TWO_TWOS = 0x11L;
+
+	@Test
+	public void testSearch_depth1()
+	{
+		ExpectimaxSearch expectimaxSearch
+				= new ExpectimaxSearch(1, Evaluators.emptyCells());
+
+		SearchResult searchResult = expectimaxSearch.search(TWO_TWOS);
+
+		Assert.assertEquals(
+				MoveDirection.LEFT,
+				searchResult.getBestMoveDirection());
+		Assert.assertEquals(
+				15d,
+				searchResult.getValue(MoveDirection.LEFT),
+				0d);
+		Assert.assertEquals(
+				15d,
+				searchResult.getValue(MoveDirection.RIGHT),
+				0d);
+		Assert.assertFalse(searchResult.canMove(MoveDirection.UP));
+		Assert.assertEquals(
+				14d,
+				searchResult.getValue(MoveDirection.DOWN),
+				0d);
+		// The root, 3 chance nodes, and a 2 and a 4 for each empty cell:
+		Assert.assertEquals(
+				1L + 3L + 2L * (15L + 15L + 14L),
+				searchResult.getNodeCount());
+	}
+
+	@Test
+	public void testSearch_deeperSearchesVisitMoreNodes()
+	{
+		long shallowNodeCount = new ExpectimaxSearch(
+				2, Evaluators.emptyCells())
+				.search(TWO_TWOS)
+				.getNodeCount();
+		SearchResult searchResult = new ExpectimaxSearch(
+				3, Evaluators.emptyCells())
+				.search(TWO_TWOS);
+
+		Assert.assertTrue(searchResult.getNodeCount() > shallowNodeCount);
+		Assert.assertNotNull(searchResult.getBestMoveDirection());
+	}
+
+	@Test
+	public void testSearch_beforeDeadline()
+	{
+		ExpectimaxSearch expectimaxSearch
+				= new ExpectimaxSearch(3, Evaluators.emptyCells());
+
+		SearchResult searchResult = expectimaxSearch.search(
+				TWO_TWOS,
+				System.nanoTime() + TimeUnit.MINUTES.toNanos(1L));
+
+		Assert.assertEquals(
+				expectimaxSearch.search(TWO_TWOS).toString(),
+				searchResult.toString());
+	}
+
+	@Test
+	public void testSearch_pastDeadline()
+	{
+		ExpectimaxSearch expectimaxSearch
+				= new ExpectimaxSearch(4, Evaluators.emptyCells());
+
+		SearchResult searchResult
+				= expectimaxSearch.search(TWO_TWOS, System.nanoTime());
+
+		Assert.assertNull(searchResult);
+		Assert.assertNotNull(expectimaxSearch.search(TWO_TWOS));
+	}
+
+	@Test
+	public void testSearch_interrupted()
+	{
+		ExpectimaxSearch expectimaxSearch
+				= new ExpectimaxSearch(4, Evaluators.emptyCells());
+
+		Thread.currentThread().interrupt();
+		SearchResult searchResult = expectimaxSearch.search(
+				TWO_TWOS,
+				System.nanoTime() + TimeUnit.MINUTES.toNanos(1L));
+
+		Assert.assertTrue(Thread.interrupted());
+		Assert.assertNull(searchResult);
+	}
+
+	@Test
+	public void testSearch_noMoves()
+	{
+		BitBoard bitBoard = new BitBoard();
+		for (int r = 0; r < BitBoard.LENGTH; r++)
+		{
+			for (int c = 0; c < BitBoard.LENGTH; c++)
+			{
+				bitBoard.setExponent(c, r, 1 + (c + r) % 2);
+			}
+		}
+
+		SearchResult searchResult = new ExpectimaxSearch(
+				2, Evaluators.emptyCells())
+				.search(bitBoard.getBits());
+
+		Assert.assertNull(searchResult.getBestMoveDirection());
+		for (MoveDirection moveDirection : MoveDirection.values())
+		{
+			Assert.assertFalse(searchResult.canMove(moveDirection));
+		}
+	}
+
+	@Test
+	public void testSearch_grid()
+	{
+		// A goal above 2^15 keeps the tiles in a TileBoard:
+		for (int goalTileValue : new int[]{2048, 65536})
+		{
+			Grid grid = new Grid(4, goalTileValue, RandomSource.fast(3L));
+			for (int i = 0; i < 6; i++)
+			{
+				grid.addRandomTile();
+			}
+			ExpectimaxSearch expectimaxSearch
+					= new ExpectimaxSearch(2, Evaluators.emptyCells());
+
+			Assert.assertEquals(
+					expectimaxSearch.search(ExpectimaxSearch.toBits(grid))
+							.toString(),
+					expectimaxSearch.search(grid).toString());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSearch_wrongLength()
+	{
+		new ExpectimaxSearch(1, Evaluators.emptyCells()).search(new Grid(5));
+
+		Assert.fail("Only grids of length 4 can be searched");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testExpectimaxSearch_badDepth()
+	{
+		ExpectimaxSearch expectimaxSearch
+				= new ExpectimaxSearch(0, Evaluators.emptyCells());
+
+		Assert.fail("Depth must be positive: " + expectimaxSearch);
+	}
+}
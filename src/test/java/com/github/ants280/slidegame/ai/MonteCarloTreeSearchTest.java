@@ -0,0 +1,137 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MonteCarloTreeSearchTest
+{
+	@Test
+	public void testSearch()
+	{
+		Grid grid = new Grid(4, 2048, RandomSource.fast(5L));
+		grid.addRandomTile();
+		grid.addRandomTile();
+		MonteCarloTreeSearch monteCarloTreeSearch = new MonteCarloTreeSearch(
+				10_000, Math.sqrt(2d), RandomSource.fast(6L));
+
+		SearchResult searchResult = monteCarloTreeSearch.search(
+				grid,
+				TimeUnit.MILLISECONDS.toNanos(20L));
+
+		Assert.assertNotNull(searchResult.getBestMoveDirection());
+		Assert.assertTrue(
+				grid.canSlideTiles(searchResult.getBestMoveDirection()));
+		Assert.assertTrue(searchResult.getNodeCount() > 0L);
+		for (MoveDirection moveDirection : MoveDirection.values())
+		{
+			if (!grid.canSlideTiles(moveDirection))
+			{
+				Assert.assertFalse(searchResult.canMove(moveDirection));
+			}
+		}
+	}
+
+	@Test
+	public void testSearch_noBudget()
+	{
+		MonteCarloTreeSearch monteCarloTreeSearch = new MonteCarloTreeSearch(
+				100, Math.sqrt(2d), RandomSource.fast(6L));
+
+		SearchResult searchResult = monteCarloTreeSearch.search(0x11L, 0L);
+
+		// The first game only values the root:
+		Assert.assertEquals(1L, searchResult.getNodeCount());
+		Assert.assertEquals(1, monteCarloTreeSearch.getNodeCount());
+	}
+
+	@Test
+	public void testSearch_reusesTree()
+	{
+		long bits = createBits(
+				1, 1, 3, 4,
+				5, 6, 7, 1,
+				9, 10, 11, 12,
+				13, 14, 15, 2);
+		MonteCarloTreeSearch monteCarloTreeSearch = new MonteCarloTreeSearch(
+				10_000, Math.sqrt(2d), RandomSource.fast(6L));
+		monteCarloTreeSearch.search(bits, TimeUnit.MILLISECONDS.toNanos(50L));
+
+		// Only the last cell of the top row is empty after sliding left, and
+		// a 2 there can be merged down:
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.setBits(bits);
+		bitBoard.slide(MoveDirection.LEFT);
+		bitBoard.setExponent(3, 0, 1);
+		monteCarloTreeSearch.search(bitBoard.getBits(), 0L);
+
+		Assert.assertTrue(monteCarloTreeSearch.getNodeCount() > 1);
+	}
+
+	@Test
+	public void testSearch_reusedTreeRescalesValues()
+	{
+		long bits = createBits(
+				1, 1, 3, 4,
+				5, 6, 7, 1,
+				9, 10, 11, 12,
+				13, 14, 15, 2);
+		MonteCarloTreeSearch monteCarloTreeSearch = new MonteCarloTreeSearch(
+				10_000, Math.sqrt(2d), RandomSource.fast(6L));
+		monteCarloTreeSearch.search(bits, TimeUnit.MILLISECONDS.toNanos(50L));
+		double maxValue = monteCarloTreeSearch.getMaxValue();
+
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.setBits(bits);
+		int moveScore = bitBoard.slide(MoveDirection.LEFT);
+		bitBoard.setExponent(3, 0, 1);
+		monteCarloTreeSearch.search(bitBoard.getBits(), 0L);
+
+		// Values below the new root no longer include the score of LEFT:
+		Assert.assertTrue(
+				monteCarloTreeSearch.getMaxValue() <= maxValue - moveScore);
+	}
+
+	@Test
+	public void testSearch_noMoves()
+	{
+		long bits = createBits(
+				1, 2, 3, 4,
+				5, 6, 7, 8,
+				9, 10, 11, 12,
+				13, 14, 15, 1);
+		MonteCarloTreeSearch monteCarloTreeSearch = new MonteCarloTreeSearch(
+				100, Math.sqrt(2d), RandomSource.fast(6L));
+
+		SearchResult searchResult = monteCarloTreeSearch.search(
+				bits,
+				TimeUnit.MILLISECONDS.toNanos(5L));
+
+		Assert.assertNull(searchResult.getBestMoveDirection());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreate_tooFewNodes()
+	{
+		MonteCarloTreeSearch monteCarloTreeSearch = new MonteCarloTreeSearch(
+				8, Math.sqrt(2d), RandomSource.fast(6L));
+
+		Assert.fail("Expected exception, but created " + monteCarloTreeSearch);
+	}
+
+	private static long createBits(int... exponents)
+	{
+		BitBoard bitBoard = new BitBoard();
+		for (int i = 0; i < exponents.length; i++)
+		{
+			bitBoard.setExponent(i % BitBoard.LENGTH, i / BitBoard.LENGTH,
+					exponents[i]);
+		}
+
+		return bitBoard.getBits();
+	}
+}
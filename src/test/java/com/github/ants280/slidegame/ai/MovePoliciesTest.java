@@ -0,0 +1,79 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MovePoliciesTest
+{
+	private static final int LEFT_AND_UP
+			= (1 << MoveDirection.LEFT.ordinal())
+			| (1 << MoveDirection.UP.ordinal());
+
+	@Test
+	public void testRandom_onlySlideableDirections()
+	{
+		MovePolicy movePolicy = MovePolicies.random(RandomSource.fast(1L));
+		int chosenDirections = 0;
+
+		for (int i = 0; i < 100; i++)
+		{
+			MoveDirection moveDirection
+					= movePolicy.chooseMove(new Grid(), LEFT_AND_UP);
+			chosenDirections |= 1 << moveDirection.ordinal();
+		}
+
+		Assert.assertEquals(LEFT_AND_UP, chosenDirections);
+	}
+
+	@Test
+	public void testFixedOrder()
+	{
+		MovePolicy movePolicy = MovePolicies.fixedOrder(
+				MoveDirection.DOWN,
+				MoveDirection.UP);
+
+		Assert.assertEquals(
+				MoveDirection.UP,
+				movePolicy.chooseMove(new Grid(), LEFT_AND_UP));
+		Assert.assertEquals(
+				MoveDirection.DOWN,
+				movePolicy.chooseMove(new Grid(), 0xF));
+	}
+
+	@Test
+	public void testFixedOrder_unlistedDirectionsLast()
+	{
+		MovePolicy movePolicy = MovePolicies.fixedOrder(MoveDirection.DOWN);
+
+		Assert.assertEquals(
+				MoveDirection.LEFT,
+				movePolicy.chooseMove(new Grid(), LEFT_AND_UP));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFixedOrder_noSlideableDirections()
+	{
+		MovePolicy movePolicy = MovePolicies.fixedOrder();
+
+		movePolicy.chooseMove(new Grid(), 0);
+
+		Assert.fail("No direction can be chosen");
+	}
+
+	@Test
+	public void testGreedy()
+	{
+		Grid grid = new Grid(4, 2048, RandomSource.fast(1L));
+		grid.addRandomTile();
+		MovePolicy movePolicy = MovePolicies.greedy(MoveDirection.LEFT);
+
+		// With no tiles to combine, the first preferred direction is chosen:
+		Assert.assertEquals(
+				MoveDirection.LEFT,
+				movePolicy.chooseMove(grid, grid.getSlideableDirections()
+						| (1 << MoveDirection.LEFT.ordinal())));
+	}
+}
@@ -0,0 +1,90 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NTupleNetworkTest
+{
+	// A 2 and a 4 in the first two cells of the top row:
+	private static final long TWO_FOUR = 0x21L;
+
+	@Test
+	public void testUpdate()
+	{
+		NTupleNetwork network = NTupleNetwork.fourTuples();
+
+		network.update(TWO_FOUR, 0.5f);
+
+		// Weights looked up more than once are added to more than once:
+		Assert.assertTrue(
+				network.evaluate(TWO_FOUR)
+				>= 0.5d * network.getLookupCount());
+	}
+
+	@Test
+	public void testUpdate_symmetricBoardsShareWeights()
+	{
+		NTupleNetwork network = NTupleNetwork.fourTuples();
+		network.update(TWO_FOUR, 1f);
+		double value = network.evaluate(TWO_FOUR);
+
+		// Reflected and transposed:
+		Assert.assertEquals(
+				value,
+				network.evaluate(0x1200L),
+				1e-6d);
+		Assert.assertEquals(
+				value,
+				network.evaluate(BitBoard.transpose(TWO_FOUR)),
+				1e-6d);
+	}
+
+	@Test
+	public void testEvaluate_notNegative()
+	{
+		NTupleNetwork network = NTupleNetwork.fourTuples();
+
+		network.update(TWO_FOUR, -1f);
+
+		Assert.assertEquals(0d, network.evaluate(TWO_FOUR), 0d);
+		Assert.assertTrue(network.getValue(TWO_FOUR) < 0d);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCreate_repeatedCell()
+	{
+		NTupleNetwork network = new NTupleNetwork(new int[]{0, 1, 1});
+
+		Assert.fail("Repeated cell allowed: " + network);
+	}
+
+	@Test
+	public void testPlayEpisode_learns()
+	{
+		NTupleNetwork network = NTupleNetwork.fourTuples();
+		NTupleTrainer trainer = new NTupleTrainer(
+				network, 0.1d, 0.5d, RandomSource.fast(7L));
+		long firstScoreSum = 0L;
+		long lastScoreSum = 0L;
+
+		for (int episode = 0; episode < 600; episode++)
+		{
+			long score = trainer.playEpisode();
+
+			if (episode < 100)
+			{
+				firstScoreSum += score;
+			}
+			else if (episode >= 500)
+			{
+				lastScoreSum += score;
+			}
+		}
+
+		Assert.assertTrue(
+				firstScoreSum + " then " + lastScoreSum,
+				lastScoreSum > firstScoreSum);
+	}
+}
@@ -0,0 +1,132 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.ai.TranspositionTable.ReplacementPolicy;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelExpectimaxSearchTest
+{
+	private static final long BITS = 0x0000_0000_0012_1021L;
+	private static ForkJoinPool forkJoinPool;
+
+	@BeforeClass
+	public static void setUpClass()
+	{
+		forkJoinPool = new ForkJoinPool(4);
+	}
+
+	@AfterClass
+	public static void tearDownClass()
+	{
+		forkJoinPool.shutdown();
+	}
+
+	@Test
+	public void testSearch_matchesSequentialSearch()
+	{
+		for (int parallelDepth = 0; parallelDepth <= 2; parallelDepth++)
+		{
+			SearchResult searchResult = new ExpectimaxSearch(
+					3, Evaluators.emptyCells())
+					.search(BITS);
+			SearchResult parallelSearchResult = new ParallelExpectimaxSearch(
+					3, Evaluators.emptyCells(), null, parallelDepth,
+					forkJoinPool)
+					.search(BITS);
+
+			Assert.assertEquals(
+					searchResult.toString(),
+					parallelSearchResult.toString());
+		}
+	}
+
+	@Test
+	public void testSearch_sharedTranspositionTable()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				1L << 24,
+				ReplacementPolicy.DEPTH_PREFERRED);
+		ExpectimaxSearch parallelSearch = new ParallelExpectimaxSearch(
+				3, Evaluators.emptyCells(), transpositionTable, 1,
+				forkJoinPool);
+
+		SearchResult searchResult = new ExpectimaxSearch(
+				3, Evaluators.emptyCells())
+				.search(BITS);
+		SearchResult parallelSearchResult = parallelSearch.search(BITS);
+
+		// Values of deeper searches are reused, so values differ slightly:
+		Assert.assertTrue(transpositionTable.getHitCount() > 0L);
+		for (MoveDirection moveDirection : MoveDirection.values())
+		{
+			Assert.assertEquals(
+					searchResult.getValue(moveDirection),
+					parallelSearchResult.getValue(moveDirection),
+					searchResult.getValue(moveDirection) / 100d);
+		}
+	}
+
+	@Test
+	public void testSearch_beforeDeadline()
+	{
+		ExpectimaxSearch parallelSearch = new ParallelExpectimaxSearch(
+				3, Evaluators.emptyCells(), null, 1, forkJoinPool);
+
+		SearchResult searchResult = new ExpectimaxSearch(
+				3, Evaluators.emptyCells())
+				.search(BITS);
+		SearchResult parallelSearchResult = parallelSearch.search(
+				BITS,
+				System.nanoTime() + TimeUnit.MINUTES.toNanos(1L));
+
+		Assert.assertEquals(
+				searchResult.toString(),
+				parallelSearchResult.toString());
+		Assert.assertEquals(
+				searchResult.getNodeCount(),
+				parallelSearch.getNodeCount());
+	}
+
+	@Test
+	public void testSearch_pastDeadline()
+	{
+		for (int parallelDepth = 0; parallelDepth <= 1; parallelDepth++)
+		{
+			ExpectimaxSearch parallelSearch = new ParallelExpectimaxSearch(
+					4, Evaluators.emptyCells(), null, parallelDepth,
+					forkJoinPool);
+
+			Assert.assertNull(parallelSearch.search(BITS, System.nanoTime()));
+			Assert.assertNotNull(parallelSearch.search(BITS));
+		}
+	}
+
+	@Test
+	public void testSearch_interrupted()
+	{
+		ExpectimaxSearch parallelSearch = new ParallelExpectimaxSearch(
+				4, Evaluators.emptyCells(), null, 1, forkJoinPool);
+
+		Thread.currentThread().interrupt();
+		SearchResult searchResult = parallelSearch.search(
+				BITS,
+				System.nanoTime() + TimeUnit.MINUTES.toNanos(1L));
+
+		Assert.assertTrue(Thread.interrupted());
+		Assert.assertNull(searchResult);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParallelExpectimaxSearch_badParallelDepth()
+	{
+		ExpectimaxSearch parallelSearch = new ParallelExpectimaxSearch(
+				3, Evaluators.emptyCells(), null, -1, forkJoinPool);
+
+		Assert.fail("Parallel depth must not be negative: " + parallelSearch);
+	}
+}
@@ -0,0 +1,72 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.ai.RolloutSolver.RolloutPolicy;
+import com.github.ants280.slidegame.logic.Grid;
+import com.github.ants280.slidegame.logic.MoveDirection;
+import com.github.ants280.slidegame.logic.RandomSource;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RolloutSolverTest
+{
+	@Test
+	public void testSolve() throws InterruptedException
+	{
+		for (RolloutPolicy rolloutPolicy : RolloutPolicy.values())
+		{
+			for (int length : new int[]{3, 4, 5})
+			{
+				Grid grid = new Grid(length, 64, RandomSource.fast(5L));
+				grid.addRandomTile();
+				grid.addRandomTile();
+
+				try (RolloutSolver rolloutSolver = new RolloutSolver(
+						40, rolloutPolicy, RandomSource.fast(6L)))
+				{
+					SearchResult searchResult = rolloutSolver.solve(grid);
+
+					Assert.assertNotNull(searchResult.getBestMoveDirection());
+					Assert.assertTrue(searchResult.getNodeCount() > 0L);
+					for (MoveDirection moveDirection : MoveDirection.values())
+					{
+						Assert.assertEquals(
+								grid.canSlideTiles(moveDirection),
+								searchResult.canMove(moveDirection));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSolve_sameSeed() throws InterruptedException
+	{
+		Grid grid = new Grid(4, 2048, RandomSource.fast(5L));
+		grid.addRandomTile();
+		grid.addRandomTile();
+		SearchResult[] searchResults = new SearchResult[2];
+
+		for (int i = 0; i < searchResults.length; i++)
+		{
+			try (RolloutSolver rolloutSolver = new RolloutSolver(
+					50, RolloutPolicy.RANDOM, RandomSource.fast(6L)))
+			{
+				searchResults[i] = rolloutSolver.solve(grid);
+			}
+		}
+
+		Assert.assertEquals(
+				searchResults[0].toString(),
+				searchResults[1].toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRolloutSolver_badRolloutCount()
+	{
+		try (RolloutSolver rolloutSolver = new RolloutSolver(
+				0, RolloutPolicy.RANDOM, RandomSource.fast(6L)))
+		{
+			Assert.fail("Rollouts must be played: " + rolloutSolver);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.ai.RowHeuristicEvaluator.Feature;
+import com.github.ants280.slidegame.logic.BitBoard;
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RowHeuristicEvaluatorTest
+{
+	@Test
+	public void testMeasure()
+	{
+		int[] exponents = {3, 0, 3, 1};
+
+		Assert.assertEquals(
+				1,
+				RowHeuristicEvaluator.measure(Feature.EMPTY_CELLS, exponents));
+		Assert.assertEquals(
+				1,
+				RowHeuristicEvaluator.measure(Feature.MERGES, exponents));
+		// Falls by 3, rises by 3, then falls by 2:
+		Assert.assertEquals(
+				-3,
+				RowHeuristicEvaluator.measure(Feature.MONOTONICITY, exponents));
+		// The empty cell is skipped:
+		Assert.assertEquals(
+				-2,
+				RowHeuristicEvaluator.measure(Feature.SMOOTHNESS, exponents));
+		Assert.assertEquals(
+				3,
+				RowHeuristicEvaluator.measure(Feature.CORNER, exponents));
+		Assert.assertEquals(
+				0,
+				RowHeuristicEvaluator.measure(
+						Feature.CORNER,
+						new int[]{1, 2, 1, 1}));
+	}
+
+	@Test
+	public void testEvaluate_sumsRowsAndColumns()
+	{
+		RowHeuristicEvaluator evaluator = new RowHeuristicEvaluator(
+				Collections.singletonMap(Feature.EMPTY_CELLS, 1d),
+				10d);
+
+		// 14 empty cells, counted once in a row and once in a column:
+		Assert.assertEquals(10d + 28d, evaluator.evaluate(0x11L), 0d);
+		Assert.assertEquals(
+				evaluator.evaluate(0x11L),
+				evaluator.evaluate(BitBoard.transpose(0x11L)),
+				0d);
+	}
+
+	@Test
+	public void testEvaluate_prefersOrderedBoards()
+	{
+		Evaluator evaluator = Evaluators.rowHeuristic();
+		// The same tiles, in order from a corner or scattered:
+		long ordered = 0x1234L;
+		long scattered = 0x0003_0000_0401_0002L;
+
+		Assert.assertTrue(
+				evaluator.evaluate(ordered) > evaluator.evaluate(scattered));
+		Assert.assertTrue(evaluator.evaluate(scattered) > 0d);
+	}
+}
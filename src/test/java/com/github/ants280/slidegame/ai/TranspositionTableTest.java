@@ -0,0 +1,200 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.ai.TranspositionTable.ReplacementPolicy;
+import com.github.ants280.slidegame.logic.BitBoard;
+import com.github.ants280.slidegame.logic.BoardSymmetry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TranspositionTableTest
+{
+	private static final long MEMORY_BYTES = 1L << 16;
+	// Memory for the entries of one probe, so that every key shares them:
+	private static final long PROBE_BYTES
+			= TranspositionTable.PROBE_LENGTH * TranspositionTable.ENTRY_BYTES;
+
+	@Test
+	public void testGetCapacity()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				MEMORY_BYTES + TranspositionTable.ENTRY_BYTES,
+				ReplacementPolicy.ALWAYS);
+
+		Assert.assertEquals(
+				MEMORY_BYTES / TranspositionTable.ENTRY_BYTES,
+				transpositionTable.getCapacity());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTranspositionTable_tooLittleMemory()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				TranspositionTable.ENTRY_BYTES,
+				ReplacementPolicy.ALWAYS);
+
+		Assert.fail("Table too small: " + transpositionTable);
+	}
+
+	@Test
+	public void testGet()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				MEMORY_BYTES,
+				ReplacementPolicy.DEPTH_PREFERRED);
+		transpositionTable.put(0x1234L, 2, 1.5d);
+
+		Assert.assertEquals(1.5d, transpositionTable.get(0x1234L, 1), 0d);
+		Assert.assertEquals(1.5d, transpositionTable.get(0x1234L, 2), 0d);
+		Assert.assertTrue(Double.isNaN(transpositionTable.get(0x1234L, 3)));
+		Assert.assertTrue(Double.isNaN(transpositionTable.get(0x4321L, 0)));
+		Assert.assertEquals(2L, transpositionTable.getHitCount());
+		Assert.assertEquals(2L, transpositionTable.getMissCount());
+	}
+
+	@Test
+	public void testGet_sharedSymmetries()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				MEMORY_BYTES,
+				ReplacementPolicy.DEPTH_PREFERRED,
+				true);
+		transpositionTable.put(0x1234L, 2, 1.5d);
+
+		Assert.assertEquals(
+				1.5d,
+				transpositionTable.get(BoardSymmetry.mirror(0x1234L), 2),
+				0d);
+		Assert.assertEquals(
+				1.5d,
+				transpositionTable.get(BitBoard.transpose(0x1234L), 2),
+				0d);
+		Assert.assertTrue(Double.isNaN(transpositionTable.get(0x1235L, 0)));
+	}
+
+	@Test
+	public void testPut_depthPreferredKeepsDeeperEntries()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				PROBE_BYTES,
+				ReplacementPolicy.DEPTH_PREFERRED);
+		for (long key = 1L; key <= TranspositionTable.PROBE_LENGTH; key++)
+		{
+			transpositionTable.put(key, 5, key);
+		}
+
+		transpositionTable.put(0L, 4, 0d);
+		transpositionTable.put(1L, 3, 100d);
+
+		Assert.assertTrue(Double.isNaN(transpositionTable.get(0L, 0)));
+		for (long key = 1L; key <= TranspositionTable.PROBE_LENGTH; key++)
+		{
+			Assert.assertEquals(key, transpositionTable.get(key, 5), 0d);
+		}
+		Assert.assertEquals(0L, transpositionTable.getCollisionCount());
+	}
+
+	@Test
+	public void testPut_alwaysReplaces()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				PROBE_BYTES,
+				ReplacementPolicy.ALWAYS);
+		for (long key = 1L; key <= TranspositionTable.PROBE_LENGTH; key++)
+		{
+			transpositionTable.put(key, 5, key);
+		}
+
+		transpositionTable.put(0L, 4, 7d);
+
+		Assert.assertEquals(7d, transpositionTable.get(0L, 4), 0d);
+		Assert.assertEquals(1L, transpositionTable.getCollisionCount());
+	}
+
+	@Test
+	public void testClear()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				MEMORY_BYTES,
+				ReplacementPolicy.ALWAYS);
+		transpositionTable.put(0x1234L, 2, 1.5d);
+
+		transpositionTable.clear();
+
+		Assert.assertTrue(Double.isNaN(transpositionTable.get(0x1234L, 0)));
+	}
+
+	@Test
+	public void testGet_manyThreads() throws Exception
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				1L << 10,
+				ReplacementPolicy.ALWAYS);
+		ExecutorService executorService = Executors.newFixedThreadPool(4);
+		List<Future<Integer>> futures = new ArrayList<>();
+
+		try
+		{
+			for (int i = 0; i < 4; i++)
+			{
+				futures.add(executorService.submit(() ->
+				{
+					int wrongValueCount = 0;
+
+					for (int j = 0; j < 200_000; j++)
+					{
+						long key = ThreadLocalRandom.current().nextLong(256L);
+						double value = transpositionTable.get(key, 0);
+
+						if (!Double.isNaN(value) && value != key)
+						{
+							wrongValueCount++;
+						}
+
+						transpositionTable.put(key, 0, key);
+					}
+
+					return wrongValueCount;
+				}));
+			}
+
+			for (Future<Integer> future : futures)
+			{
+				Assert.assertEquals(0, (int) future.get());
+			}
+		}
+		finally
+		{
+			executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testExpectimaxSearch()
+	{
+		TranspositionTable transpositionTable = new TranspositionTable(
+				1L << 24,
+				ReplacementPolicy.DEPTH_PREFERRED);
+		long bits = 0x0000_0000_0012_1021L;
+
+		SearchResult searchResult = new ExpectimaxSearch(
+				3, Evaluators.emptyCells())
+				.search(bits);
+		SearchResult cachedSearchResult = new ExpectimaxSearch(
+				3, Evaluators.emptyCells(), transpositionTable)
+				.search(bits);
+
+		Assert.assertTrue(transpositionTable.getHitCount() > 0L);
+		Assert.assertTrue(
+				cachedSearchResult.getNodeCount()
+				< searchResult.getNodeCount());
+		Assert.assertEquals(
+				searchResult.getBestMoveDirection(),
+				cachedSearchResult.getBestMoveDirection());
+	}
+}
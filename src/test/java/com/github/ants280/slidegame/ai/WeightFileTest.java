@@ -0,0 +1,108 @@
+package com.github.ants280.slidegame.ai;
+
+import com.github.ants280.slidegame.logic.RandomSource;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WeightFileTest
+{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+	private NTupleNetwork network;
+	private Path path;
+
+	@Before
+	public void setUp() throws IOException
+	{
+		network = NTupleNetwork.fourTuples();
+		NTupleTrainer trainer = new NTupleTrainer(
+				network, 0.1d, 0d, RandomSource.fast(7L));
+		for (int i = 0; i < 20; i++)
+		{
+			trainer.playEpisode();
+		}
+
+		path = temporaryFolder.getRoot().toPath().resolve("weights.bin");
+		WeightFile.write(network, path);
+	}
+
+	@Test
+	public void testRead() throws IOException
+	{
+		for (boolean verifyWeights : new boolean[]{false, true})
+		{
+			NTupleNetwork readNetwork = WeightFile.read(path, verifyWeights);
+
+			Assert.assertEquals(
+					network.getWeightCount(),
+					readNetwork.getWeightCount());
+			RandomSource randomSource = RandomSource.fast(8L);
+			for (int i = 0; i < 100; i++)
+			{
+				long bits = randomSource.nextLong() & 0x3333333333333333L;
+				Assert.assertEquals(
+						network.getValue(bits),
+						readNetwork.getValue(bits),
+						0d);
+			}
+		}
+	}
+
+	@Test(expected = ReadOnlyBufferException.class)
+	public void testRead_cannotTrain() throws IOException
+	{
+		NTupleNetwork readNetwork = WeightFile.read(path);
+
+		readNetwork.update(0x11L, 1f);
+	}
+
+	@Test
+	public void testRead_corruptWeights() throws IOException
+	{
+		this.corrupt(path.toFile().length() - 1L);
+
+		// Only a full check reads the weights:
+		Assert.assertNotNull(WeightFile.read(path));
+		try
+		{
+			WeightFile.read(path, true);
+			Assert.fail("Corrupt weights read");
+		}
+		catch (IOException ex)
+		{
+			Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("CRC"));
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testRead_corruptHeader() throws IOException
+	{
+		// The first cell of the first tuple:
+		this.corrupt(33L);
+
+		WeightFile.read(path);
+	}
+
+	private void corrupt(long position) throws IOException
+	{
+		try (FileChannel fileChannel = FileChannel.open(
+				path, StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			ByteBuffer buffer = ByteBuffer.allocate(1);
+			fileChannel.read(buffer, position);
+			buffer.put(0, (byte) (buffer.get(0) ^ 0x55));
+			((Buffer) buffer).rewind();
+			fileChannel.write(buffer, position);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BitBoardTest
+{
+	private static final int LENGTH = BitBoard.LENGTH;
+
+	@Test
+	public void testSetExponent_getExponent()
+	{
+		BitBoard bitBoard = new BitBoard();
+
+		bitBoard.setExponent(2, 3, 11);
+
+		Assert.assertEquals(11, bitBoard.getExponent(2, 3));
+		Assert.assertEquals(0, bitBoard.getExponent(3, 2));
+		Assert.assertEquals(11L << ((3 * LENGTH + 2) * 4), bitBoard.getBits());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetExponent_tooLarge()
+	{
+		BitBoard bitBoard = new BitBoard();
+
+		bitBoard.setExponent(0, 0, BitBoard.MAX_EXPONENT + 1);
+
+		Assert.fail("It should not be possible to store a 2^16 tile");
+	}
+
+	@Test
+	public void testSlide_maxExponentTilesDoNotCombine()
+	{
+		BitBoard bitBoard = new BitBoard();
+		bitBoard.setExponent(0, 0, BitBoard.MAX_EXPONENT);
+		bitBoard.setExponent(1, 0, BitBoard.MAX_EXPONENT);
+
+		int score = bitBoard.slide(MoveDirection.LEFT);
+
+		Assert.assertEquals(Board.NOT_MOVED, score);
+		Assert.assertFalse(bitBoard.canSlide(MoveDirection.LEFT));
+		Assert.assertEquals(BitBoard.MAX_EXPONENT, bitBoard.getExponent(1, 0));
+	}
+
+	@Test
+	public void testContainsExponent()
+	{
+		BitBoard bitBoard = new BitBoard(0x0123456789ABCDEFL);
+
+		for (int exponent = 0; exponent <= BitBoard.MAX_EXPONENT; exponent++)
+		{
+			Assert.assertTrue(bitBoard.containsExponent(exponent));
+		}
+	}
+
+	@Test
+	public void testContainsExponent_missing()
+	{
+		BitBoard bitBoard = new BitBoard(0x1111222233334444L);
+
+		Assert.assertFalse(bitBoard.containsExponent(0));
+		Assert.assertFalse(bitBoard.containsExponent(5));
+		Assert.assertFalse(bitBoard.containsExponent(11));
+		Assert.assertTrue(bitBoard.containsExponent(3));
+	}
+
+	@Test
+	public void testCountEmpty()
+	{
+		BitBoard bitBoard = new BitBoard(0x1000_0F00_00E0_000DL);
+
+		int emptyCount = bitBoard.countEmpty();
+
+		Assert.assertEquals(12, emptyCount);
+	}
+
+	@Test
+	public void testSpawn_everyEmptyCell()
+	{
+		long bits = 0x1000_0F00_00E0_000DL;
+
+		for (int emptyIndex = 0; emptyIndex < 12; emptyIndex++)
+		{
+			BitBoard bitBoard = new BitBoard(bits);
+
+			bitBoard.spawn(emptyIndex, 2);
+			long spawnedBits = bitBoard.getBits() ^ bits;
+
+			Assert.assertEquals(11, bitBoard.countEmpty());
+			Assert.assertEquals(1, Long.bitCount(spawnedBits));
+			Assert.assertEquals(
+					1,
+					Long.numberOfTrailingZeros(spawnedBits) % 4);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSpawn_filled()
+	{
+		BitBoard bitBoard = new BitBoard(0x1111111111111111L);
+
+		bitBoard.spawn(0, 1);
+
+		Assert.fail("It should not be possible to spawn on a filled board");
+	}
+
+	@Test
+	public void testTranspose()
+	{
+		long bits = 0x0123456789ABCDEFL;
+		BitBoard bitBoard = new BitBoard(bits);
+
+		BitBoard transposedBitBoard = new BitBoard(BitBoard.transpose(bits));
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				Assert.assertEquals(
+						bitBoard.getExponent(c, r),
+						transposedBitBoard.getExponent(r, c));
+			}
+		}
+		Assert.assertEquals(
+				bits,
+				BitBoard.transpose(transposedBitBoard.getBits()));
+	}
+
+	@Test
+	public void testSlide_matchesTileBoard()
+	{
+		Random random = new Random(2048L);
+
+		for (int i = 0; i < 2_000; i++)
+		{
+			for (MoveDirection moveDirection : MoveDirection.values())
+			{
+				BitBoard bitBoard = new BitBoard();
+				TileBoard tileBoard = new TileBoard(LENGTH);
+				for (int r = 0; r < LENGTH; r++)
+				{
+					for (int c = 0; c < LENGTH; c++)
+					{
+						// Mostly small exponents so that tiles combine:
+						int exponent = random.nextInt(4) == 0
+								? 0
+								: 1 + random.nextInt(random.nextBoolean()
+										? 3
+										: BitBoard.MAX_EXPONENT - 1);
+						bitBoard.setExponent(c, r, exponent);
+						tileBoard.setExponent(c, r, exponent);
+					}
+				}
+
+				boolean canSlide = bitBoard.canSlide(moveDirection);
+				int mergeScore = bitBoard.getMergeScore(moveDirection);
+				Assert.assertEquals(
+						tileBoard.getMergeScore(moveDirection),
+						mergeScore);
+				long staticSlidBits = BitBoard.slide(
+						bitBoard.getBits(),
+						moveDirection);
+				int score = bitBoard.slide(moveDirection);
+
+				Assert.assertEquals(
+						tileBoard.canSlide(moveDirection),
+						canSlide);
+				Assert.assertEquals(tileBoard.slide(moveDirection), score);
+				Assert.assertEquals(
+						score == Board.NOT_MOVED ? 0 : score,
+						mergeScore);
+				Assert.assertEquals(
+						tileBoard.countEmpty(),
+						bitBoard.countEmpty());
+				assertBoardsEqual(tileBoard, bitBoard);
+				Assert.assertEquals(bitBoard.getBits(), staticSlidBits);
+			}
+		}
+	}
+
+	private static void assertBoardsEqual(Board expected, Board actual)
+	{
+		int emptyCount = 0;
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				Assert.assertEquals(
+						String.format("Different tile at [%d,%d]", c, r),
+						expected.getExponent(c, r),
+						actual.getExponent(c, r));
+				if (actual.getExponent(c, r) == 0)
+				{
+					emptyCount++;
+				}
+			}
+		}
+		Assert.assertEquals(emptyCount, actual.countEmpty());
+	}
+}
@@ -0,0 +1,124 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoardSymmetryTest
+{
+	// Every cell differs, with cell (c, r) holding r * 4 + c:
+	private static final long DISTINCT = 0xFEDCBA9876543210L;
+
+	@Test
+	public void testMirror()
+	{
+		Assert.assertEquals(
+				0xCDEF89AB45670123L,
+				BoardSymmetry.mirror(DISTINCT));
+	}
+
+	@Test
+	public void testFlip()
+	{
+		Assert.assertEquals(
+				0x32107654BA98FEDCL,
+				BoardSymmetry.flip(DISTINCT));
+	}
+
+	@Test
+	public void testApply_eightDistinctImages()
+	{
+		Set<Long> images = new HashSet<>();
+
+		for (int symmetry = 0; symmetry < BoardSymmetry.COUNT; symmetry++)
+		{
+			images.add(BoardSymmetry.apply(DISTINCT, symmetry));
+		}
+
+		Assert.assertEquals(BoardSymmetry.COUNT, images.size());
+	}
+
+	@Test
+	public void testInvert()
+	{
+		for (int symmetry = 0; symmetry < BoardSymmetry.COUNT; symmetry++)
+		{
+			long image = BoardSymmetry.apply(DISTINCT, symmetry);
+			int inverse = BoardSymmetry.invert(symmetry);
+
+			Assert.assertEquals(
+					DISTINCT,
+					BoardSymmetry.apply(image, inverse));
+		}
+	}
+
+	@Test
+	public void testApply_slidesCommute()
+	{
+		Random random = new Random(5L);
+
+		for (int i = 0; i < 200; i++)
+		{
+			long bits = randomBoard(random);
+
+			for (int s = 0; s < BoardSymmetry.COUNT; s++)
+			{
+				for (MoveDirection moveDirection : MoveDirection.values())
+				{
+					Assert.assertEquals(
+							BoardSymmetry.apply(
+									BitBoard.slide(bits, moveDirection),
+									s),
+							BitBoard.slide(
+									BoardSymmetry.apply(bits, s),
+									BoardSymmetry.apply(moveDirection, s)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testCanonicalize()
+	{
+		Random random = new Random(6L);
+
+		for (int i = 0; i < 200; i++)
+		{
+			long bits = randomBoard(random);
+			long canonicalBits = BoardSymmetry.canonicalize(bits);
+
+			for (int s = 0; s < BoardSymmetry.COUNT; s++)
+			{
+				long image = BoardSymmetry.apply(bits, s);
+
+				Assert.assertEquals(
+						canonicalBits,
+						BoardSymmetry.canonicalize(image));
+				Assert.assertTrue(
+						Long.compareUnsigned(canonicalBits, image) <= 0);
+			}
+
+			Assert.assertEquals(
+					canonicalBits,
+					BoardSymmetry.apply(
+							bits,
+							BoardSymmetry.getCanonicalSymmetry(bits)));
+		}
+	}
+
+	private static long randomBoard(Random random)
+	{
+		long bits = 0L;
+
+		for (int cell = 0; cell < BitBoard.LENGTH * BitBoard.LENGTH; cell++)
+		{
+			// Half the cells empty, the rest small enough to combine:
+			long exponent = random.nextBoolean() ? 0 : 1 + random.nextInt(4);
+			bits |= exponent << (4 * cell);
+		}
+
+		return bits;
+	}
+}
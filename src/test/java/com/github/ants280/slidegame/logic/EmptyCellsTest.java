@@ -0,0 +1,80 @@
+package com.github.ants280.slidegame.logic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EmptyCellsTest
+{
+	@Test
+	public void testConstructor_allEmpty()
+	{
+		EmptyCells emptyCells = new EmptyCells(9);
+
+		Assert.assertEquals(9, emptyCells.size());
+		for (int cell = 0; cell < 9; cell++)
+		{
+			Assert.assertTrue(emptyCells.contains(cell));
+		}
+	}
+
+	@Test
+	public void testRemove()
+	{
+		EmptyCells emptyCells = new EmptyCells(9);
+
+		emptyCells.remove(0);
+		emptyCells.remove(4);
+		emptyCells.remove(4);
+
+		Assert.assertEquals(7, emptyCells.size());
+		Assert.assertFalse(emptyCells.contains(0));
+		Assert.assertFalse(emptyCells.contains(4));
+		for (int i = 0; i < emptyCells.size(); i++)
+		{
+			int cell = emptyCells.get(i);
+			Assert.assertTrue(cell != 0 && cell != 4);
+		}
+	}
+
+	@Test
+	public void testAdd()
+	{
+		EmptyCells emptyCells = new EmptyCells(4);
+		emptyCells.remove(0);
+		emptyCells.remove(1);
+		emptyCells.remove(2);
+
+		emptyCells.add(1);
+		emptyCells.add(1);
+
+		Assert.assertEquals(2, emptyCells.size());
+		Assert.assertTrue(emptyCells.contains(1));
+		Assert.assertTrue(emptyCells.contains(3));
+		Assert.assertFalse(emptyCells.contains(2));
+	}
+
+	@Test
+	public void testFill()
+	{
+		EmptyCells emptyCells = new EmptyCells(4);
+		emptyCells.remove(3);
+		emptyCells.remove(1);
+
+		emptyCells.fill();
+
+		Assert.assertEquals(4, emptyCells.size());
+		Assert.assertTrue(emptyCells.contains(1));
+		Assert.assertTrue(emptyCells.contains(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGet_outOfRange()
+	{
+		EmptyCells emptyCells = new EmptyCells(4);
+		emptyCells.remove(2);
+
+		emptyCells.get(3);
+
+		Assert.fail("Only three cells are empty");
+	}
+}
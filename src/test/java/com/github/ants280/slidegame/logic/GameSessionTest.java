@@ -0,0 +1,114 @@
+package com.github.ants280.slidegame.logic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GameSessionTest
+{
+	@Test
+	public void testNewGame()
+	{
+		Grid grid = new Grid(4, 2048, RandomSource.fast(1L));
+		grid.setTile(0, 0, Tile.TWO);
+
+		GameSession gameSession = new GameSession(grid);
+
+		Assert.assertEquals(0, gameSession.getScore());
+		Assert.assertFalse(gameSession.isGameOver());
+		Assert.assertFalse(gameSession.isGameWon());
+		Assert.assertEquals(14, this.countEmptyCells(grid));
+	}
+
+	@Test
+	public void testMakeMove_score()
+	{
+		Grid grid = new Grid(4, 2048, RandomSource.fast(1L));
+		GameSession gameSession = new GameSession(grid);
+		grid.clear();
+		grid.setTile(0, 0, Tile.TWO);
+		grid.setTile(1, 0, Tile.TWO);
+
+		long moveResult = gameSession.makeMove(MoveDirection.LEFT);
+
+		Assert.assertTrue(MoveResult.isMoved(moveResult));
+		Assert.assertEquals(4, gameSession.getScore());
+		Assert.assertEquals(4, gameSession.getHighScore());
+		Assert.assertFalse(gameSession.isGameOver());
+	}
+
+	@Test
+	public void testMakeMove_won()
+	{
+		Grid grid = new Grid(4, 8, RandomSource.fast(1L));
+		GameSession gameSession = new GameSession(grid);
+		grid.clear();
+		grid.setTile(0, 0, Tile.TWO.getNext());
+		grid.setTile(1, 0, Tile.TWO.getNext());
+
+		gameSession.makeMove(MoveDirection.LEFT);
+		long moveResult = gameSession.makeMove(MoveDirection.RIGHT);
+
+		Assert.assertTrue(gameSession.isGameOver());
+		Assert.assertTrue(gameSession.isGameWon());
+		Assert.assertFalse(MoveResult.isMoved(moveResult));
+	}
+
+	@Test
+	public void testNewGame_keepsHighScore()
+	{
+		Grid grid = new Grid(4, 2048, RandomSource.fast(1L));
+		GameSession gameSession = new GameSession(grid);
+		grid.clear();
+		grid.setTile(0, 0, Tile.TWO);
+		grid.setTile(1, 0, Tile.TWO);
+		gameSession.makeMove(MoveDirection.LEFT);
+
+		gameSession.newGame();
+
+		Assert.assertEquals(0, gameSession.getScore());
+		Assert.assertEquals(4, gameSession.getHighScore());
+	}
+
+	@Test
+	public void testPlayUntilGameOver()
+	{
+		GameSession gameSession
+				= new GameSession(new Grid(4, 2048, RandomSource.fast(7L)));
+		int moveCount = 0;
+
+		while (!gameSession.isGameOver())
+		{
+			for (MoveDirection moveDirection : MoveDirection.values())
+			{
+				if (MoveResult.isMoved(gameSession.makeMove(moveDirection)))
+				{
+					moveCount++;
+					break;
+				}
+			}
+		}
+
+		Assert.assertTrue(moveCount > 0);
+		Assert.assertTrue(gameSession.getScore() > 0);
+		Assert.assertFalse(gameSession.getGrid().canSlideInAnyDirection()
+				&& !gameSession.isGameWon());
+	}
+
+	private int countEmptyCells(Grid grid)
+	{
+		int emptyCells = 0;
+
+		for (int r = 0; r < grid.getLength(); r++)
+		{
+			for (int c = 0; c < grid.getLength(); c++)
+			{
+				if (grid.getTile(c, r) == null)
+				{
+					emptyCells++;
+				}
+			}
+		}
+
+		return emptyCells;
+	}
+}
@@ -0,0 +1,110 @@
+package com.github.ants280.slidegame.logic;
+
+import java.lang.management.ManagementFactory;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class GridAllocationTest
+{
+	private static final int MOVE_COUNT = 20_000;
+	private static final int WARM_UP_ROUNDS = 3;
+	private static final int MEASURED_ROUNDS = 5;
+
+	@Test
+	public void testMove_bitBoard()
+	{
+		assertMovesAllocateNothing(new Grid(4));
+	}
+
+	@Test
+	public void testMove_packedBoard()
+	{
+		assertMovesAllocateNothing(new Grid(5));
+		assertMovesAllocateNothing(new Grid(8));
+	}
+
+	@Test
+	public void testMove_tileBoard()
+	{
+		assertMovesAllocateNothing(new Grid(3, 256));
+		assertMovesAllocateNothing(new Grid(9));
+	}
+
+	/**
+	 * Asserts that at least one round of moves allocates nothing.  Rounds
+	 * are repeated because the JIT may allocate on this thread while it
+	 * recompiles, but an allocating move path would allocate in every round.
+	 */
+	private static void assertMovesAllocateNothing(Grid grid)
+	{
+		com.sun.management.ThreadMXBean threadMXBean
+				= getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		// warm up, loading classes and building row tables:
+		for (int i = 0; i < WARM_UP_ROUNDS; i++)
+		{
+			makeMoves(grid);
+		}
+
+		long allocatedBytesBefore
+				= threadMXBean.getThreadAllocatedBytes(threadId);
+		long measurementAllocatedBytes
+				= threadMXBean.getThreadAllocatedBytes(threadId)
+				- allocatedBytesBefore;
+		long minAllocatedBytes = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_ROUNDS && minAllocatedBytes != 0L; i++)
+		{
+			long movesAllocatedBytesBefore
+					= threadMXBean.getThreadAllocatedBytes(threadId);
+			makeMoves(grid);
+			long allocatedBytes
+					= threadMXBean.getThreadAllocatedBytes(threadId)
+					- movesAllocatedBytesBefore
+					- measurementAllocatedBytes;
+			minAllocatedBytes = Math.min(minAllocatedBytes, allocatedBytes);
+		}
+
+		Assert.assertEquals(
+				"Bytes allocated by moves of a grid of length "
+				+ grid.getLength(),
+				0L,
+				minAllocatedBytes);
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadMXBean()
+	{
+		Assume.assumeTrue(ManagementFactory.getThreadMXBean()
+				instanceof com.sun.management.ThreadMXBean);
+
+		com.sun.management.ThreadMXBean threadMXBean
+				= (com.sun.management.ThreadMXBean) ManagementFactory
+						.getThreadMXBean();
+		Assume.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+		return threadMXBean;
+	}
+
+	private static void makeMoves(Grid grid)
+	{
+		MoveDirection[] moveDirections = MoveDirection.VALUES;
+		grid.clear();
+		grid.addRandomTile();
+		grid.addRandomTile();
+
+		for (int i = 0; i < MOVE_COUNT; i++)
+		{
+			long moveResult = grid.move(moveDirections[i % 4]);
+
+			if (MoveResult.isGoalReached(moveResult)
+					|| !MoveResult.canSlideInAnyDirection(moveResult))
+			{
+				grid.clear();
+				grid.addRandomTile();
+				grid.addRandomTile();
+			}
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.github.ants280.slidegame.logic;
 
+import java.util.BitSet;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -116,6 +117,48 @@ public class GridTest
 		Assert.fail("It should not be possible to add a tile to the grid");
 	}
 
+	@Test
+	public void testAddRandomTile_sameSeed()
+	{
+		Grid grid1 = new Grid(LENGTH, 2048, RandomSource.fast(42L));
+		Grid grid2 = new Grid(LENGTH, 2048, RandomSource.fast(42L));
+
+		for (int i = 0; i < LENGTH * LENGTH; i++)
+		{
+			grid1.addRandomTile();
+			grid2.addRandomTile();
+		}
+
+		for (int r = 0; r < LENGTH; r++)
+		{
+			for (int c = 0; c < LENGTH; c++)
+			{
+				Assert.assertEquals(grid1.getTile(c, r), grid2.getTile(c, r));
+			}
+		}
+		Assert.assertTrue(grid1.isFilled());
+	}
+
+	@Test
+	public void testCopyBoard_independent()
+	{
+		for (int length : new int[]{3, 4, 5})
+		{
+			grid = new Grid(length, 64);
+			grid.setTile(0, 0, Tile.TWO);
+			grid.setTile(1, 0, Tile.TWO);
+
+			Board board = grid.copyBoard();
+			int score = board.slide(MoveDirection.RIGHT);
+
+			Assert.assertEquals(4, score);
+			Assert.assertEquals(Tile.TWO, grid.getTile(0, 0));
+			Assert.assertEquals(Tile.TWO, grid.getTile(1, 0));
+			Assert.assertEquals(length * length - 1, board.countEmpty());
+			Assert.assertEquals(length * length - 2, this.countEmptyCells());
+		}
+	}
+
 	@Test
 	public void testSlideTilesLeft()
 	{
@@ -208,6 +251,26 @@ public class GridTest
 		Assert.assertEquals(16, moveScore);
 	}
 
+	@Test
+	public void testSlideTiles_2244_longerLengths()
+	{
+		for (int length = LENGTH + 1; length <= 10; length++)
+		{
+			grid = new Grid(length);
+			grid.setTile(0, 0, TILE_2);
+			grid.setTile(1, 0, TILE_2);
+			grid.setTile(2, 0, TILE_4);
+			grid.setTile(length - 1, 0, TILE_4);
+
+			int moveScore = grid.slideTiles(MoveDirection.RIGHT);
+
+			Assert.assertEquals(12, moveScore);
+			Assert.assertEquals(TILE_8, grid.getTile(length - 1, 0));
+			Assert.assertEquals(TILE_4, grid.getTile(length - 2, 0));
+			Assert.assertNull(grid.getTile(length - 3, 0));
+		}
+	}
+
 	@Test
 	public void testSlideTilesDown_16s4s()
 	{
@@ -221,6 +284,81 @@ public class GridTest
 		Assert.assertEquals(40, moveScore);
 	}
 
+	@Test
+	public void testSlideTiles_notMoved()
+	{
+		grid.setTile(0, 0, TILE_2);
+
+		int moveScore = grid.slideTiles(MoveDirection.LEFT);
+
+		Assert.assertEquals(0, moveScore);
+	}
+
+	@Test
+	public void testMove()
+	{
+		grid.setTile(0, 0, TILE_2);
+		grid.setTile(1, 0, TILE_2);
+		grid.setTile(3, 0, TILE_4);
+
+		long moveResult = grid.move(MoveDirection.LEFT);
+
+		Assert.assertTrue(MoveResult.isMoved(moveResult));
+		Assert.assertEquals(4, MoveResult.getScore(moveResult));
+		Assert.assertFalse(MoveResult.isGoalReached(moveResult));
+		Assert.assertTrue(MoveResult.canSlide(moveResult, MoveDirection.RIGHT));
+		Assert.assertEquals(TILE_4, grid.getTile(0, 0));
+		Assert.assertEquals(TILE_4, grid.getTile(1, 0));
+		Assert.assertEquals(LENGTH * LENGTH - 3, this.countEmptyCells());
+	}
+
+	@Test
+	public void testMove_notMoved()
+	{
+		grid.setTile(0, 0, TILE_2);
+
+		long moveResult = grid.move(MoveDirection.UP);
+
+		Assert.assertFalse(MoveResult.isMoved(moveResult));
+		Assert.assertEquals(0, MoveResult.getScore(moveResult));
+		Assert.assertFalse(MoveResult.canSlide(moveResult, MoveDirection.LEFT));
+		Assert.assertFalse(MoveResult.canSlide(moveResult, MoveDirection.UP));
+		Assert.assertTrue(MoveResult.canSlide(moveResult, MoveDirection.DOWN));
+		Assert.assertEquals(LENGTH * LENGTH - 1, this.countEmptyCells());
+	}
+
+	@Test
+	public void testMove_goalReached()
+	{
+		grid.setTile(0, 0, TILE_1024);
+		grid.setTile(0, 3, TILE_1024);
+
+		long moveResult = grid.move(MoveDirection.DOWN);
+
+		Assert.assertTrue(MoveResult.isMoved(moveResult));
+		Assert.assertEquals(2048, MoveResult.getScore(moveResult));
+		Assert.assertTrue(MoveResult.isGoalReached(moveResult));
+		// No tile is added once the game is won:
+		Assert.assertEquals(LENGTH * LENGTH - 1, this.countEmptyCells());
+	}
+
+	@Test
+	public void testMove_noMovesLeft()
+	{
+		grid = new Grid(2, 16);
+		grid.setTile(0, 0, TILE_4);
+		grid.setTile(0, 1, TILE_8);
+		grid.setTile(1, 1, TILE_2);
+
+		long moveResult = grid.move(MoveDirection.RIGHT);
+
+		// [[_,4],[8,2]] is stuck unless a 4 is added to the empty cell:
+		Assert.assertTrue(MoveResult.isMoved(moveResult));
+		Assert.assertEquals(
+				grid.getTile(0, 0) == TILE_4,
+				MoveResult.canSlideInAnyDirection(moveResult));
+	}
+
 	@Test
 	public void testHas2048TILE_empty()
 	{
@@ -449,4 +587,57 @@ public class GridTest
 		Assert.assertEquals(largerGoalTileValue, goalTileValue);
 		Assert.assertFalse(goalTileCreated);
 	}
+
+	@Test
+	public void testGetChangedCells()
+	{
+		for (int length : new int[]{3, 4, 5})
+		{
+			grid = new Grid(length, 64);
+			grid.setTile(0, 0, TILE_2);
+			grid.setTile(2, 1, TILE_2);
+			Board previous = grid.copyBoard();
+			grid.setTile(2, 1, TILE_4);
+			grid.setTile(1, 2, TILE_2);
+
+			BitSet changedCells = grid.getChangedCells(previous);
+
+			Assert.assertEquals(2, changedCells.cardinality());
+			Assert.assertTrue(changedCells.get(length + 2));
+			Assert.assertTrue(changedCells.get(2 * length + 1));
+			Assert.assertTrue(
+					grid.getChangedCells(grid.copyBoard()).isEmpty());
+		}
+	}
+
+	@Test
+	public void testGetChangedCells_lengthChanged()
+	{
+		Board previous = grid.copyBoard();
+		grid.setLength(LENGTH + 1);
+
+		BitSet changedCells = grid.getChangedCells(previous);
+
+		Assert.assertEquals(
+				(LENGTH + 1) * (LENGTH + 1),
+				changedCells.cardinality());
+	}
+
+	private int countEmptyCells()
+	{
+		int emptyCount = 0;
+
+		for (int r = 0; r < grid.getLength(); r++)
+		{
+			for (int c = 0; c < grid.getLength(); c++)
+			{
+				if (grid.getTile(c, r) == null)
+				{
+					emptyCount++;
+				}
+			}
+		}
+
+		return emptyCount;
+	}
 }
@@ -0,0 +1,101 @@
+package com.github.ants280.slidegame.logic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MoveTraceTest
+{
+	@Test
+	public void testOf_row()
+	{
+		// The top row is 2 2 2 2:
+		Board before = new BitBoard(0x1111L);
+		Board after = before.copy();
+		after.slide(MoveDirection.LEFT);
+
+		MoveTrace moveTrace = MoveTrace.of(before, MoveDirection.LEFT, after);
+
+		Assert.assertEquals(4, moveTrace.getTileCount());
+		int[] expectedToCells = {0, 0, 1, 1};
+		for (int tile = 0; tile < 4; tile++)
+		{
+			Assert.assertEquals(tile, moveTrace.getFromCell(tile));
+			Assert.assertEquals(
+					expectedToCells[tile],
+					moveTrace.getToCell(tile));
+			Assert.assertEquals(Tile.TWO, moveTrace.getTile(tile));
+		}
+		Assert.assertTrue(moveTrace.isMerged(0));
+		Assert.assertTrue(moveTrace.isMerged(1));
+		Assert.assertFalse(moveTrace.isMerged(2));
+		Assert.assertEquals(-1, moveTrace.getSpawnCell());
+	}
+
+	@Test
+	public void testOf_matchesSlide()
+	{
+		RandomSource randomSource = RandomSource.fast(7L);
+
+		for (int length : new int[]{3, 4, 5, 7})
+		{
+			for (int game = 0; game < 20; game++)
+			{
+				Grid grid = new Grid(length, 64, randomSource);
+				for (int i = 0; i < length * length / 2 + game % length; i++)
+				{
+					grid.addRandomTile();
+				}
+
+				for (MoveDirection moveDirection : MoveDirection.values())
+				{
+					this.assertTraceMatchesSlide(
+							grid.copyBoard(),
+							moveDirection,
+							randomSource);
+				}
+			}
+		}
+	}
+
+	private void assertTraceMatchesSlide(
+			Board before,
+			MoveDirection moveDirection,
+			RandomSource randomSource)
+	{
+		int length = before.getLength();
+		Board slid = before.copy();
+		boolean moved = slid.slide(moveDirection) != Board.NOT_MOVED;
+		Board after = slid.copy();
+		if (moved && after.countEmpty() != 0)
+		{
+			Grid.addRandomTile(after, randomSource);
+		}
+
+		MoveTrace moveTrace = MoveTrace.of(before, moveDirection, after);
+		int[] traced = new int[length * length];
+		for (int tile = 0; tile < moveTrace.getTileCount(); tile++)
+		{
+			int toCell = moveTrace.getToCell(tile);
+			int exponent = moveTrace.getTile(tile).getExponent();
+			traced[toCell] = moveTrace.isMerged(toCell)
+					? exponent + 1
+					: exponent;
+		}
+
+		int expectedSpawnCell = -1;
+		for (int r = 0; r < length; r++)
+		{
+			for (int c = 0; c < length; c++)
+			{
+				Assert.assertEquals(
+						slid.getExponent(c, r),
+						traced[r * length + c]);
+				if (slid.getExponent(c, r) != after.getExponent(c, r))
+				{
+					expectedSpawnCell = r * length + c;
+				}
+			}
+		}
+		Assert.assertEquals(expectedSpawnCell, moveTrace.getSpawnCell());
+	}
+}
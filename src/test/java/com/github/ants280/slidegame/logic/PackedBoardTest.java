@@ -0,0 +1,169 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class PackedBoardTest
+{
+	private final int length;
+
+	public PackedBoardTest(int length)
+	{
+		this.length = length;
+	}
+
+	@Parameterized.Parameters(name = "{index}: length={0}")
+	public static Iterable<Object[]> data()
+	{
+		return Arrays.asList(
+				new Object[]
+				{
+					5
+				},
+				new Object[]
+				{
+					6
+				},
+				new Object[]
+				{
+					7
+				},
+				new Object[]
+				{
+					8
+				});
+	}
+
+	@Test
+	public void testSetExponent_getExponent()
+	{
+		PackedBoard packedBoard = new PackedBoard(length);
+
+		packedBoard.setExponent(length - 1, length - 1, RowTable.MAX_EXPONENT);
+		packedBoard.setExponent(0, length - 1, 1);
+
+		Assert.assertEquals(
+				RowTable.MAX_EXPONENT,
+				packedBoard.getExponent(length - 1, length - 1));
+		Assert.assertEquals(1, packedBoard.getExponent(0, length - 1));
+		Assert.assertEquals(0, packedBoard.getExponent(length - 2, 0));
+	}
+
+	@Test
+	public void testContainsExponent_emptyOnlyInsideBoard()
+	{
+		PackedBoard packedBoard = new PackedBoard(length);
+		for (int r = 0; r < length; r++)
+		{
+			for (int c = 0; c < length; c++)
+			{
+				packedBoard.setExponent(c, r, 1 + (c + r) % 3);
+			}
+		}
+
+		Assert.assertFalse(packedBoard.containsExponent(0));
+		Assert.assertTrue(packedBoard.containsExponent(3));
+		Assert.assertFalse(packedBoard.containsExponent(4));
+		Assert.assertEquals(0, packedBoard.countEmpty());
+	}
+
+	@Test
+	public void testSpawn_everyEmptyCell()
+	{
+		int cellCount = length * length;
+
+		for (int emptyIndex = 0; emptyIndex < cellCount; emptyIndex++)
+		{
+			PackedBoard packedBoard = new PackedBoard(length);
+
+			packedBoard.spawn(emptyIndex, 2);
+
+			Assert.assertEquals(cellCount - 1, packedBoard.countEmpty());
+			Assert.assertTrue(packedBoard.containsExponent(2));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSpawn_pastLastEmptyCell()
+	{
+		PackedBoard packedBoard = new PackedBoard(length);
+
+		packedBoard.spawn(length * length, 1);
+
+		Assert.fail("It should not be possible to spawn outside the board");
+	}
+
+	@Test
+	public void testSlide_matchesTileBoard()
+	{
+		Random random = new Random(length);
+
+		for (int i = 0; i < 500; i++)
+		{
+			for (MoveDirection moveDirection : MoveDirection.values())
+			{
+				PackedBoard packedBoard = new PackedBoard(length);
+				TileBoard tileBoard = new TileBoard(length);
+				for (int r = 0; r < length; r++)
+				{
+					for (int c = 0; c < length; c++)
+					{
+						// Mostly small exponents so that tiles combine:
+						int exponent = random.nextInt(4) == 0
+								? 0
+								: 1 + random.nextInt(random.nextBoolean()
+										? 3
+										: RowTable.MAX_EXPONENT - 1);
+						packedBoard.setExponent(c, r, exponent);
+						tileBoard.setExponent(c, r, exponent);
+					}
+				}
+
+				boolean canSlide = packedBoard.canSlide(moveDirection);
+				int mergeScore = packedBoard.getMergeScore(moveDirection);
+				Assert.assertEquals(
+						tileBoard.getMergeScore(moveDirection),
+						mergeScore);
+				int score = packedBoard.slide(moveDirection);
+
+				Assert.assertEquals(
+						tileBoard.canSlide(moveDirection),
+						canSlide);
+				Assert.assertEquals(tileBoard.slide(moveDirection), score);
+				Assert.assertEquals(
+						score == Board.NOT_MOVED ? 0 : score,
+						mergeScore);
+				Assert.assertEquals(
+						tileBoard.countEmpty(),
+						packedBoard.countEmpty());
+				this.assertBoardsEqual(tileBoard, packedBoard);
+			}
+		}
+	}
+
+	private void assertBoardsEqual(Board expected, Board actual)
+	{
+		int emptyCount = 0;
+
+		for (int r = 0; r < length; r++)
+		{
+			for (int c = 0; c < length; c++)
+			{
+				Assert.assertEquals(
+						String.format("Different tile at [%d,%d]", c, r),
+						expected.getExponent(c, r),
+						actual.getExponent(c, r));
+				if (actual.getExponent(c, r) == 0)
+				{
+					emptyCount++;
+				}
+			}
+		}
+		Assert.assertEquals(emptyCount, actual.countEmpty());
+	}
+}
@@ -0,0 +1,108 @@
+package com.github.ants280.slidegame.logic;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class RandomSourceTest
+{
+	private static final long SEED = 2048L;
+	private final LongFunction<RandomSource> randomSourceFactory;
+
+	public RandomSourceTest(
+			String name,
+			LongFunction<RandomSource> randomSourceFactory)
+	{
+		this.randomSourceFactory = randomSourceFactory;
+	}
+
+	@Parameterized.Parameters(name = "{index}: {0}")
+	public static Iterable<Object[]> data()
+	{
+		return Arrays.asList(
+				new Object[]
+				{
+					"fast",
+					(LongFunction<RandomSource>) RandomSource::fast
+				},
+				new Object[]
+				{
+					"splittable",
+					(LongFunction<RandomSource>) RandomSource::splittable
+				});
+	}
+
+	@Test
+	public void testNextInt_sameSeed()
+	{
+		RandomSource randomSource1 = randomSourceFactory.apply(SEED);
+		RandomSource randomSource2 = randomSourceFactory.apply(SEED);
+
+		for (int i = 0; i < 1000; i++)
+		{
+			Assert.assertEquals(
+					randomSource1.nextInt(1000),
+					randomSource2.nextInt(1000));
+		}
+	}
+
+	@Test
+	public void testNextInt_inBoundsAndCoversRange()
+	{
+		RandomSource randomSource = randomSourceFactory.apply(SEED);
+		int bound = 7;
+		int[] counts = new int[bound];
+
+		for (int i = 0; i < 70_000; i++)
+		{
+			counts[randomSource.nextInt(bound)]++;
+		}
+
+		for (int count : counts)
+		{
+			Assert.assertTrue(
+					"Uneven counts: " + Arrays.toString(counts),
+					count > 9_000 && count < 11_000);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNextInt_badBound()
+	{
+		RandomSource randomSource = randomSourceFactory.apply(SEED);
+
+		randomSource.nextInt(0);
+
+		Assert.fail("Bound must be positive");
+	}
+
+	@Test
+	public void testSplit_reproducibleAndIndependent()
+	{
+		RandomSource split1 = randomSourceFactory.apply(SEED).split();
+		RandomSource split2 = randomSourceFactory.apply(SEED).split();
+		RandomSource parent = randomSourceFactory.apply(SEED);
+		RandomSource child = parent.split();
+
+		long value1 = split1.nextLong();
+
+		Assert.assertEquals(value1, split2.nextLong());
+		Assert.assertNotEquals(parent.nextLong(), child.nextLong());
+	}
+
+	@Test
+	public void testDeriveSeed()
+	{
+		long seed0 = RandomSource.deriveSeed(SEED, 0L);
+		long seed1 = RandomSource.deriveSeed(SEED, 1L);
+		long otherMasterSeed0 = RandomSource.deriveSeed(SEED + 1L, 0L);
+
+		Assert.assertEquals(seed0, RandomSource.deriveSeed(SEED, 0L));
+		Assert.assertNotEquals(seed0, seed1);
+		Assert.assertNotEquals(seed0, otherMasterSeed0);
+	}
+}
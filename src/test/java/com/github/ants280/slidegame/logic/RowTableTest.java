@@ -0,0 +1,66 @@
+package com.github.ants280.slidegame.logic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RowTableTest
+{
+	private static final RowTable ROW_TABLE = new RowTable(4);
+
+	@Test
+	public void testSlideLeft_2244()
+	{
+		int row = 0x2211; // [2,2,4,4]
+
+		int entry = ROW_TABLE.slideLeft(row);
+
+		Assert.assertEquals(0x0032, entry & ROW_TABLE.getRowMask());
+		Assert.assertNotEquals(0, entry & ROW_TABLE.getMovedFlag());
+		Assert.assertEquals(12, ROW_TABLE.getScore(row));
+	}
+
+	@Test
+	public void testSlideRight_2244()
+	{
+		int row = 0x2211; // [2,2,4,4]
+
+		int entry = ROW_TABLE.slideRight(row);
+
+		Assert.assertEquals(0x3200, entry & ROW_TABLE.getRowMask());
+		Assert.assertNotEquals(0, entry & ROW_TABLE.getMovedFlag());
+	}
+
+	@Test
+	public void testSlideLeft_notMoved()
+	{
+		int row = 0x0321; // [2,4,8,_]
+
+		int entry = ROW_TABLE.slideLeft(row);
+
+		Assert.assertEquals(row, entry);
+		Assert.assertEquals(0, ROW_TABLE.getScore(row));
+	}
+
+	@Test
+	public void testSlideRight_moved()
+	{
+		int row = 0x0321; // [2,4,8,_]
+
+		int entry = ROW_TABLE.slideRight(row);
+
+		Assert.assertEquals(
+				0x3210 | ROW_TABLE.getMovedFlag(),
+				entry);
+	}
+
+	@Test
+	public void testComputeSlide_wideRow()
+	{
+		int row = 0x1101_1011; // [2,2,_,2,2,_,2,2]
+
+		long slid = RowTable.computeSlide(row, 8, true);
+
+		Assert.assertEquals(0x0000_0222, (int) slid);
+		Assert.assertEquals(12, (int) (slid >>> Integer.SIZE));
+	}
+}
@@ -0,0 +1,120 @@
+package com.github.ants280.slidegame.metrics;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GameMetricsTest
+{
+	@Test
+	public void testMoveHandled()
+	{
+		GameMetrics gameMetrics = new GameMetrics();
+		gameMetrics.moveHandled(System.nanoTime(), true);
+		gameMetrics.moveHandled(System.nanoTime(), false);
+
+		Assert.assertEquals(1L, gameMetrics.getMoveCount());
+		Assert.assertEquals(2L, gameMetrics.getMoveLatency().getCount());
+		Assert.assertEquals(1L, gameMetrics.getPeakMovesPerSecond());
+	}
+
+	@Test
+	public void testStopSampling()
+	{
+		GameMetrics gameMetrics = new GameMetrics();
+		gameMetrics.stopSampling();
+		gameMetrics.moveHandled(System.nanoTime(), true);
+		gameMetrics.gridPainted(System.nanoTime());
+
+		Assert.assertFalse(gameMetrics.isSampling());
+		Assert.assertEquals(1L, gameMetrics.getMoveCount());
+		Assert.assertEquals(0L, gameMetrics.getMoveLatency().getCount());
+		Assert.assertEquals(0L, gameMetrics.getPaintLatency().getCount());
+		Assert.assertEquals(0L, gameMetrics.getPeakMovesPerSecond());
+	}
+
+	@Test
+	public void testGamesPlayed()
+	{
+		GameMetrics gameMetrics = new GameMetrics();
+		gameMetrics.gameStarted(4, 2048);
+		gameMetrics.moveHandled(System.nanoTime(), true);
+		gameMetrics.gameEnded(true);
+		// Settings changed before a move, then a game with only an invalid
+		// move, then one abandoned after a move:
+		gameMetrics.gameStarted(5, 2048);
+		gameMetrics.gameStarted(5, 4096);
+		gameMetrics.moveHandled(System.nanoTime(), false);
+		gameMetrics.gameStarted(5, 4096);
+		gameMetrics.moveHandled(System.nanoTime(), true);
+		gameMetrics.gameStarted(5, 4096);
+		gameMetrics.moveHandled(System.nanoTime(), true);
+		gameMetrics.gameEnded(false);
+
+		Assert.assertEquals(1L, gameMetrics.getWinCount());
+		Assert.assertEquals(1L, gameMetrics.getLossCount());
+		Assert.assertEquals(1L, gameMetrics.getAbandonedCount());
+		Assert.assertEquals(3L, gameMetrics.getGamesPlayed());
+	}
+
+	@Test
+	public void testResetCounters()
+	{
+		GameMetrics gameMetrics = new GameMetrics();
+		gameMetrics.gameStarted(4, 2048);
+		gameMetrics.scoreChanged(12, 34);
+		gameMetrics.moveHandled(System.nanoTime(), true);
+		gameMetrics.gameEnded(false);
+		gameMetrics.resetCounters();
+
+		Assert.assertEquals(0L, gameMetrics.getMoveCount());
+		Assert.assertEquals(0L, gameMetrics.getGamesPlayed());
+		Assert.assertEquals(0L, gameMetrics.getLossCount());
+		Assert.assertEquals(0L, gameMetrics.getAbandonedCount());
+		Assert.assertEquals(0L, gameMetrics.getMoveLatency().getCount());
+		Assert.assertEquals(12, gameMetrics.getScore());
+		Assert.assertEquals(34, gameMetrics.getHighScore());
+		Assert.assertEquals(4, gameMetrics.getGridLength());
+	}
+
+	@Test
+	public void testRegister() throws JMException
+	{
+		GameMetrics gameMetrics = new GameMetrics();
+		gameMetrics.gameStarted(5, 1024);
+		gameMetrics.gameEnded(true);
+		gameMetrics.moveHandled(System.nanoTime(), true);
+		MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+		ObjectName objectName = new ObjectName(GameMetrics.OBJECT_NAME);
+		gameMetrics.register();
+
+		try
+		{
+			CompositeData moveLatency = (CompositeData) mBeanServer
+					.getAttribute(objectName, "MoveLatency");
+
+			Assert.assertEquals(
+					5,
+					mBeanServer.getAttribute(objectName, "GridLength"));
+			Assert.assertEquals(
+					1L,
+					mBeanServer.getAttribute(objectName, "WinCount"));
+			Assert.assertEquals(1L, moveLatency.get("count"));
+			Assert.assertTrue(moveLatency.containsKey("p999Nanos"));
+
+			mBeanServer.invoke(objectName, "resetCounters", null, null);
+			mBeanServer.invoke(objectName, "stopSampling", null, null);
+
+			Assert.assertEquals(0L, gameMetrics.getWinCount());
+			Assert.assertFalse(gameMetrics.isSampling());
+		}
+		finally
+		{
+			gameMetrics.unregister();
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package com.github.ants280.slidegame.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest
+{
+	@Test
+	public void testGetIndex_smallValuesExact()
+	{
+		for (long value = 0L; value < 256L; value++)
+		{
+			int index = LatencyHistogram.getIndex(value);
+
+			Assert.assertEquals(value, index);
+			Assert.assertEquals(value, LatencyHistogram.getHighestValue(index));
+		}
+	}
+
+	@Test
+	public void testGetIndex_withinOnePercent()
+	{
+		long[] values =
+		{
+			256L, 257L, 1_000L, 123_456L, 16_666_667L, 1L << 40,
+			Long.MAX_VALUE
+		};
+
+		for (long value : values)
+		{
+			int index = LatencyHistogram.getIndex(value);
+			long highestValue = LatencyHistogram.getHighestValue(index);
+
+			Assert.assertTrue(index < LatencyHistogram.BUCKET_COUNT);
+			Assert.assertTrue(highestValue >= value);
+			Assert.assertTrue(
+					"value=" + value + " highestValue=" + highestValue,
+					highestValue - value <= value / 100L);
+			Assert.assertTrue(
+					LatencyHistogram.getHighestValue(index - 1) < value);
+		}
+	}
+
+	@Test
+	public void testGetValueAtPercentile()
+	{
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+		for (long value = 1L; value <= 1000L; value++)
+		{
+			latencyHistogram.record(value * 1000L);
+		}
+
+		LatencySnapshot snapshot = latencyHistogram.getSnapshot();
+
+		Assert.assertEquals(1000L, snapshot.getCount());
+		Assert.assertEquals(500_500L, snapshot.getMeanNanos());
+		Assert.assertEquals(1_000_000L, snapshot.getMaxNanos());
+		assertNear(500_000L, snapshot.getValueAtPercentile(50d));
+		assertNear(990_000L, snapshot.getValueAtPercentile(99d));
+		assertNear(999_000L, snapshot.getValueAtPercentile(99.9d));
+		Assert.assertEquals(
+				1_000_000L,
+				snapshot.getValueAtPercentile(100d));
+	}
+
+	@Test
+	public void testGetValueAtPercentile_empty()
+	{
+		LatencySnapshot snapshot = new LatencyHistogram().getSnapshot();
+
+		Assert.assertEquals(0L, snapshot.getCount());
+		Assert.assertEquals(0L, snapshot.getValueAtPercentile(99d));
+		Assert.assertEquals(0L, snapshot.getMeanNanos());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetValueAtPercentile_tooHigh()
+	{
+		new LatencyHistogram().getSnapshot().getValueAtPercentile(101d);
+	}
+
+	@Test
+	public void testRecord_negative()
+	{
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+		latencyHistogram.record(-5L);
+
+		LatencySnapshot snapshot = latencyHistogram.getSnapshot();
+
+		Assert.assertEquals(1L, snapshot.getCount());
+		Assert.assertEquals(0L, snapshot.getMaxNanos());
+	}
+
+	@Test
+	public void testSince()
+	{
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+		latencyHistogram.record(5_000_000L);
+		LatencySnapshot earlier = latencyHistogram.getSnapshot();
+		latencyHistogram.record(100L);
+		latencyHistogram.record(200L);
+
+		LatencySnapshot interval
+				= latencyHistogram.getSnapshot().since(earlier);
+
+		Assert.assertEquals(2L, interval.getCount());
+		Assert.assertEquals(150L, interval.getMeanNanos());
+		Assert.assertEquals(200L, interval.getMaxNanos());
+		Assert.assertEquals(200L, interval.getValueAtPercentile(99.9d));
+	}
+
+	@Test
+	public void testReset()
+	{
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+		latencyHistogram.record(1_000L);
+		latencyHistogram.reset();
+
+		LatencySnapshot snapshot = latencyHistogram.getSnapshot();
+
+		Assert.assertEquals(0L, snapshot.getCount());
+		Assert.assertEquals(0L, snapshot.getMaxNanos());
+	}
+
+	@Test
+	public void testToString()
+	{
+		LatencyHistogram latencyHistogram = new LatencyHistogram();
+		latencyHistogram.record(2_000_000L);
+
+		Assert.assertEquals(
+				"count=1 mean=2.000ms p50=2.000ms p99=2.000ms "
+				+ "p99.9=2.000ms max=2.000ms",
+				latencyHistogram.getSnapshot().toString());
+	}
+
+	private static void assertNear(long expected, long actual)
+	{
+		Assert.assertTrue(
+				"expected=" + expected + " actual=" + actual,
+				actual >= expected && actual - expected <= expected / 100L);
+	}
+}
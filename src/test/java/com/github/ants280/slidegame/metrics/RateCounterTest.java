@@ -0,0 +1,66 @@
+package com.github.ants280.slidegame.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RateCounterTest
+{
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	public void testGetRate()
+	{
+		RateCounter rateCounter = new RateCounter();
+		long startNanos = -3L * SECOND;
+		for (int i = 0; i < 50; i++)
+		{
+			rateCounter.record(startNanos + i * SECOND / 10L);
+		}
+
+		// 5 full seconds of 10 events, over the 10 second window:
+		Assert.assertEquals(
+				5d,
+				rateCounter.getRate(startNanos + 5L * SECOND),
+				0d);
+		// The current second is not counted:
+		Assert.assertEquals(
+				4d,
+				rateCounter.getRate(startNanos + 4L * SECOND),
+				0d);
+		Assert.assertEquals(
+				1d,
+				rateCounter.getRate(startNanos + 14L * SECOND),
+				0d);
+		Assert.assertEquals(
+				0d,
+				rateCounter.getRate(startNanos + 15L * SECOND),
+				0d);
+		Assert.assertEquals(10L, rateCounter.getPeakRate());
+	}
+
+	@Test
+	public void testRecord_slotReused()
+	{
+		RateCounter rateCounter = new RateCounter();
+		rateCounter.record(0L);
+		rateCounter.record(0L);
+		rateCounter.record(100L * SECOND);
+
+		Assert.assertEquals(
+				0.1d,
+				rateCounter.getRate(101L * SECOND),
+				0d);
+		Assert.assertEquals(2L, rateCounter.getPeakRate());
+	}
+
+	@Test
+	public void testReset()
+	{
+		RateCounter rateCounter = new RateCounter();
+		rateCounter.record(0L);
+		rateCounter.reset();
+
+		Assert.assertEquals(0d, rateCounter.getRate(SECOND), 0d);
+		Assert.assertEquals(0L, rateCounter.getPeakRate());
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.ants280.slidegame.ui;
+
+import com.github.ants280.slidegame.logic.MoveDirection;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MoveQueueTest
+{
+	@Test
+	public void testOffer_order()
+	{
+		MoveQueue moveQueue = new MoveQueue(4);
+		MoveDirection[] moveDirections =
+		{
+			MoveDirection.LEFT, MoveDirection.UP, MoveDirection.LEFT,
+			MoveDirection.DOWN
+		};
+
+		for (int i = 0; i < moveDirections.length; i++)
+		{
+			Assert.assertTrue(moveQueue.offer(moveDirections[i], 10L + i));
+		}
+
+		Assert.assertEquals(moveDirections.length, moveQueue.size());
+		for (int i = 0; i < moveDirections.length; i++)
+		{
+			Assert.assertEquals(
+					moveDirections[i],
+					moveQueue.getMoveDirection(i));
+			Assert.assertEquals(10L + i, moveQueue.getInputNanos(i));
+		}
+	}
+
+	@Test
+	public void testOffer_full()
+	{
+		MoveQueue moveQueue = new MoveQueue(2);
+
+		Assert.assertTrue(moveQueue.offer(MoveDirection.LEFT, 1L));
+		Assert.assertTrue(moveQueue.offer(MoveDirection.RIGHT, 2L));
+		Assert.assertFalse(moveQueue.offer(MoveDirection.UP, 3L));
+
+		// The dropped move does not replace a queued one:
+		Assert.assertEquals(2, moveQueue.size());
+		Assert.assertEquals(
+				MoveDirection.RIGHT,
+				moveQueue.getMoveDirection(1));
+		Assert.assertEquals(2L, moveQueue.getInputNanos(1));
+	}
+
+	@Test
+	public void testClear()
+	{
+		MoveQueue moveQueue = new MoveQueue(1);
+		Assert.assertTrue(moveQueue.isEmpty());
+		Assert.assertTrue(moveQueue.offer(MoveDirection.LEFT, 1L));
+		Assert.assertFalse(moveQueue.isEmpty());
+		Assert.assertFalse(moveQueue.offer(MoveDirection.UP, 2L));
+
+		moveQueue.clear();
+
+		Assert.assertTrue(moveQueue.isEmpty());
+		Assert.assertEquals(0, moveQueue.size());
+		Assert.assertTrue(moveQueue.offer(MoveDirection.DOWN, 3L));
+		Assert.assertEquals(
+				MoveDirection.DOWN,
+				moveQueue.getMoveDirection(0));
+	}
+}
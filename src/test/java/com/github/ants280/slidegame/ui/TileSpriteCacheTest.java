@@ -0,0 +1,100 @@
+package com.github.ants280.slidegame.ui;
+
+import com.github.ants280.slidegame.logic.Tile;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TileSpriteCacheTest
+{
+	private static final Font FONT = new Font(Font.SANS_SERIF, Font.BOLD, 20);
+	private static final Tile FOUR = Tile.TWO.getNext();
+	private TileSpriteCache tileSpriteCache;
+	private BufferedImage image;
+	private Graphics2D g;
+
+	@Before
+	public void setUp()
+	{
+		tileSpriteCache = new TileSpriteCache();
+		tileSpriteCache.setTileSize(40, FONT);
+		image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+		g = image.createGraphics();
+	}
+
+	@After
+	public void tearDown()
+	{
+		g.dispose();
+	}
+
+	@Test
+	public void testPaintTile_eachValueDrawnOnce()
+	{
+		for (int i = 0; i < 3; i++)
+		{
+			tileSpriteCache.paintTile(g, Tile.TWO, 0, 0);
+			tileSpriteCache.paintTile(g, FOUR, 50, 0);
+			tileSpriteCache.paintTile(g, null, 0, 50);
+			tileSpriteCache.paintTile(g, Tile.TWO, 50, 50, 20);
+		}
+
+		Assert.assertEquals(3, tileSpriteCache.getSpriteCount());
+	}
+
+	@Test
+	public void testPaintTile_colors()
+	{
+		tileSpriteCache.paintTile(g, Tile.TWO, 0, 0);
+		tileSpriteCache.paintTile(g, null, 50, 50);
+
+		// The corners of tiles have no text:
+		Assert.assertEquals(
+				SlideGameColors.getColor(Tile.TWO).getRGB(),
+				image.getRGB(1, 1));
+		Assert.assertEquals(
+				SlideGameColors.EMPTY_TILE_COLOR.getRGB(),
+				image.getRGB(51, 51));
+	}
+
+	@Test
+	public void testSetTileSize_sizeChanged()
+	{
+		tileSpriteCache.paintTile(g, Tile.TWO, 0, 0);
+		tileSpriteCache.setTileSize(40, FONT);
+
+		Assert.assertEquals(1, tileSpriteCache.getSpriteCount());
+
+		tileSpriteCache.setTileSize(48, FONT);
+
+		Assert.assertEquals(48, tileSpriteCache.getTileSize());
+		Assert.assertEquals(0, tileSpriteCache.getSpriteCount());
+	}
+
+	@Test
+	public void testSetTileSize_fontChanged()
+	{
+		tileSpriteCache.paintTile(g, Tile.TWO, 0, 0);
+		tileSpriteCache.setTileSize(40, FONT.deriveFont(24f));
+
+		Assert.assertEquals(0, tileSpriteCache.getSpriteCount());
+	}
+
+	@Test
+	public void testPaintTile_scaleChanged()
+	{
+		tileSpriteCache.paintTile(g, Tile.TWO, 0, 0);
+		tileSpriteCache.paintTile(g, FOUR, 50, 0);
+		Assert.assertEquals(2, tileSpriteCache.getSpriteCount());
+
+		// As when the window moves to a screen with a different scale:
+		g.scale(2d, 2d);
+		tileSpriteCache.paintTile(g, Tile.TWO, 0, 0);
+
+		Assert.assertEquals(1, tileSpriteCache.getSpriteCount());
+	}
+}